@@ -0,0 +1,42 @@
+package edu.byu.cs329.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler and JSON results.
+ *
+ * <p>Takes the usual JMH command line. Unless overridden with -rf and
+ * -rff the results are written as JSON to jmh-result.json, which tools
+ * such as the JMH visualizer can compare across commits.
+ */
+public final class BenchmarkMain {
+  static final String RESULT_FILE = "jmh-result.json";
+
+  private BenchmarkMain() {
+  }
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args the JMH command line.
+   * @throws Exception if the command line is bad or a benchmark fails.
+   */
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    ChainedOptionsBuilder options = new OptionsBuilder()
+        .parent(commandLine)
+        .addProfiler(GCProfiler.class);
+    if (!commandLine.getResultFormat().hasValue()) {
+      options.resultFormat(ResultFormatType.JSON);
+    }
+    if (!commandLine.getResult().hasValue()) {
+      options.result(RESULT_FILE);
+    }
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,44 @@
+package edu.byu.cs329.benchmarks;
+
+import edu.byu.cs329.constantfolding.Folding;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One pass of a single {@link Folding} rule over a fresh tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FoldingRuleBenchmark {
+  @Param({
+      "BlockFolding",
+      "ParenthesizedExpressionFolding",
+      "LogicalNotPrefixExpressionFolding",
+      "InfixExpressionPlusFolding",
+      "InfixExpressionLessThanFolding",
+      "IfStatementFolding"
+  })
+  public String rule;
+
+  private Folding folding;
+
+  @Setup(Level.Trial)
+  public void createRule() throws ReflectiveOperationException {
+    folding = (Folding) Class.forName("edu.byu.cs329.constantfolding." + rule)
+        .getDeclaredConstructor().newInstance();
+  }
+
+  @Benchmark
+  public boolean fold(FreshTree tree) {
+    return folding.fold(tree.root);
+  }
+}
@@ -0,0 +1,22 @@
+package edu.byu.cs329.benchmarks;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A tree parsed again before every call, for benchmarks that rewrite it.
+ *
+ * <p>The parse is not part of the measured time.
+ */
+@State(Scope.Thread)
+public class FreshTree {
+  public ASTNode root;
+
+  @Setup(Level.Invocation)
+  public void parse(ProgramState program) {
+    root = program.parse();
+  }
+}
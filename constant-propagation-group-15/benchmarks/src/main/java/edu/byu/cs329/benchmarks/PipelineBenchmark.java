@@ -0,0 +1,59 @@
+package edu.byu.cs329.benchmarks;
+
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.constantfolding.ConstantFolding;
+import edu.byu.cs329.constantpropagation.ConstantPropagation;
+import edu.byu.cs329.rd.ReachingDefinitions;
+import edu.byu.cs329.rd.ReachingDefinitionsBuilder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Each stage of the pipeline end to end.
+ *
+ * <p>Stages that rewrite the tree run on a {@link FreshTree}. The graph and
+ * reaching definitions stages only read it and share one parse per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PipelineBenchmark {
+  private ASTNode root;
+  private List<ControlFlowGraph> cfgList;
+
+  @Setup(Level.Trial)
+  public void parse(ProgramState program) {
+    root = program.parse();
+    cfgList = new ControlFlowGraphBuilder().build(root);
+  }
+
+  @Benchmark
+  public ASTNode constantFolding(FreshTree tree) {
+    return ConstantFolding.fold(tree.root);
+  }
+
+  @Benchmark
+  public List<ControlFlowGraph> controlFlowGraph() {
+    return new ControlFlowGraphBuilder().build(root);
+  }
+
+  @Benchmark
+  public List<ReachingDefinitions> reachingDefinitions() {
+    return new ReachingDefinitionsBuilder().build(cfgList);
+  }
+
+  @Benchmark
+  public ConstantPropagation.Statistics constantPropagation(FreshTree tree) {
+    return ConstantPropagation.propagate(tree.root);
+  }
+}
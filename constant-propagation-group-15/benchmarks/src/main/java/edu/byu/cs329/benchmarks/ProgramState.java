@@ -0,0 +1,53 @@
+package edu.byu.cs329.benchmarks;
+
+import edu.byu.cs329.batch.SourceFile;
+import edu.byu.cs329.generator.ProgramGenerator;
+import java.nio.charset.StandardCharsets;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The shape of the program a benchmark runs on.
+ *
+ * <p>The program is one method made by {@link ProgramGenerator} from a
+ * fixed seed, so every run of a shape measures the same code.
+ */
+@State(Scope.Benchmark)
+public class ProgramState {
+  static final long SEED = 329;
+
+  @Param({"100", "1000", "10000"})
+  public int statements;
+
+  @Param({"1", "4"})
+  public int depth;
+
+  @Param({"4", "32"})
+  public int variables;
+
+  private byte[] source;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    source = new ProgramGenerator()
+        .seed(SEED)
+        .statements(statements)
+        .maxDepth(depth)
+        .definitionsPerVariable(Math.max(1, statements / variables))
+        .generate()
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Parses a fresh copy of the program.
+   *
+   * @return the compilation unit.
+   */
+  public ASTNode parse() {
+    return SourceFile.parse(source).getRoot();
+  }
+}
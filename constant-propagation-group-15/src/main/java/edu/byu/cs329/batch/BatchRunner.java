@@ -0,0 +1,327 @@
+package edu.byu.cs329.batch;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies a transformation to every Java file under a directory in parallel.
+ *
+ * <p>Files are split across a work-stealing pool with one worker per
+ * processor. Each file is parsed into its own AST by the worker that
+ * transforms it, and is written to the same relative path under the
+ * output directory, so the output does not depend on scheduling.
+ *
+ * <p>Files are written as their original source with the edits of the
+ * transformation applied, see {@link SourceFile}, and a file the
+ * transformation did not change is not written again when the output
+ * already holds it. A transformation that returns a different root than
+ * the one it was given has its result printed in full.
+ *
+ * <p>Each file is read once, and both its cache key and its tree come
+ * from those bytes, so a cached output always belongs to the contents it
+ * is keyed by. With an {@link OutputCache} a file whose key is cached is
+ * not parsed at all; its cached output is written instead. The cache index is saved
+ * at the end of each run.
+ */
+public class BatchRunner {
+  static final Logger log = LoggerFactory.getLogger(BatchRunner.class);
+
+  static final int FILES_PER_TASK = 4;
+
+  /**
+   * The outcome of a batch run.
+   */
+  public static class Summary {
+    private final int files;
+    private final int written;
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final SortedMap<Path, Exception> failures;
+    private final long elapsedNanos;
+    private final long cpuNanos;
+
+    Summary(int files, int written, long cacheHits, long cacheMisses,
+        SortedMap<Path, Exception> failures, long elapsedNanos, long cpuNanos) {
+      this.files = files;
+      this.written = written;
+      this.cacheHits = cacheHits;
+      this.cacheMisses = cacheMisses;
+      this.failures = failures;
+      this.elapsedNanos = elapsedNanos;
+      this.cpuNanos = cpuNanos;
+    }
+
+    public int getFiles() {
+      return files;
+    }
+
+    /**
+     * Gets the number of files written.
+     *
+     * @return the number of output files created or replaced.
+     */
+    public int getWritten() {
+      return written;
+    }
+
+    public long getCacheHits() {
+      return cacheHits;
+    }
+
+    public long getCacheMisses() {
+      return cacheMisses;
+    }
+
+    /**
+     * Gets the files that failed.
+     *
+     * @return the failed input files in path order.
+     */
+    public List<Path> getFailures() {
+      return Collections.unmodifiableList(new ArrayList<Path>(failures.keySet()));
+    }
+
+    /**
+     * Gets why each file failed.
+     *
+     * @return the exception of each failed input file, in path order.
+     */
+    public SortedMap<Path, Exception> getFailureCauses() {
+      return Collections.unmodifiableSortedMap(failures);
+    }
+
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    public long getCpuNanos() {
+      return cpuNanos;
+    }
+
+    /**
+     * Gets the throughput of the run.
+     *
+     * @return the files processed per second of wall time.
+     */
+    public double getFilesPerSecond() {
+      if (elapsedNanos == 0) {
+        return 0;
+      }
+      return files * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Describes the run.
+     *
+     * <p>The first line has the counts and times, and each failed file
+     * follows on its own line with the exception that stopped it.
+     *
+     * @return the summary.
+     */
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder(String.format(
+          "%d files (%d failed, %d written) in %.3f s: %.1f files/s, %.3f s CPU",
+          files, failures.size(), written, elapsedNanos / 1e9, getFilesPerSecond(),
+          cpuNanos / 1e9));
+      if (cacheHits + cacheMisses != 0) {
+        builder.append(String.format(", cache %d hits, %d misses", cacheHits, cacheMisses));
+      }
+      for (Map.Entry<Path, Exception> failure : failures.entrySet()) {
+        builder.append("\n  failed ").append(failure.getKey())
+            .append(": ").append(failure.getValue());
+      }
+      return builder.toString();
+    }
+  }
+
+  class FileTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Path> files;
+    private final int from;
+    private final int to;
+
+    FileTask(List<Path> files, int from, int to) {
+      this.files = files;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= FILES_PER_TASK) {
+        long start = getThreadCpuTime();
+        for (int i = from; i < to; ++i) {
+          processFile(files.get(i));
+        }
+        cpuNanos.add(getThreadCpuTime() - start);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new FileTask(files, from, middle), new FileTask(files, middle, to));
+    }
+  }
+
+  private final UnaryOperator<ASTNode> transformation;
+  private final int parallelism;
+  private final OutputCache cache;
+  private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+  private Path inputDirectory = null;
+  private Path outputDirectory = null;
+  private LongAdder cpuNanos = null;
+  private LongAdder written = null;
+  private ConcurrentSkipListMap<Path, Exception> failures = null;
+
+  /**
+   * Creates a runner with one worker per available processor.
+   *
+   * @param transformation maps the compilation unit of a file to its output.
+   */
+  public BatchRunner(final UnaryOperator<ASTNode> transformation) {
+    this(transformation, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a runner with the given number of workers.
+   *
+   * @param transformation maps the compilation unit of a file to its output.
+   * @param parallelism the number of workers.
+   */
+  public BatchRunner(final UnaryOperator<ASTNode> transformation, final int parallelism) {
+    this(transformation, parallelism, null);
+  }
+
+  /**
+   * Creates a runner with the given number of workers that reuses cached outputs.
+   *
+   * @requires cache was opened with a configuration that identifies transformation
+   *
+   * @param transformation maps the compilation unit of a file to its output.
+   * @param parallelism the number of workers.
+   * @param cache the cache to serve unchanged files from, or null for none.
+   */
+  public BatchRunner(final UnaryOperator<ASTNode> transformation, final int parallelism,
+      final OutputCache cache) {
+    this.transformation = transformation;
+    this.parallelism = parallelism;
+    this.cache = cache;
+  }
+
+  /**
+   * Transforms every Java file under the input directory.
+   *
+   * @requires Files.isDirectory(inputDirectory)
+   *
+   * @ensures for each .java file f under inputDirectory that transforms without error,
+   *     outputDirectory.resolve(inputDirectory.relativize(f)) holds the transformed f
+   *
+   * @param inputDirectory the root of the source tree to read.
+   * @param outputDirectory the root of the tree to write.
+   * @return the number of files, failures and time taken.
+   * @throws IOException if the input tree cannot be listed.
+   */
+  public Summary run(final Path inputDirectory, final Path outputDirectory) throws IOException {
+    ExceptionUtils.requiresNonNull(inputDirectory, "Null input directory passed to BatchRunner");
+    ExceptionUtils.requiresNonNull(outputDirectory, "Null output directory passed to BatchRunner");
+    if (!Files.isDirectory(inputDirectory)) {
+      ExceptionUtils.throwRuntimeException("Input " + inputDirectory + " is not a directory");
+    }
+
+    this.inputDirectory = inputDirectory;
+    this.outputDirectory = outputDirectory;
+    cpuNanos = new LongAdder();
+    written = new LongAdder();
+    failures = new ConcurrentSkipListMap<Path, Exception>();
+    List<Path> files = listJavaFiles(inputDirectory);
+
+    long hits = (cache == null) ? 0 : cache.getHits();
+    long misses = (cache == null) ? 0 : cache.getMisses();
+    long start = System.nanoTime();
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.invoke(new FileTask(files, 0, files.size()));
+    } finally {
+      pool.shutdown();
+    }
+    long elapsed = System.nanoTime() - start;
+    if (cache != null) {
+      hits = cache.getHits() - hits;
+      misses = cache.getMisses() - misses;
+      cache.save();
+      log.info("Batch " + cache);
+    }
+
+    for (Path file : failures.keySet()) {
+      log.error("Failed to transform " + file, failures.get(file));
+    }
+    return new Summary(files.size(), written.intValue(), hits, misses,
+        new TreeMap<Path, Exception>(failures), elapsed, cpuNanos.sum());
+  }
+
+  private void processFile(Path file) {
+    try {
+      byte[] input = Files.readAllBytes(file);
+      String key = (cache == null) ? null : cache.keyOf(input);
+      byte[] output = (key == null) ? null : cache.get(key);
+      if (output == null) {
+        output = transform(file, input);
+        if (key != null) {
+          cache.put(key, output);
+        }
+      }
+      Path outputFile = outputDirectory.resolve(inputDirectory.relativize(file).toString());
+      if (SourceFile.writeIfChanged(outputFile, output)) {
+        written.increment();
+      }
+    } catch (Exception e) {
+      failures.put(file, e);
+    }
+  }
+
+  private byte[] transform(Path file, byte[] input) {
+    SourceFile sourceFile = SourceFile.parse(file, input);
+    ASTNode node = transformation.apply(sourceFile.getRoot());
+    if (node != sourceFile.getRoot()) {
+      return node.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    return sourceFile.getOutput();
+  }
+
+  private long getThreadCpuTime() {
+    if (!threadBean.isCurrentThreadCpuTimeSupported()) {
+      return 0;
+    }
+    return threadBean.getCurrentThreadCpuTime();
+  }
+
+  static List<Path> listJavaFiles(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      return paths
+          .filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".java"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+}
@@ -0,0 +1,417 @@
+package edu.byu.cs329.batch;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.ArrayAccess;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CastExpression;
+import org.eclipse.jdt.core.dom.ConditionalExpression;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.InstanceofExpression;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+
+/**
+ * Finds the edits that turn the original source of a tree into its text.
+ *
+ * <p>The value of every property of every parsed node is recorded before
+ * the tree is transformed. A node is untouched when its properties hold the
+ * same values and its children are untouched, and its text is then its
+ * original source. Otherwise a replaced child has its source replaced by the
+ * text of the new child, and a changed statement list keeps the statements
+ * that stayed in order, deletes the lines of those that left and puts the
+ * rest in their place. Moved parsed nodes keep their own source with their
+ * own edits applied. Any other change, and any node the parser did not
+ * make, is printed with {@link ASTNode#toString}.
+ *
+ * <p>The text of a replaced child does not carry the parentheses the tree
+ * implies by its shape, so an expression that binds less tightly than its
+ * place in the parent demands is wrapped in them, and a space is put
+ * between the text and the source around it where their tokens would run
+ * together, as the minus of <code>a-x</code> and the one of <code>-5</code>.
+ */
+final class EditCollector {
+  private static final int ASSIGNMENT = 1;
+  private static final int CONDITIONAL = 2;
+  private static final int RELATIONAL = 9;
+  private static final int PREFIX = 13;
+  private static final int POSTFIX = 14;
+  private static final int PRIMARY = 15;
+
+  private final String source;
+  private final Map<ASTNode, Object[]> before = new IdentityHashMap<ASTNode, Object[]>();
+  private final Map<ASTNode, Boolean> untouched = new IdentityHashMap<ASTNode, Boolean>();
+
+  /**
+   * Records a tree before it is transformed.
+   *
+   * @requires root was parsed from source and is not yet modified
+   *
+   * @param root the root of the tree.
+   * @param source the source it was parsed from.
+   */
+  EditCollector(final ASTNode root, final String source) {
+    this.source = source;
+    root.accept(new ASTVisitor(true) {
+      @Override
+      public void preVisit(ASTNode node) {
+        before.put(node, values(node));
+      }
+    });
+  }
+
+  /**
+   * Collects the edits for the current tree.
+   *
+   * @requires root is the root passed to the constructor
+   *
+   * @param root the root of the tree.
+   * @return the edits against the original source, empty if nothing changed.
+   */
+  List<SourceEdit> collect(final ASTNode root) {
+    untouched.clear();
+    List<SourceEdit> edits = new ArrayList<SourceEdit>();
+    collect(root, edits);
+    return edits;
+  }
+
+  private void collect(ASTNode node, List<SourceEdit> edits) {
+    if (isUntouched(node)) {
+      return;
+    }
+    Object[] old = before.get(node);
+    Object[] now = values(node);
+    List<?> properties = node.structuralPropertiesForType();
+    for (int i = 0; i < now.length; ++i) {
+      if (!isPatchable(properties.get(i), old[i], now[i])) {
+        edits.add(new SourceEdit(node.getStartPosition(), node.getLength(),
+            print(node, indentOf(node))));
+        return;
+      }
+    }
+    for (int i = 0; i < now.length; ++i) {
+      if (now[i] instanceof Object[]) {
+        collectList((Object[]) old[i], (Object[]) now[i], edits);
+      } else if (now[i] == old[i] && now[i] instanceof ASTNode) {
+        collect((ASTNode) now[i], edits);
+      } else if (now[i] instanceof ASTNode) {
+        ASTNode child = (ASTNode) old[i];
+        ASTNode replacement = (ASTNode) now[i];
+        String text = text(replacement, indentOf(child));
+        if (needsParentheses(node, (StructuralPropertyDescriptor) properties.get(i),
+            replacement)) {
+          text = "(" + text + ")";
+        }
+        edits.add(splice(child, text));
+      }
+    }
+  }
+
+  private void collectList(Object[] old, Object[] now, List<SourceEdit> edits) {
+    Map<Object, Integer> index = new IdentityHashMap<Object, Integer>();
+    for (int i = 0; i < old.length; ++i) {
+      index.put(old[i], i);
+    }
+    List<ASTNode> inserted = new ArrayList<ASTNode>();
+    int last = -1;
+    for (Object element : now) {
+      Integer i = index.get(element);
+      if (i != null && i > last) {
+        replaceBetween(old, last, i, inserted, edits);
+        last = i;
+        collect((ASTNode) element, edits);
+      } else {
+        inserted.add((ASTNode) element);
+      }
+    }
+    replaceBetween(old, last, old.length, inserted, edits);
+  }
+
+  private void replaceBetween(Object[] old, int kept, int nextKept, List<ASTNode> inserted,
+      List<SourceEdit> edits) {
+    int from = kept + 1;
+    if (!inserted.isEmpty()) {
+      if (from < nextKept) {
+        ASTNode anchor = (ASTNode) old[from++];
+        edits.add(new SourceEdit(anchor.getStartPosition(), anchor.getLength(),
+            join(inserted, indentOf(anchor))));
+      } else if (kept >= 0) {
+        ASTNode previous = (ASTNode) old[kept];
+        String indent = indentOf(previous);
+        edits.add(new SourceEdit(previous.getStartPosition() + previous.getLength(), 0,
+            "\n" + indent + join(inserted, indent)));
+      } else {
+        ASTNode next = (ASTNode) old[nextKept];
+        String indent = indentOf(next);
+        edits.add(new SourceEdit(next.getStartPosition(), 0,
+            join(inserted, indent) + "\n" + indent));
+      }
+      inserted.clear();
+    }
+    for (int i = from; i < nextKept; ++i) {
+      edits.add(remove((ASTNode) old[i]));
+    }
+  }
+
+  private SourceEdit splice(ASTNode child, String text) {
+    int start = child.getStartPosition();
+    int end = start + child.getLength();
+    StringBuilder builder = new StringBuilder(text.length() + 2);
+    if (start > 0 && text.length() > 0 && merges(source.charAt(start - 1), text.charAt(0))) {
+      builder.append(' ');
+    }
+    builder.append(text);
+    if (end < source.length() && text.length() > 0
+        && merges(text.charAt(text.length() - 1), source.charAt(end))) {
+      builder.append(' ');
+    }
+    return new SourceEdit(start, end - start, builder.toString());
+  }
+
+  private static boolean merges(char left, char right) {
+    return (isOperatorPart(left) && isOperatorPart(right))
+        || (Character.isJavaIdentifierPart(left) && Character.isJavaIdentifierPart(right));
+  }
+
+  private static boolean isOperatorPart(char c) {
+    return "+-*/%<>=!&|^~?:".indexOf(c) >= 0;
+  }
+
+  /**
+   * Decides if an expression needs parentheses in its place in the parent.
+   *
+   * <p>A place the method does not know, other than a statement or a
+   * declaration, gets parentheses around anything but a primary.
+   *
+   * @param parent the parent of the place.
+   * @param property the property of the parent that holds the child.
+   * @param child the expression in that place.
+   * @return true if the text of child must be parenthesized.
+   */
+  static boolean needsParentheses(ASTNode parent, StructuralPropertyDescriptor property,
+      ASTNode child) {
+    if (!(child instanceof Expression) || !(parent instanceof Expression)) {
+      return false;
+    }
+    int precedence = precedenceOf(child);
+    if (parent instanceof InfixExpression) {
+      int parentPrecedence = precedenceOf(parent);
+      return (property == InfixExpression.LEFT_OPERAND_PROPERTY)
+          ? precedence < parentPrecedence : precedence <= parentPrecedence;
+    }
+    if (parent instanceof PrefixExpression || parent instanceof CastExpression) {
+      return precedence < PREFIX;
+    }
+    if (parent instanceof PostfixExpression) {
+      return precedence < POSTFIX;
+    }
+    if (parent instanceof InstanceofExpression) {
+      return precedence < RELATIONAL;
+    }
+    if (parent instanceof ConditionalExpression) {
+      return precedence <= CONDITIONAL;
+    }
+    if (parent instanceof ParenthesizedExpression || parent instanceof Assignment
+        || property == ArrayAccess.INDEX_PROPERTY) {
+      return false;
+    }
+    return precedence < PRIMARY;
+  }
+
+  private static int precedenceOf(ASTNode node) {
+    if (node instanceof Assignment) {
+      return ASSIGNMENT;
+    }
+    if (node instanceof ConditionalExpression) {
+      return CONDITIONAL;
+    }
+    if (node instanceof InstanceofExpression) {
+      return RELATIONAL;
+    }
+    if (node instanceof PrefixExpression || node instanceof CastExpression) {
+      return PREFIX;
+    }
+    if (node instanceof PostfixExpression) {
+      return POSTFIX;
+    }
+    if (!(node instanceof InfixExpression)) {
+      return PRIMARY;
+    }
+    InfixExpression.Operator operator = ((InfixExpression) node).getOperator();
+    if (operator == InfixExpression.Operator.CONDITIONAL_OR) {
+      return 3;
+    } else if (operator == InfixExpression.Operator.CONDITIONAL_AND) {
+      return 4;
+    } else if (operator == InfixExpression.Operator.OR) {
+      return 5;
+    } else if (operator == InfixExpression.Operator.XOR) {
+      return 6;
+    } else if (operator == InfixExpression.Operator.AND) {
+      return 7;
+    } else if (operator == InfixExpression.Operator.EQUALS
+        || operator == InfixExpression.Operator.NOT_EQUALS) {
+      return 8;
+    } else if (operator == InfixExpression.Operator.LESS
+        || operator == InfixExpression.Operator.GREATER
+        || operator == InfixExpression.Operator.LESS_EQUALS
+        || operator == InfixExpression.Operator.GREATER_EQUALS) {
+      return RELATIONAL;
+    } else if (operator == InfixExpression.Operator.LEFT_SHIFT
+        || operator == InfixExpression.Operator.RIGHT_SHIFT_SIGNED
+        || operator == InfixExpression.Operator.RIGHT_SHIFT_UNSIGNED) {
+      return 10;
+    } else if (operator == InfixExpression.Operator.PLUS
+        || operator == InfixExpression.Operator.MINUS) {
+      return 11;
+    }
+    return 12;
+  }
+
+  private SourceEdit remove(ASTNode node) {
+    int start = node.getStartPosition();
+    int end = start + node.getLength();
+    int lineStart = source.lastIndexOf('\n', start - 1) + 1;
+    int lineEnd = source.indexOf('\n', end);
+    if (lineEnd >= 0 && isBlank(lineStart, start) && isBlank(end, lineEnd)) {
+      return new SourceEdit(lineStart, lineEnd + 1 - lineStart, "");
+    }
+    return new SourceEdit(start, end - start, "");
+  }
+
+  private String join(List<ASTNode> nodes, String indent) {
+    StringBuilder builder = new StringBuilder();
+    for (ASTNode node : nodes) {
+      if (builder.length() > 0) {
+        builder.append('\n').append(indent);
+      }
+      builder.append(text(node, indent));
+    }
+    return builder.toString();
+  }
+
+  private String text(ASTNode node, String indent) {
+    if (!before.containsKey(node) || node.getStartPosition() < 0) {
+      return print(node, indent);
+    }
+    int start = node.getStartPosition();
+    List<SourceEdit> edits = new ArrayList<SourceEdit>();
+    collect(node, edits);
+    String text = SourceEdit.apply(source, start, start + node.getLength(), edits);
+    return reindent(text, indentOf(node), indent);
+  }
+
+  private static String print(ASTNode node, String indent) {
+    return reindent(node.toString().trim(), "", indent);
+  }
+
+  private static String reindent(String text, String from, String to) {
+    if (from.equals(to)) {
+      return text;
+    }
+    String[] lines = text.split("\n", -1);
+    StringBuilder builder = new StringBuilder(lines[0]);
+    for (int i = 1; i < lines.length; ++i) {
+      builder.append('\n');
+      if (lines[i].startsWith(from) && !lines[i].isBlank()) {
+        builder.append(to).append(lines[i], from.length(), lines[i].length());
+      } else {
+        builder.append(lines[i]);
+      }
+    }
+    return builder.toString();
+  }
+
+  private String indentOf(ASTNode node) {
+    int lineStart = source.lastIndexOf('\n', node.getStartPosition() - 1) + 1;
+    int end = lineStart;
+    while (end < source.length() && (source.charAt(end) == ' ' || source.charAt(end) == '\t')) {
+      ++end;
+    }
+    return source.substring(lineStart, end);
+  }
+
+  private boolean isBlank(int from, int to) {
+    return source.substring(from, to).isBlank();
+  }
+
+  private boolean isUntouched(ASTNode node) {
+    Boolean cached = untouched.get(node);
+    if (cached == null) {
+      cached = computeUntouched(node);
+      untouched.put(node, cached);
+    }
+    return cached;
+  }
+
+  private boolean computeUntouched(ASTNode node) {
+    Object[] old = before.get(node);
+    if (old == null || node.getStartPosition() < 0) {
+      return false;
+    }
+    Object[] now = values(node);
+    for (int i = 0; i < now.length; ++i) {
+      if (now[i] instanceof Object[]) {
+        Object[] oldList = (Object[]) old[i];
+        Object[] nowList = (Object[]) now[i];
+        if (oldList.length != nowList.length) {
+          return false;
+        }
+        for (int j = 0; j < nowList.length; ++j) {
+          if (nowList[j] != oldList[j] || !isUntouched((ASTNode) nowList[j])) {
+            return false;
+          }
+        }
+      } else if (now[i] instanceof ASTNode) {
+        if (now[i] != old[i] || !isUntouched((ASTNode) now[i])) {
+          return false;
+        }
+      } else if (!Objects.equals(now[i], old[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isPatchable(Object property, Object old, Object now) {
+    if (now instanceof Object[]) {
+      Object[] oldList = (Object[]) old;
+      Object[] nowList = (Object[]) now;
+      if (property == Block.STATEMENTS_PROPERTY && oldList.length > 0) {
+        return true;
+      }
+      if (oldList.length != nowList.length) {
+        return false;
+      }
+      for (int i = 0; i < nowList.length; ++i) {
+        if (nowList[i] != oldList[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (now instanceof ASTNode || old instanceof ASTNode) {
+      return now != null && old != null;
+    }
+    return Objects.equals(now, old);
+  }
+
+  private static Object[] values(ASTNode node) {
+    List<?> properties = node.structuralPropertiesForType();
+    Object[] values = new Object[properties.size()];
+    for (int i = 0; i < values.length; ++i) {
+      StructuralPropertyDescriptor property = (StructuralPropertyDescriptor) properties.get(i);
+      Object value = node.getStructuralProperty(property);
+      values[i] = property.isChildListProperty() ? ((List<?>) value).toArray() : value;
+    }
+    return values;
+  }
+}
@@ -0,0 +1,330 @@
+package edu.byu.cs329.batch;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent cache of transformed files keyed by what they depend on.
+ *
+ * <p>The key of a file is the SHA-256 of the tool version, the
+ * configuration of the transformation, such as its enabled rules, and the
+ * contents of the file, so an output is reused only when all three are
+ * unchanged. The tool version is a hash of the tool's own classes, so a
+ * rebuild that changes a rule misses the cache even when the project
+ * version and the configuration names stay the same. Each output is stored in its own file under the cache
+ * directory, named by its key in hex.
+ *
+ * <p>The cache holds at most a given number of bytes of output and evicts
+ * the least recently used entries beyond that. The entries and their order
+ * of use are kept in a compact binary index, loaded when the cache is
+ * opened and written by {@link #save}: a magic number, the entry count,
+ * and for each entry from least to most recently used its 32 byte key and
+ * its length. A missing or unreadable index starts an empty cache.
+ *
+ * <p>The cache may be shared by the workers of a batch run.
+ */
+public final class OutputCache {
+  static final Logger log = LoggerFactory.getLogger(OutputCache.class);
+
+  /** The bound used by the command line tools, 256 MiB. */
+  public static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+  static final int MAGIC = 0x43504331;
+  static final int KEY_BYTES = 32;
+  static final String INDEX = "index";
+
+  private final Path directory;
+  private final byte[] prefix;
+  private final long maxBytes;
+  private final LinkedHashMap<String, Integer> entries =
+      new LinkedHashMap<String, Integer>(16, 0.75f, true);
+  private long totalBytes = 0;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private OutputCache(Path directory, String toolVersion, String configuration,
+      long maxBytes) {
+    this.directory = directory;
+    this.prefix = (toolVersion + '\0' + configuration + '\0')
+        .getBytes(StandardCharsets.UTF_8);
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Opens a cache, loading its index if there is one.
+   *
+   * @requires directory != null /\ configuration != null /\ maxBytes >= 0
+   *
+   * @param directory the directory that holds the cache.
+   * @param configuration what besides the file determines the output.
+   * @param maxBytes the most bytes of output to keep.
+   * @return the cache.
+   * @throws IOException if the directory cannot be created.
+   */
+  public static OutputCache open(final Path directory, final String configuration,
+      final long maxBytes) throws IOException {
+    return open(directory, getToolVersion(), configuration, maxBytes);
+  }
+
+  static OutputCache open(Path directory, String toolVersion, String configuration,
+      long maxBytes) throws IOException {
+    ExceptionUtils.requiresNonNull(directory, "Null directory passed to OutputCache");
+    ExceptionUtils.requiresNonNull(configuration, "Null configuration passed to OutputCache");
+    Files.createDirectories(directory);
+    OutputCache cache = new OutputCache(directory, toolVersion, configuration, maxBytes);
+    cache.load();
+    return cache;
+  }
+
+  /**
+   * Gets the version of the tool that is part of every key.
+   *
+   * <p>The version is computed once per JVM by {@link #hashClasses(Path)} of
+   * the jar or class directory this class was loaded from.
+   *
+   * @return the hash in hex, or "development" if the classes cannot be read.
+   */
+  public static String getToolVersion() {
+    return ToolVersion.VERSION;
+  }
+
+  /**
+   * Hashes the code of the tool.
+   *
+   * @param location a jar file, or a directory of class files.
+   * @return the SHA-256 in hex of the jar, or of the relative path and
+   *     contents of every class file under the directory in path order.
+   * @throws IOException if the code cannot be read.
+   */
+  static String hashClasses(final Path location) throws IOException {
+    MessageDigest digest = newDigest();
+    if (!Files.isDirectory(location)) {
+      digest.update(Files.readAllBytes(location));
+      return toHex(digest.digest());
+    }
+    List<Path> classFiles;
+    try (Stream<Path> paths = Files.walk(location)) {
+      classFiles = paths
+          .filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".class"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+    for (Path classFile : classFiles) {
+      digest.update((location.relativize(classFile) + "\0").getBytes(StandardCharsets.UTF_8));
+      digest.update(Files.readAllBytes(classFile));
+    }
+    return toHex(digest.digest());
+  }
+
+  private static final class ToolVersion {
+    static final String VERSION = compute();
+
+    private static String compute() {
+      try {
+        CodeSource source = OutputCache.class.getProtectionDomain().getCodeSource();
+        if (source != null) {
+          return hashClasses(Path.of(source.getLocation().toURI()));
+        }
+      } catch (IOException | URISyntaxException | RuntimeException e) {
+        log.warn("Cannot hash the tool classes for the cache key", e);
+      }
+      return "development";
+    }
+  }
+
+  /**
+   * Computes the key of a file.
+   *
+   * @param contents the contents of the file.
+   * @return the key in hex.
+   */
+  public String keyOf(final byte[] contents) {
+    MessageDigest digest = newDigest();
+    digest.update(prefix);
+    digest.update(contents);
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Looks up an output and counts a hit or a miss.
+   *
+   * @param key the key of the file.
+   * @return the cached output, or null if there is none.
+   * @throws IOException if the cached output cannot be read.
+   */
+  public byte[] get(final String key) throws IOException {
+    synchronized (this) {
+      if (entries.get(key) == null) {
+        misses.increment();
+        return null;
+      }
+    }
+    try {
+      byte[] output = Files.readAllBytes(directory.resolve(key));
+      hits.increment();
+      return output;
+    } catch (NoSuchFileException e) {
+      synchronized (this) {
+        Integer length = entries.remove(key);
+        if (length != null) {
+          totalBytes -= length;
+        }
+      }
+      misses.increment();
+      return null;
+    }
+  }
+
+  /**
+   * Stores an output, evicting the least recently used outputs over the bound.
+   *
+   * @param key the key of the file.
+   * @param output the transformed file.
+   * @throws IOException if the output cannot be written.
+   */
+  public void put(final String key, final byte[] output) throws IOException {
+    if (output.length > maxBytes) {
+      return;
+    }
+    SourceFile.writeAtomically(directory.resolve(key), output);
+    List<String> evicted = new ArrayList<String>();
+    synchronized (this) {
+      Integer previous = entries.put(key, output.length);
+      totalBytes += output.length - ((previous == null) ? 0 : previous);
+      Iterator<Map.Entry<String, Integer>> iterator = entries.entrySet().iterator();
+      while (totalBytes > maxBytes && iterator.hasNext()) {
+        Map.Entry<String, Integer> eldest = iterator.next();
+        if (eldest.getKey().equals(key)) {
+          continue;
+        }
+        totalBytes -= eldest.getValue();
+        evicted.add(eldest.getKey());
+        iterator.remove();
+      }
+    }
+    for (String old : evicted) {
+      Files.deleteIfExists(directory.resolve(old));
+      evictions.increment();
+    }
+  }
+
+  /**
+   * Writes the index.
+   *
+   * @throws IOException if the index cannot be written.
+   */
+  public synchronized void save() throws IOException {
+    ByteArrayOutputStream bytes =
+        new ByteArrayOutputStream(8 + entries.size() * (KEY_BYTES + 4));
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes))) {
+      out.writeInt(MAGIC);
+      out.writeInt(entries.size());
+      for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+        out.write(fromHex(entry.getKey()));
+        out.writeInt(entry.getValue());
+      }
+    }
+    SourceFile.writeAtomically(directory.resolve(INDEX), bytes.toByteArray());
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("cache %d hits, %d misses, %d evictions, %d entries, %d bytes",
+        getHits(), getMisses(), getEvictions(), size(), getTotalBytes());
+  }
+
+  private void load() {
+    Path index = directory.resolve(INDEX);
+    if (!Files.isRegularFile(index)) {
+      return;
+    }
+    try (InputStream stream = Files.newInputStream(index);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+      if (in.readInt() != MAGIC) {
+        ExceptionUtils.throwRuntimeException("Bad magic number in " + index);
+      }
+      int count = in.readInt();
+      byte[] key = new byte[KEY_BYTES];
+      for (int i = 0; i < count; ++i) {
+        in.readFully(key);
+        int length = in.readInt();
+        entries.put(toHex(key), length);
+        totalBytes += length;
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("Ignoring unreadable cache index " + index, e);
+      entries.clear();
+      totalBytes = 0;
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder builder = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      builder.append(Character.forDigit((b >> 4) & 0xf, 16))
+          .append(Character.forDigit(b & 0xf, 16));
+    }
+    return builder.toString();
+  }
+
+  private static byte[] fromHex(String hex) {
+    byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; ++i) {
+      bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,97 @@
+package edu.byu.cs329.batch;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A replacement of a range of the original source by new text.
+ *
+ * <p>Offsets are always into the original source, never into the result of
+ * earlier edits, so a list of edits can be applied in any order as long as
+ * no two of them overlap.
+ */
+public final class SourceEdit {
+  private final int offset;
+  private final int length;
+  private final String text;
+
+  /**
+   * Creates an edit.
+   *
+   * @requires offset >= 0 /\ length >= 0 /\ text != null
+   *
+   * @param offset the start of the replaced range.
+   * @param length the length of the replaced range, 0 for an insertion.
+   * @param text the new text, empty for a deletion.
+   */
+  public SourceEdit(final int offset, final int length, final String text) {
+    ExceptionUtils.requiresNonNull(text, "Null text passed to SourceEdit");
+    this.offset = offset;
+    this.length = length;
+    this.text = text;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * Applies edits to a source in one pass.
+   *
+   * @requires no two edits overlap
+   *
+   * @param source the original source.
+   * @param edits the edits against source.
+   * @return source with every edit applied.
+   */
+  public static String apply(final String source, final List<SourceEdit> edits) {
+    return apply(source, 0, source.length(), edits);
+  }
+
+  /**
+   * Applies edits to a range of a source in one pass.
+   *
+   * @requires 0 <= start <= end <= source.length()
+   * @requires every edit lies in [start, end) and no two edits overlap
+   *
+   * @param source the original source.
+   * @param start the start of the range.
+   * @param end the end of the range.
+   * @param edits the edits against source.
+   * @return the range of source with every edit applied.
+   */
+  static String apply(final String source, final int start, final int end,
+      final List<SourceEdit> edits) {
+    List<SourceEdit> sorted = new ArrayList<SourceEdit>(edits);
+    sorted.sort(Comparator.comparingInt(SourceEdit::getOffset));
+    int capacity = end - start;
+    for (SourceEdit edit : sorted) {
+      capacity += edit.text.length() - edit.length;
+    }
+    StringBuilder builder = new StringBuilder(Math.max(capacity, 0));
+    int position = start;
+    for (SourceEdit edit : sorted) {
+      if (edit.offset < position || edit.offset + edit.length > end) {
+        ExceptionUtils.throwRuntimeException("Overlapping or out of range " + edit);
+      }
+      builder.append(source, position, edit.offset).append(edit.text);
+      position = edit.offset + edit.length;
+    }
+    return builder.append(source, position, end).toString();
+  }
+
+  @Override
+  public String toString() {
+    return "SourceEdit(" + offset + ", " + length + ", \"" + text + "\")";
+  }
+}
@@ -0,0 +1,209 @@
+package edu.byu.cs329.batch;
+
+import edu.byu.cs329.metrics.Events;
+import edu.byu.cs329.metrics.ParseEvent;
+import edu.byu.cs329.utils.ExceptionUtils;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+/**
+ * A Java file parsed for an in-place transformation and written back as edits.
+ *
+ * <p>Rather than printing the whole tree again, the transformed file is
+ * its original source with the {@link SourceEdit}s of the transformation
+ * applied, so formatting and comments outside the changed statements are
+ * kept. Nothing is written when the output already holds the result, as
+ * when a file with no edits is written over itself. Output goes to a
+ * temporary file in the same directory through a channel and is then
+ * renamed over the target, so a reader never sees a partly written file.
+ */
+public final class SourceFile {
+  private final byte[] bytes;
+  private final String source;
+  private final ASTNode root;
+  private final EditCollector collector;
+
+  private SourceFile(final byte[] bytes, final ASTNode root) {
+    this.bytes = bytes;
+    this.source = new String(bytes, StandardCharsets.UTF_8);
+    this.root = root;
+    this.collector = new EditCollector(root, source);
+  }
+
+  /**
+   * Reads and parses a file.
+   *
+   * <p>The bytes read are decoded as UTF-8 for both the tree and the source
+   * the edits are applied to, whatever the platform charset, so the node
+   * offsets match the text they are spliced into.
+   *
+   * @requires path != null /\ Files.isRegularFile(path)
+   *
+   * @param path the file to read.
+   * @return the parsed file.
+   * @throws IOException if the file cannot be read.
+   */
+  public static SourceFile read(final Path path) throws IOException {
+    ExceptionUtils.requiresNonNull(path, "Null path passed to SourceFile");
+    return parse(path, Files.readAllBytes(path));
+  }
+
+  /**
+   * Parses the bytes already read from a file.
+   *
+   * @param path the file the bytes were read from, named in events.
+   * @param bytes the contents of the file.
+   * @return the parsed file.
+   */
+  static SourceFile parse(Path path, byte[] bytes) {
+    ParseEvent event = new ParseEvent();
+    if (event.isEnabled()) {
+      event.begin();
+    }
+    ASTNode root = parseRoot(bytes);
+    Events.setFile(root, path.toString());
+    commit(event, root, bytes);
+    return new SourceFile(bytes, root);
+  }
+
+  /**
+   * Parses a source held in memory.
+   *
+   * @requires bytes != null
+   *
+   * @param bytes the source encoded as UTF-8.
+   * @return the parsed source.
+   */
+  public static SourceFile parse(final byte[] bytes) {
+    ExceptionUtils.requiresNonNull(bytes, "Null source passed to SourceFile");
+    ParseEvent event = new ParseEvent();
+    if (event.isEnabled()) {
+      event.begin();
+    }
+    ASTNode root = parseRoot(bytes);
+    commit(event, root, bytes);
+    return new SourceFile(bytes, root);
+  }
+
+  private static ASTNode parseRoot(byte[] bytes) {
+    return JavaSourceUtils.parse(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  private static void commit(ParseEvent event, ASTNode root, byte[] bytes) {
+    if (!event.shouldCommit()) {
+      return;
+    }
+    CompilationUnit unit = (CompilationUnit) root;
+    event.file = Events.fileOf(root);
+    event.bytes = bytes.length;
+    event.types = unit.types().size();
+    event.problems = unit.getProblems().length;
+    event.commit();
+  }
+
+  /**
+   * Gets the root to transform in place.
+   *
+   * @return the compilation unit of the file.
+   */
+  public ASTNode getRoot() {
+    return root;
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  /**
+   * Gets the edits made to the tree so far.
+   *
+   * @return the edits against the original source, empty if nothing changed.
+   */
+  public List<SourceEdit> getEdits() {
+    return collector.collect(root);
+  }
+
+  /**
+   * Gets the transformed file.
+   *
+   * @return the original source with the edits applied, encoded as UTF-8.
+   */
+  public byte[] getOutput() {
+    List<SourceEdit> edits = getEdits();
+    if (edits.isEmpty()) {
+      return bytes.clone();
+    }
+    return SourceEdit.apply(source, edits).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the transformed file unless output already holds it.
+   *
+   * @requires output != null
+   *
+   * @ensures output holds getOutput()
+   *
+   * @param output the file to write, which may be the file that was read.
+   * @return false if the write was skipped because output already held it.
+   * @throws IOException if the output cannot be written.
+   */
+  public boolean write(final Path output) throws IOException {
+    ExceptionUtils.requiresNonNull(output, "Null output passed to SourceFile");
+    return writeIfChanged(output, getOutput());
+  }
+
+  /**
+   * Writes a file unless it already holds the contents.
+   *
+   * @requires file != null /\ contents != null
+   *
+   * @param file the file to write.
+   * @param contents the bytes it should hold.
+   * @return false if the write was skipped because file already held contents.
+   * @throws IOException if the file cannot be written.
+   */
+  public static boolean writeIfChanged(final Path file, final byte[] contents)
+      throws IOException {
+    if (Files.isRegularFile(file) && Files.size(file) == contents.length
+        && Arrays.equals(Files.readAllBytes(file), contents)) {
+      return false;
+    }
+    writeAtomically(file, contents);
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  static void writeAtomically(Path file, byte[] contents) throws IOException {
+    Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, "." + file.getFileName(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = ByteBuffer.wrap(contents);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+}
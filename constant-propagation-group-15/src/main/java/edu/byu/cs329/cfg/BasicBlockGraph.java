@@ -0,0 +1,195 @@
+package edu.byu.cs329.cfg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The basic blocks of a control flow graph.
+ *
+ * <p>A block is a maximal run of statements where control enters only at
+ * the first and leaves only from the last: every statement after the first
+ * has exactly one predecessor, the statement before it, and that
+ * statement has no other successor. A dataflow pass can solve over the
+ * blocks with one summary per block and recover the facts of each
+ * statement by a forward scan of its block.
+ *
+ * <p>Blocks are numbered 0..size()-1 in the order of the ids of their first
+ * statements, which is reverse postorder, so block 0 holds the start and,
+ * apart from back edges, every edge goes from a lower block to a higher one.
+ */
+public final class BasicBlockGraph {
+  private final IndexedControlFlowGraph cfg;
+  private final int[] blockOf;
+  private final int[] positions;
+  private final int[][] statements;
+  private final int[][] succs;
+  private final int[][] preds;
+
+  private BasicBlockGraph(IndexedControlFlowGraph cfg) {
+    this.cfg = cfg;
+    int size = cfg.size();
+    blockOf = new int[size];
+    positions = new int[size];
+    List<int[]> blockList = new ArrayList<int[]>();
+    int[] run = new int[size];
+    for (int s = 0; s < size; ++s) {
+      if (!isLeader(s)) {
+        continue;
+      }
+      int length = 0;
+      int current = s;
+      while (true) {
+        blockOf[current] = blockList.size();
+        positions[current] = length;
+        run[length++] = current;
+        if (cfg.succCount(current) != 1 || isLeader(cfg.succId(current, 0))) {
+          break;
+        }
+        current = cfg.succId(current, 0);
+      }
+      blockList.add(Arrays.copyOf(run, length));
+    }
+    statements = blockList.toArray(new int[blockList.size()][]);
+
+    succs = new int[statements.length][];
+    preds = new int[statements.length][];
+    for (int b = 0; b < statements.length; ++b) {
+      int last = statements[b][statements[b].length - 1];
+      succs[b] = new int[cfg.succCount(last)];
+      for (int k = 0; k < succs[b].length; ++k) {
+        succs[b][k] = blockOf[cfg.succId(last, k)];
+      }
+      int first = statements[b][0];
+      preds[b] = new int[cfg.predCount(first)];
+      for (int k = 0; k < preds[b].length; ++k) {
+        preds[b][k] = blockOf[cfg.predId(first, k)];
+      }
+    }
+  }
+
+  /**
+   * Groups the statements of a graph into basic blocks.
+   *
+   * @param cfg the control flow graph.
+   * @return the basic blocks of the statements reachable from the start.
+   */
+  public static BasicBlockGraph of(final ControlFlowGraph cfg) {
+    return new BasicBlockGraph(IndexedControlFlowGraph.of(cfg));
+  }
+
+  private boolean isLeader(int s) {
+    if (s == 0 || cfg.predCount(s) != 1) {
+      return true;
+    }
+    int pred = cfg.predId(s, 0);
+    return pred == s || cfg.succCount(pred) != 1;
+  }
+
+  /**
+   * Gets the statement graph the blocks are made of.
+   *
+   * @return the indexed control flow graph.
+   */
+  public IndexedControlFlowGraph getGraph() {
+    return cfg;
+  }
+
+  /**
+   * Gets the number of blocks.
+   *
+   * @return the number of blocks.
+   */
+  public int size() {
+    return statements.length;
+  }
+
+  /**
+   * Gets the block of a statement.
+   *
+   * @param id the id of the statement in the indexed graph.
+   * @return the block that holds the statement.
+   */
+  public int blockOf(final int id) {
+    return blockOf[id];
+  }
+
+  /**
+   * Gets the position of a statement in its block.
+   *
+   * @param id the id of the statement in the indexed graph.
+   * @return the number of statements before it in its block.
+   */
+  public int position(final int id) {
+    return positions[id];
+  }
+
+  /**
+   * Gets the number of statements in a block.
+   *
+   * @param block the block.
+   * @return the number of statements, at least one.
+   */
+  public int statementCount(final int block) {
+    return statements[block].length;
+  }
+
+  /**
+   * Gets a statement of a block without allocating.
+   *
+   * @requires 0 <= k < statementCount(block)
+   *
+   * @param block the block.
+   * @param k the position in the block.
+   * @return the id of the statement in the indexed graph.
+   */
+  public int statementId(final int block, final int k) {
+    return statements[block][k];
+  }
+
+  /**
+   * Gets the number of successors of a block.
+   *
+   * @param block the block.
+   * @return the number of successors of its last statement.
+   */
+  public int succCount(final int block) {
+    return succs[block].length;
+  }
+
+  /**
+   * Gets a successor of a block.
+   *
+   * @requires 0 <= k < succCount(block)
+   *
+   * @param block the block.
+   * @param k the index of the successor.
+   * @return the successor block.
+   */
+  public int succId(final int block, final int k) {
+    return succs[block][k];
+  }
+
+  /**
+   * Gets the number of predecessors of a block.
+   *
+   * @param block the block.
+   * @return the number of predecessors of its first statement.
+   */
+  public int predCount(final int block) {
+    return preds[block].length;
+  }
+
+  /**
+   * Gets a predecessor of a block.
+   *
+   * @requires 0 <= k < predCount(block)
+   *
+   * @param block the block.
+   * @param k the index of the predecessor.
+   * @return the predecessor block.
+   */
+  public int predId(final int block, final int k) {
+    return preds[block][k];
+  }
+}
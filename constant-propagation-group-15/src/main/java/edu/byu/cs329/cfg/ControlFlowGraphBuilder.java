@@ -1,12 +1,17 @@
 package edu.byu.cs329.cfg;
 
+import edu.byu.cs329.metrics.ControlFlowGraphEvent;
+import edu.byu.cs329.metrics.Counter;
+import edu.byu.cs329.metrics.Events;
+import edu.byu.cs329.metrics.Metrics;
+import edu.byu.cs329.metrics.Timer;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Block;
@@ -19,6 +24,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ControlFlowGraphBuilder {
+  static final Timer BUILD_TIME = Metrics.timer("cfg.build");
+  static final Counter NODES = Metrics.counter("cfg.nodes");
+  static final Counter EDGES = Metrics.counter("cfg.edges");
+
   Logger log = LoggerFactory.getLogger(ControlFlowGraphBuilder.class);
   
   class Visitor extends ASTVisitor {
@@ -28,8 +37,6 @@ public class ControlFlowGraphBuilder {
     MethodDeclaration methodDeclaration = null;
 
     // Ignore in specification
-    Map<Statement, Set<Statement>> successors = new HashMap<Statement, Set<Statement>>();
-    Map<Statement, Set<Statement>> predecessors = new HashMap<Statement, Set<Statement>>();
     public List<ControlFlowGraph> cgfList = new ArrayList<ControlFlowGraph>();
 
     /**
@@ -46,6 +53,9 @@ public class ControlFlowGraphBuilder {
      */
     @Override
     public boolean visit(MethodDeclaration node) {
+      if (methodDeclaration != null) {
+        return false;
+      }
       initAll();
       methodDeclaration = node;
       end = node.getBody();
@@ -123,7 +133,8 @@ public class ControlFlowGraphBuilder {
      *                  else if !defined(first(S_Then)) then 
      *                    {(node, next(node))}
      * 
-     * <p>else(node) is defined similarly to then(node).
+     * <p>else(node) is defined similarly to then(node), and is
+     *                  {(node, next(node))} when there is no else-statement.
      * 
      * @requires node != null
      * @requires node.getThenStatement() instanceof Block
@@ -148,6 +159,8 @@ public class ControlFlowGraphBuilder {
         block = (Block)(elseStatement);
         statementList = getStatementList(block.statements());
         insertStatementList(node, statementList, nextStatement);
+      } else {
+        addEdge(node, nextStatement);
       }
 
       return true;
@@ -174,52 +187,17 @@ public class ControlFlowGraphBuilder {
      */
     @Override
     public void endVisit(MethodDeclaration node) {
-      Set<Statement> reachableSet = new HashSet<Statement>();
-      computeSucessorsAndPredecessors(reachableSet, start);
-      ControlFlowGraph cfg = buildControlFlowGraph();
+      if (node != methodDeclaration) {
+        return;
+      }
+      List<Statement> statementList = IndexedControlFlowGraph.reversePostorder(start, edges);
+      IndexedControlFlowGraph cfg = new IndexedControlFlowGraph(methodDeclaration, start, end,
+          statementList, edges);
       cgfList.add(cfg);
-    }
-
-    private ControlFlowGraph buildControlFlowGraph() {
-      return new ControlFlowGraph() {
-        final Map<Statement, Set<Statement>> successors = 
-            Collections.unmodifiableMap(Visitor.this.successors);
-        final Map<Statement, Set<Statement>> predecessors = 
-            Collections.unmodifiableMap(Visitor.this.predecessors);
-
-        @Override
-        public Statement getStart() {
-          return start;
-        }
-
-        @Override
-        public Statement getEnd() {
-          return end;
-        }
-
-        @Override
-        public MethodDeclaration getMethodDeclaration() {
-          return methodDeclaration;
-        }
-
-        @Override
-        public Set<Statement> getSuccs(Statement s) {
-          Set<Statement> returnValue = null;
-          if (successors.containsKey(s)) {
-            returnValue = successors.get(s);
-          }
-          return returnValue;
-        }
-
-        @Override
-        public Set<Statement> getPreds(Statement s) {
-          Set<Statement> returnValue = null;
-          if (predecessors.containsKey(s)) {
-            returnValue = predecessors.get(s);
-          }
-          return returnValue;
-        }
-      };
+      if (Metrics.isEnabled()) {
+        NODES.add(cfg.size());
+        EDGES.add(cfg.edgeCount());
+      }
     }
 
     private void initAll() {
@@ -227,25 +205,11 @@ public class ControlFlowGraphBuilder {
       start = null;
       end = null;
       methodDeclaration = null;
-      successors = new HashMap<Statement, Set<Statement>>();
-      predecessors = new HashMap<Statement, Set<Statement>>();
-    }
-
-    private void computeSucessorsAndPredecessors(Set<Statement> set, Statement s) {
-      if (set.contains(s)) {
-        return;
-      }
-      set.add(s);
-      for (Statement successor : getStatements(edges, s)) {
-        getStatements(successors, s).add(successor);
-        getStatements(predecessors, successor).add(s);
-        computeSucessorsAndPredecessors(set, successor);
-      }
     }
 
     private Set<Statement> getStatements(Map<Statement, Set<Statement>> map, Statement statement) {
       if (!map.containsKey(statement)) {
-        map.put(statement, new HashSet<Statement>());
+        map.put(statement, new LinkedHashSet<Statement>());
       }
       return map.get(statement);
     }
@@ -257,7 +221,9 @@ public class ControlFlowGraphBuilder {
     }
 
     private void addEdge(Statement statement, Statement nextStatement) {
-      log.debug("Adding to edges\nSource:\t" + statement + "\nDestination\t" + nextStatement);
+      if (log.isDebugEnabled()) {
+        log.debug("Adding to edges\nSource:\t" + statement + "\nDestination\t" + nextStatement);
+      }
       getStatements(edges, statement).add(nextStatement);
     }
 
@@ -290,15 +256,63 @@ public class ControlFlowGraphBuilder {
     }
   }
 
+  static class MethodCollector extends ASTVisitor {
+    List<MethodDeclaration> methodList = new ArrayList<MethodDeclaration>();
+
+    @Override
+    public boolean visit(MethodDeclaration node) {
+      methodList.add(node);
+      return true;
+    }
+  }
+
   /**
    * Creates a control flow graph for every method.
    * 
+   * <p>Each method is built by its own visitor, so methods are built in
+   * parallel. The builds only read the tree, and the list is in the order
+   * the methods appear in the source.
+   * 
    * @param node compilation unit.
    * @return list fo control flow graphs.
    */
   public List<ControlFlowGraph> build(ASTNode node) {
+    MethodCollector collector = new MethodCollector();
+    node.accept(collector);
+    return collector.methodList.parallelStream()
+        .map(this::build)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Creates the control flow graph for one method.
+   * 
+   * <p>Methods of classes declared inside the method are not part of its
+   * graph.
+   * 
+   * @param methodDeclaration the method.
+   * @return the control flow graph of the method.
+   */
+  public ControlFlowGraph build(MethodDeclaration methodDeclaration) {
+    ControlFlowGraphEvent event = new ControlFlowGraphEvent();
+    if (event.isEnabled()) {
+      event.begin();
+    }
+    long start = System.nanoTime();
     Visitor visitor = new Visitor();
-    node.accept(visitor);
-    return visitor.cgfList;
+    methodDeclaration.accept(visitor);
+    if (Metrics.isEnabled()) {
+      BUILD_TIME.record(System.nanoTime() - start);
+    }
+    ControlFlowGraph cfg = visitor.cgfList.get(0);
+    if (event.shouldCommit()) {
+      IndexedControlFlowGraph indexed = IndexedControlFlowGraph.of(cfg);
+      event.file = Events.fileOf(methodDeclaration);
+      event.method = Events.methodOf(methodDeclaration);
+      event.statements = indexed.size();
+      event.edges = indexed.edgeCount();
+      event.commit();
+    }
+    return cfg;
   }
 }
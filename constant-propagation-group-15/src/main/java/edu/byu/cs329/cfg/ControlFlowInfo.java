@@ -0,0 +1,149 @@
+package edu.byu.cs329.cfg;
+
+import java.util.BitSet;
+
+/**
+ * The structures derived from a control flow graph that dataflow passes share.
+ *
+ * <p>Reverse postorder is the numbering of the {@link IndexedControlFlowGraph}
+ * itself. On top of it this computes, each at most once and only when first
+ * asked for, the {@link DominatorTree}, the back edges, and the loop nesting
+ * depth of every statement. An edge is a back edge when its target dominates
+ * its source; the graphs built from structured code are reducible, so these
+ * are exactly the edges from the end of a while body to the while. The loop
+ * of a back edge is its target plus every statement that reaches its source
+ * without passing through the target.
+ *
+ * <p>Get the info of a graph with {@link IndexedControlFlowGraph#getInfo}.
+ */
+public final class ControlFlowInfo {
+  private final IndexedControlFlowGraph cfg;
+  private DominatorTree dominatorTree = null;
+  private BitSet backEdges = null;
+  private int[] loopDepths = null;
+
+  ControlFlowInfo(IndexedControlFlowGraph cfg) {
+    this.cfg = cfg;
+  }
+
+  /**
+   * Gets the graph.
+   *
+   * @return the graph the info is for.
+   */
+  public IndexedControlFlowGraph getGraph() {
+    return cfg;
+  }
+
+  /**
+   * Gets the dominator tree.
+   *
+   * @return the dominator tree of the graph.
+   */
+  public synchronized DominatorTree getDominatorTree() {
+    if (dominatorTree == null) {
+      dominatorTree = new DominatorTree(cfg);
+    }
+    return dominatorTree;
+  }
+
+  /**
+   * Checks for a back edge.
+   *
+   * @requires 0 <= edge < getGraph().edgeCount()
+   *
+   * @param edge the id of the edge.
+   * @return true if the target of edge dominates its source.
+   */
+  public boolean isBackEdge(final int edge) {
+    return getBackEdges().get(edge);
+  }
+
+  /**
+   * Gets the number of back edges.
+   *
+   * @return the number of back edges in the graph.
+   */
+  public int backEdgeCount() {
+    return getBackEdges().cardinality();
+  }
+
+  /**
+   * Checks for a loop head.
+   *
+   * @param id the id of the statement.
+   * @return true if a back edge enters the statement.
+   */
+  public boolean isLoopHeader(final int id) {
+    for (int k = 0; k < cfg.predCount(id); ++k) {
+      if (isBackEdge(cfg.predEdge(id, k))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the loop nesting depth of a statement.
+   *
+   * @param id the id of the statement.
+   * @return the number of loops that contain the statement, 0 outside loops.
+   */
+  public int loopDepth(final int id) {
+    return getLoopDepths()[id];
+  }
+
+  private synchronized BitSet getBackEdges() {
+    if (backEdges == null) {
+      DominatorTree tree = getDominatorTree();
+      BitSet edges = new BitSet(cfg.edgeCount());
+      for (int s = 0; s < cfg.size(); ++s) {
+        for (int k = 0; k < cfg.succCount(s); ++k) {
+          if (tree.dominates(cfg.succId(s, k), s)) {
+            edges.set(cfg.succEdge(s, k));
+          }
+        }
+      }
+      backEdges = edges;
+    }
+    return backEdges;
+  }
+
+  private synchronized int[] getLoopDepths() {
+    if (loopDepths == null) {
+      int size = cfg.size();
+      int[] depths = new int[size];
+      int[] stack = new int[size];
+      for (int header = 0; header < size; ++header) {
+        BitSet loop = new BitSet(size);
+        loop.set(header);
+        int top = 0;
+        for (int k = 0; k < cfg.predCount(header); ++k) {
+          int source = cfg.predId(header, k);
+          if (isBackEdge(cfg.predEdge(header, k)) && !loop.get(source)) {
+            loop.set(source);
+            stack[top++] = source;
+          }
+        }
+        if (top == 0 && !isLoopHeader(header)) {
+          continue;
+        }
+        while (top > 0) {
+          int s = stack[--top];
+          for (int k = 0; k < cfg.predCount(s); ++k) {
+            int pred = cfg.predId(s, k);
+            if (!loop.get(pred)) {
+              loop.set(pred);
+              stack[top++] = pred;
+            }
+          }
+        }
+        for (int s = loop.nextSetBit(0); s >= 0; s = loop.nextSetBit(s + 1)) {
+          ++depths[s];
+        }
+      }
+      loopDepths = depths;
+    }
+    return loopDepths;
+  }
+}
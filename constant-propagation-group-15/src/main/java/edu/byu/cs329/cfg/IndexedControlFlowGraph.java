@@ -0,0 +1,469 @@
+package edu.byu.cs329.cfg;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * A control flow graph over densely numbered statements.
+ *
+ * <p>The statements reachable from the start are numbered 0..size()-1 and
+ * the successors and predecessors of each are stored in compressed sparse
+ * row form: the successors of statement <code>i</code> are
+ * <code>succTargets[succOffsets[i]..succOffsets[i + 1])</code>. Dataflow
+ * passes can work on the ids and primitive arrays alone.
+ *
+ * <p>Ids are assigned in reverse postorder from the start, so the start is
+ * 0 and, apart from back edges, every edge goes from a lower id to a higher one.
+ */
+public final class IndexedControlFlowGraph implements ControlFlowGraph {
+  private final MethodDeclaration methodDeclaration;
+  private final Statement start;
+  private final Statement end;
+  private final Statement[] statements;
+  private final Map<Statement, Integer> ids;
+  private final int[] succOffsets;
+  private final int[] succTargets;
+  private final int[] predOffsets;
+  private final int[] predTargets;
+  private final int[] predEdges;
+  private volatile ControlFlowInfo info = null;
+
+  /**
+   * Creates the graph from its statements and edges.
+   *
+   * @requires statementList == reversePostorder(start, edges)
+   * @requires every successor of a statement in statementList is in statementList
+   *
+   * @param methodDeclaration the method.
+   * @param start the first statement.
+   * @param end the last statement.
+   * @param statementList the statements in id order.
+   * @param edges the successors of each statement; statements with none may be absent.
+   */
+  IndexedControlFlowGraph(MethodDeclaration methodDeclaration, Statement start, Statement end,
+      List<Statement> statementList, Map<Statement, ? extends Set<Statement>> edges) {
+    this.methodDeclaration = methodDeclaration;
+    this.start = start;
+    this.end = end;
+    int size = statementList.size();
+    statements = statementList.toArray(new Statement[size]);
+    ids = new IdentityHashMap<Statement, Integer>(size);
+    for (int i = 0; i < size; ++i) {
+      ids.put(statements[i], i);
+    }
+
+    succOffsets = new int[size + 1];
+    int[] predCounts = new int[size + 1];
+    int edgeCount = 0;
+    for (int i = 0; i < size; ++i) {
+      Set<Statement> successors = edges.get(statements[i]);
+      succOffsets[i] = edgeCount;
+      if (successors == null) {
+        continue;
+      }
+      for (Statement successor : successors) {
+        ++predCounts[id(successor)];
+        ++edgeCount;
+      }
+    }
+    succOffsets[size] = edgeCount;
+
+    succTargets = new int[edgeCount];
+    predOffsets = new int[size + 1];
+    for (int i = 0; i < size; ++i) {
+      predOffsets[i + 1] = predOffsets[i] + predCounts[i];
+    }
+    predTargets = new int[edgeCount];
+    predEdges = new int[edgeCount];
+    int[] predNext = Arrays.copyOf(predOffsets, size);
+    for (int i = 0; i < size; ++i) {
+      Set<Statement> successors = edges.get(statements[i]);
+      if (successors == null) {
+        continue;
+      }
+      int next = succOffsets[i];
+      for (Statement successor : successors) {
+        int successorId = id(successor);
+        predEdges[predNext[successorId]] = next;
+        predTargets[predNext[successorId]++] = i;
+        succTargets[next++] = successorId;
+      }
+    }
+  }
+
+  /**
+   * Gets an indexed view of a control flow graph.
+   *
+   * <p>The copy of a {@link MutableControlFlowGraph} is cached until the
+   * graph is next patched, so its analysis info is computed once per version.
+   *
+   * @param cfg the control flow graph.
+   * @return cfg if it is already indexed, otherwise an indexed copy of the
+   *     part of cfg reachable from its start.
+   */
+  public static IndexedControlFlowGraph of(final ControlFlowGraph cfg) {
+    ExceptionUtils.requiresNonNull(cfg, "Null graph passed to IndexedControlFlowGraph.of");
+    if (cfg instanceof IndexedControlFlowGraph) {
+      return (IndexedControlFlowGraph) cfg;
+    }
+    if (cfg instanceof MutableControlFlowGraph) {
+      return ((MutableControlFlowGraph) cfg).getIndexed();
+    }
+    return copyOf(cfg);
+  }
+
+  /**
+   * Copies the part of a graph reachable from its start.
+   *
+   * @param cfg the control flow graph.
+   * @return a new indexed graph.
+   */
+  static IndexedControlFlowGraph copyOf(final ControlFlowGraph cfg) {
+
+    Set<Statement> reachable = newIdentitySet();
+    Map<Statement, Set<Statement>> edges = new IdentityHashMap<Statement, Set<Statement>>();
+    ArrayDeque<Statement> worklist = new ArrayDeque<Statement>();
+    worklist.push(cfg.getStart());
+    reachable.add(cfg.getStart());
+    while (!worklist.isEmpty()) {
+      Statement statement = worklist.pop();
+      Set<Statement> successors = cfg.getSuccs(statement);
+      if (successors == null) {
+        continue;
+      }
+      edges.put(statement, successors);
+      for (Statement successor : successors) {
+        if (reachable.add(successor)) {
+          worklist.push(successor);
+        }
+      }
+    }
+    return new IndexedControlFlowGraph(cfg.getMethodDeclaration(), cfg.getStart(),
+        cfg.getEnd(), reversePostorder(cfg.getStart(), edges), edges);
+  }
+
+  /**
+   * Orders the statements reachable from start in reverse postorder.
+   *
+   * <p>The depth-first search keeps its own stack, so the length of a
+   * straight-line chain of statements is not limited by the thread stack.
+   *
+   * @param start the first statement.
+   * @param edges the successors of each statement; statements with none may be absent.
+   * @return the reachable statements in reverse postorder, beginning with start.
+   */
+  static List<Statement> reversePostorder(final Statement start,
+      final Map<Statement, ? extends Set<Statement>> edges) {
+    Set<Statement> visited = newIdentitySet();
+    ArrayDeque<Statement> stack = new ArrayDeque<Statement>();
+    ArrayDeque<Iterator<Statement>> successorStack = new ArrayDeque<Iterator<Statement>>();
+    List<Statement> postorder = new ArrayList<Statement>();
+    visited.add(start);
+    stack.push(start);
+    successorStack.push(successors(edges, start));
+    while (!stack.isEmpty()) {
+      Iterator<Statement> successors = successorStack.peek();
+      if (successors.hasNext()) {
+        Statement successor = successors.next();
+        if (visited.add(successor)) {
+          stack.push(successor);
+          successorStack.push(successors(edges, successor));
+        }
+        continue;
+      }
+      postorder.add(stack.pop());
+      successorStack.pop();
+    }
+    Collections.reverse(postorder);
+    return postorder;
+  }
+
+  private static Iterator<Statement> successors(Map<Statement, ? extends Set<Statement>> edges,
+      Statement statement) {
+    Set<Statement> successors = edges.get(statement);
+    if (successors == null) {
+      return Collections.emptyIterator();
+    }
+    return successors.iterator();
+  }
+
+  private static Set<Statement> newIdentitySet() {
+    return Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+  }
+
+  /**
+   * Gets the analysis info of the graph.
+   *
+   * <p>The info is created on first use and shared by every later caller,
+   * and each of its structures is computed once, when first asked for.
+   *
+   * @return the analysis info.
+   */
+  public ControlFlowInfo getInfo() {
+    ControlFlowInfo result = info;
+    if (result == null) {
+      synchronized (this) {
+        result = info;
+        if (result == null) {
+          result = new ControlFlowInfo(this);
+          info = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Gets the number of statements in the graph.
+   *
+   * @return the number of statements.
+   */
+  public int size() {
+    return statements.length;
+  }
+
+  /**
+   * Gets the id of a statement.
+   *
+   * @param s the statement.
+   * @return the id of s, or -1 if s is not in the graph.
+   */
+  public int id(final Statement s) {
+    Integer id = ids.get(s);
+    if (id == null) {
+      return -1;
+    }
+    return id;
+  }
+
+  /**
+   * Gets the statement with an id.
+   *
+   * @requires 0 <= id < size()
+   *
+   * @param id the id.
+   * @return the statement.
+   */
+  public Statement statement(final int id) {
+    return statements[id];
+  }
+
+  /**
+   * Gets the ids of the successors of a statement.
+   *
+   * @requires 0 <= id < size()
+   *
+   * @param id the id of the statement.
+   * @return a new array of the successor ids.
+   */
+  public int[] succIds(final int id) {
+    return Arrays.copyOfRange(succTargets, succOffsets[id], succOffsets[id + 1]);
+  }
+
+  /**
+   * Gets the ids of the predecessors of a statement.
+   *
+   * @requires 0 <= id < size()
+   *
+   * @param id the id of the statement.
+   * @return a new array of the predecessor ids.
+   */
+  public int[] predIds(final int id) {
+    return Arrays.copyOfRange(predTargets, predOffsets[id], predOffsets[id + 1]);
+  }
+
+  /**
+   * Gets the number of successors without allocating.
+   *
+   * @param id the id of the statement.
+   * @return the number of successors.
+   */
+  public int succCount(final int id) {
+    return succOffsets[id + 1] - succOffsets[id];
+  }
+
+  /**
+   * Gets one successor without allocating.
+   *
+   * @requires 0 <= k < succCount(id)
+   *
+   * @param id the id of the statement.
+   * @param k the index of the successor.
+   * @return the id of the successor.
+   */
+  public int succId(final int id, final int k) {
+    return succTargets[succOffsets[id] + k];
+  }
+
+  /**
+   * Gets the number of predecessors without allocating.
+   *
+   * @param id the id of the statement.
+   * @return the number of predecessors.
+   */
+  public int predCount(final int id) {
+    return predOffsets[id + 1] - predOffsets[id];
+  }
+
+  /**
+   * Gets one predecessor without allocating.
+   *
+   * @requires 0 <= k < predCount(id)
+   *
+   * @param id the id of the statement.
+   * @param k the index of the predecessor.
+   * @return the id of the predecessor.
+   */
+  public int predId(final int id, final int k) {
+    return predTargets[predOffsets[id] + k];
+  }
+
+  /**
+   * Gets the number of edges in the graph.
+   *
+   * <p>Edges are numbered 0..edgeCount()-1 in successor order, so they can
+   * index arrays of per-edge facts.
+   *
+   * @return the number of edges.
+   */
+  public int edgeCount() {
+    return succTargets.length;
+  }
+
+  /**
+   * Gets the edge to one successor.
+   *
+   * @requires 0 <= k < succCount(id)
+   *
+   * @param id the id of the statement.
+   * @param k the index of the successor.
+   * @return the edge from id to succId(id, k).
+   */
+  public int succEdge(final int id, final int k) {
+    return succOffsets[id] + k;
+  }
+
+  /**
+   * Gets the edge from one predecessor.
+   *
+   * @requires 0 <= k < predCount(id)
+   *
+   * @param id the id of the statement.
+   * @param k the index of the predecessor.
+   * @return the edge from predId(id, k) to id.
+   */
+  public int predEdge(final int id, final int k) {
+    return predEdges[predOffsets[id] + k];
+  }
+
+  /**
+   * Gets the target of an edge.
+   *
+   * @requires 0 <= edge < edgeCount()
+   *
+   * @param edge the edge.
+   * @return the id of the statement the edge goes to.
+   */
+  public int edgeTarget(final int edge) {
+    return succTargets[edge];
+  }
+
+  @Override
+  public Statement getStart() {
+    return start;
+  }
+
+  @Override
+  public Statement getEnd() {
+    return end;
+  }
+
+  @Override
+  public MethodDeclaration getMethodDeclaration() {
+    return methodDeclaration;
+  }
+
+  @Override
+  public Set<Statement> getSuccs(final Statement s) {
+    int id = id(s);
+    if (id < 0 || succCount(id) == 0) {
+      return null;
+    }
+    return new IdSet(succTargets, succOffsets[id], succOffsets[id + 1]);
+  }
+
+  @Override
+  public Set<Statement> getPreds(final Statement s) {
+    int id = id(s);
+    if (id < 0 || predCount(id) == 0) {
+      return null;
+    }
+    return new IdSet(predTargets, predOffsets[id], predOffsets[id + 1]);
+  }
+
+  /**
+   * A read-only view of one row of an adjacency array.
+   */
+  private final class IdSet extends AbstractSet<Statement> {
+    private final int[] targets;
+    private final int from;
+    private final int to;
+
+    IdSet(int[] targets, int from, int to) {
+      this.targets = targets;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Statement)) {
+        return false;
+      }
+      int id = id((Statement) o);
+      for (int i = from; i < to; ++i) {
+        if (targets[i] == id) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Iterator<Statement> iterator() {
+      return new Iterator<Statement>() {
+        int next = from;
+
+        @Override
+        public boolean hasNext() {
+          return next < to;
+        }
+
+        @Override
+        public Statement next() {
+          if (next >= to) {
+            throw new NoSuchElementException();
+          }
+          return statements[targets[next++]];
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+  }
+}
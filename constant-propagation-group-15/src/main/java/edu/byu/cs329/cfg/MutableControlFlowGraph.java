@@ -0,0 +1,257 @@
+package edu.byu.cs329.cfg;
+
+import edu.byu.cs329.constantfolding.FoldingListener;
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * A control flow graph that is patched in place as foldings rewrite its method.
+ *
+ * <p>The graph listens for the structural events of the foldings. When a
+ * statement is replaced by one of its descendants, as an if statement by
+ * the branch it always takes, the edges into the statement are redirected
+ * to its successor inside the replacement. When the replacement has no
+ * successor inside it, because it is empty or the statement was removed,
+ * they are redirected to the successor outside the statement, which is the
+ * statement that follows it. Statements no longer reachable from the start
+ * are then dropped, which removes the branch that is never taken.
+ *
+ * <p>A nested block spliced into its parent is never a node once the if
+ * that held it has been patched, so splicing changes nothing. A nested
+ * block that was a node to begin with is not modeled faithfully by
+ * {@link ControlFlowGraphBuilder}, and in that case the graph of the method
+ * is rebuilt. Events for statements outside the graph, such as those of
+ * other methods, are ignored, so one fold over a compilation unit can
+ * patch the graphs of all its methods.
+ *
+ * <p>The result has the same nodes and edges as a graph built from scratch
+ * for the rewritten method.
+ */
+public final class MutableControlFlowGraph implements ControlFlowGraph, FoldingListener {
+  private final MethodDeclaration methodDeclaration;
+  private final Statement end;
+  private Statement start;
+  private final Map<Statement, Set<Statement>> succs =
+      new IdentityHashMap<Statement, Set<Statement>>();
+  private final Map<Statement, Set<Statement>> preds =
+      new IdentityHashMap<Statement, Set<Statement>>();
+  private IndexedControlFlowGraph indexed = null;
+  private int patchCount = 0;
+  private int rebuildCount = 0;
+
+  /**
+   * Copies the reachable part of a graph.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the graph to copy.
+   */
+  public MutableControlFlowGraph(final ControlFlowGraph cfg) {
+    ExceptionUtils.requiresNonNull(cfg, "Null graph passed to MutableControlFlowGraph");
+    methodDeclaration = cfg.getMethodDeclaration();
+    end = cfg.getEnd();
+    copy(cfg);
+  }
+
+  /**
+   * Redirects the edges into a replaced or removed statement.
+   *
+   * @ensures original is not in the graph
+   * @ensures every statement in the graph is reachable from the start
+   *
+   * @param original the statement taken out of the tree.
+   * @param replacement the former descendant of original now in its place,
+   *     or null if original was removed.
+   */
+  @Override
+  public void didReplaceStatement(final Statement original, final Statement replacement) {
+    Set<Statement> successors = succs.get(original);
+    if (successors == null) {
+      return;
+    }
+    ++patchCount;
+    indexed = null;
+    Statement entry = null;
+    for (Statement successor : successors) {
+      if (replacement != null && isWithin(successor, replacement)) {
+        entry = successor;
+        break;
+      }
+      if (entry == null && !isWithin(successor, original)) {
+        entry = successor;
+      }
+    }
+    for (Statement predecessor : new ArrayList<Statement>(preds.get(original))) {
+      succs.get(predecessor).remove(original);
+      if (entry != null) {
+        succs.get(predecessor).add(entry);
+        preds.get(entry).add(predecessor);
+      }
+    }
+    if (original == start) {
+      start = (entry == null) ? end : entry;
+    }
+    removeUnreachable();
+  }
+
+  /**
+   * Rebuilds the graph if the spliced block was a node.
+   *
+   * @param block the nested block, now detached and empty.
+   * @param statements the moved statements in order.
+   */
+  @Override
+  public void didSpliceBlock(final Block block, final List<Statement> statements) {
+    if (!succs.containsKey(block)) {
+      return;
+    }
+    ++rebuildCount;
+    indexed = null;
+    succs.clear();
+    preds.clear();
+    copy(new ControlFlowGraphBuilder().build(methodDeclaration));
+  }
+
+  /**
+   * Gets the number of patches.
+   *
+   * @return the number of replaced or removed statements patched in place.
+   */
+  public int getPatchCount() {
+    return patchCount;
+  }
+
+  /**
+   * Gets the number of rebuilds.
+   *
+   * @return the number of times the graph was rebuilt from the tree.
+   */
+  public int getRebuildCount() {
+    return rebuildCount;
+  }
+
+  /**
+   * Gets an indexed copy of the current graph, cached until the next patch.
+   *
+   * @return the indexed copy.
+   */
+  IndexedControlFlowGraph getIndexed() {
+    if (indexed == null) {
+      indexed = IndexedControlFlowGraph.copyOf(this);
+    }
+    return indexed;
+  }
+
+  /**
+   * Gets the number of statements.
+   *
+   * @return the number of statements reachable from the start.
+   */
+  public int size() {
+    return succs.size();
+  }
+
+  @Override
+  public Statement getStart() {
+    return start;
+  }
+
+  @Override
+  public Statement getEnd() {
+    return end;
+  }
+
+  @Override
+  public MethodDeclaration getMethodDeclaration() {
+    return methodDeclaration;
+  }
+
+  @Override
+  public Set<Statement> getSuccs(final Statement s) {
+    return view(succs.get(s));
+  }
+
+  @Override
+  public Set<Statement> getPreds(final Statement s) {
+    return view(preds.get(s));
+  }
+
+  private void copy(ControlFlowGraph cfg) {
+    IndexedControlFlowGraph graph = IndexedControlFlowGraph.of(cfg);
+    start = graph.getStart();
+    for (int s = 0; s < graph.size(); ++s) {
+      addNode(graph.statement(s));
+    }
+    for (int s = 0; s < graph.size(); ++s) {
+      Statement statement = graph.statement(s);
+      for (int k = 0; k < graph.succCount(s); ++k) {
+        Statement successor = graph.statement(graph.succId(s, k));
+        succs.get(statement).add(successor);
+        preds.get(successor).add(statement);
+      }
+    }
+  }
+
+  private void addNode(Statement statement) {
+    succs.put(statement, new LinkedHashSet<Statement>());
+    preds.put(statement, new LinkedHashSet<Statement>());
+  }
+
+  private void removeUnreachable() {
+    Set<Statement> reachable = Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+    ArrayDeque<Statement> worklist = new ArrayDeque<Statement>();
+    if (succs.containsKey(start)) {
+      reachable.add(start);
+      worklist.push(start);
+    }
+    while (!worklist.isEmpty()) {
+      for (Statement successor : succs.get(worklist.pop())) {
+        if (reachable.add(successor)) {
+          worklist.push(successor);
+        }
+      }
+    }
+    List<Statement> unreachable = new ArrayList<Statement>();
+    for (Statement statement : succs.keySet()) {
+      if (!reachable.contains(statement)) {
+        unreachable.add(statement);
+      }
+    }
+    for (Statement statement : unreachable) {
+      for (Statement successor : succs.remove(statement)) {
+        Set<Statement> successorPreds = preds.get(successor);
+        if (successorPreds != null) {
+          successorPreds.remove(statement);
+        }
+      }
+      preds.remove(statement);
+    }
+  }
+
+  private static boolean isWithin(ASTNode node, ASTNode ancestor) {
+    for (ASTNode current = node; current != null; current = current.getParent()) {
+      if (current == ancestor) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Set<Statement> view(Set<Statement> statements) {
+    if (statements == null || statements.isEmpty()) {
+      return null;
+    }
+    return Collections.unmodifiableSet(statements);
+  }
+}
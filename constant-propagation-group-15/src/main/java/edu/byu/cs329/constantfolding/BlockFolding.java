@@ -1,52 +1,24 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.Statement;
 
-public class BlockFolding implements Folding {
+public class BlockFolding implements Folding, FoldingRule {
   
-  class Visitor extends ASTVisitor {
-    boolean didFold = false;
+  class Visitor extends FoldingVisitor {
+    Visitor(final FoldingListener listener) {
+      super(listener);
+    }
     
     @Override
     public void endVisit(Block node) {
-      List<Statement> statements = getStatementList(node.statements());
-      AST ast = node.getAST();
-      Block block  = ast.newBlock();
-      List<Statement> newStatements = getStatementList(block.statements());
-      for (Statement statement : statements) {
-        addStatements(statement, newStatements);
-      }
-      TreeModificationUtils.replaceChildInParent(node, block);
-    }
-
-    private void addStatements(Statement statement, List<Statement> newStatements) {
-      AST ast = statement.getAST();
-      if (!(statement instanceof Block)) {
-        Statement newStatement = (Statement)(ASTNode.copySubtree(ast, statement));
-        newStatements.add(newStatement);
-        return;
-      }
-      didFold = true;
-      Block block = (Block)statement;
-      List<Statement> statements = getStatementList(block.statements());
-      for (Statement statementInBlock : statements) {
-        Statement newStatement = (Statement)(ASTNode.copySubtree(ast, statementInBlock));
-        newStatements.add(newStatement);
-      }
-    }
-
-    private List<Statement> getStatementList(Object list) {
-      @SuppressWarnings("unchecked")
-      List<Statement> statementList = (List<Statement>)(list);
-      return statementList;
+      apply(BlockFolding.this, node);
     }
   }
 
@@ -88,11 +60,75 @@ public class BlockFolding implements Folding {
    * @return true if a block is reduced otherwise false
    */
   @Override
-  public boolean fold(ASTNode root) {
+  public boolean fold(final ASTNode root) {
+    return fold(root, FoldingListener.NONE);
+  }
+
+  @Override
+  public boolean fold(final ASTNode root, final FoldingListener listener) {
     checkRequires(root);
-    Visitor visitor = new Visitor();
-    root.accept(visitor);
-    return visitor.didFold;
+    Visitor visitor = new Visitor(listener);
+    return visitor.foldFrom(root);
+  }
+
+  @Override
+  public int[] getNodeTypes() {
+    return new int[] {ASTNode.BLOCK};
+  }
+
+  /**
+   * Moves the statements of each nested block into the block in place.
+   * 
+   * <p>Blocks without nested blocks are left untouched, and the moved
+   * statements are reparented rather than copied.
+   * 
+   * @param node Block node to potentially fold
+   * @param listener receives each spliced block and then the node if a
+   *     nested block is flattened
+   * @return true if a nested block was flattened
+   */
+  @Override
+  public boolean foldNode(final ASTNode node, final FoldingListener listener) {
+    return foldBlock((Block) node, listener);
+  }
+
+  private boolean foldBlock(Block node, FoldingListener listener) {
+    List<Statement> statements = getStatementList(node.statements());
+    boolean didFlatten = false;
+    int i = 0;
+    while (i < statements.size()) {
+      Statement statement = statements.get(i);
+      if (!(statement instanceof Block)) {
+        ++i;
+        continue;
+      }
+      statements.remove(i);
+      int next = spliceStatements((Block) statement, statements, i);
+      listener.didSpliceBlock((Block) statement,
+          Collections.unmodifiableList(new ArrayList<Statement>(statements.subList(i, next))));
+      i = next;
+      didFlatten = true;
+    }
+    if (didFlatten) {
+      listener.didReplace(node);
+    }
+    return didFlatten;
+  }
+
+  private int spliceStatements(Block block, List<Statement> statements, int index) {
+    List<Statement> nestedStatements = getStatementList(block.statements());
+    int size = nestedStatements.size();
+    for (int j = size - 1; j >= 0; --j) {
+      Statement statement = nestedStatements.remove(j);
+      statements.add(index, statement);
+    }
+    return index + size;
+  }
+
+  private List<Statement> getStatementList(Object list) {
+    @SuppressWarnings("unchecked")
+    List<Statement> statementList = (List<Statement>)(list);
+    return statementList;
   }
 
   private void checkRequires(final ASTNode root) {
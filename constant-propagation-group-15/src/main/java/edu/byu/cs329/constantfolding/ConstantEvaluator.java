@@ -0,0 +1,373 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.List;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.InfixExpression.Operator;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+
+/**
+ * Evaluates literal operands and operator chains over primitive values.
+ *
+ * <p>The evaluator only reads the tree: a literal token is parsed each time
+ * it is queried, so queries are safe from several threads on one tree and
+ * survive <code>copySubtree</code>. A caller that queries the same literal
+ * many times keeps its own cache, as the sparse conditional constant
+ * propagation does. Values are carried as a kind and a <code>long</code>, and
+ * arithmetic follows the Java rules for the kind: <code>int</code> results
+ * wrap at 32 bits and <code>long</code> results at 64 bits.
+ */
+public final class ConstantEvaluator {
+  public static final int NONE = 0;
+  public static final int INT = 1;
+  public static final int LONG = 2;
+  public static final int CHAR = 3;
+  public static final int BOOLEAN = 4;
+
+  /**
+   * The parsed value of one literal token.
+   */
+  static final class Value {
+    final int kind;
+    final long bits;
+    final boolean requiresNegation;
+
+    Value(int kind, long bits, boolean requiresNegation) {
+      this.kind = kind;
+      this.bits = bits;
+      this.requiresNegation = requiresNegation;
+    }
+  }
+
+  private ConstantEvaluator() {
+  }
+
+  /**
+   * Checks for an integer literal, possibly negated.
+   *
+   * @param exp the expression to check.
+   * @return true if exp is a NumberLiteral or a minus applied to one.
+   */
+  public static boolean isNumber(final Expression exp) {
+    if (exp instanceof NumberLiteral) {
+      return true;
+    }
+    if (!(exp instanceof PrefixExpression)) {
+      return false;
+    }
+    PrefixExpression prefix = (PrefixExpression) exp;
+    return prefix.getOperator() == PrefixExpression.Operator.MINUS
+        && prefix.getOperand() instanceof NumberLiteral;
+  }
+
+  /**
+   * Checks for an integer number literal.
+   *
+   * @param literal the literal.
+   * @return true if the token is an int or long literal, false if it is floating point.
+   */
+  public static boolean isIntegral(final NumberLiteral literal) {
+    try {
+      parseIntegral(literal.getToken());
+    } catch (NumberFormatException e) {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Gets the kind of a literal expression.
+   *
+   * @requires exp is not a NumberLiteral with a floating point token
+   *
+   * @param exp the expression.
+   * @return the kind of the literal or NONE if exp is not a literal.
+   */
+  public static int getKind(final Expression exp) {
+    if (exp instanceof PrefixExpression) {
+      if (!isNumber(exp)) {
+        return NONE;
+      }
+      return getLiteralValue(((PrefixExpression) exp).getOperand()).kind;
+    }
+    if (!isLiteral(exp)) {
+      return NONE;
+    }
+    return getLiteralValue(exp).kind;
+  }
+
+  /**
+   * Gets the value of a literal expression.
+   *
+   * @requires getKind(exp) != NONE
+   *
+   * @param exp the expression.
+   * @return the value, sign extended for int and char, 0 or 1 for boolean.
+   */
+  public static long getValue(final Expression exp) {
+    if (exp instanceof PrefixExpression) {
+      Value value = getLiteralValue(((PrefixExpression) exp).getOperand());
+      return narrow(value.kind, -value.bits);
+    }
+    Value value = getLiteralValue(exp);
+    if (value.requiresNegation) {
+      ExceptionUtils.throwRuntimeException(
+          "Literal " + exp + " out of range in ConstantEvaluator");
+    }
+    return value.bits;
+  }
+
+  /**
+   * Applies binary numeric promotion.
+   *
+   * @param left the kind of the left operand.
+   * @param right the kind of the right operand.
+   * @return LONG if either is LONG, otherwise INT, or NONE if either is not numeric.
+   */
+  public static int promote(final int left, final int right) {
+    if (!isNumeric(left) || !isNumeric(right)) {
+      return NONE;
+    }
+    if (left == LONG || right == LONG) {
+      return LONG;
+    }
+    return INT;
+  }
+
+  /**
+   * Gets the promoted kind of all operands of an infix expression.
+   *
+   * @param node the infix expression.
+   * @return the promoted kind, or NONE if any operand is not a numeric literal.
+   */
+  public static int getOperandKind(final InfixExpression node) {
+    int kind = promote(getKind(node.getLeftOperand()), getKind(node.getRightOperand()));
+    List<?> extendedOperands = node.extendedOperands();
+    for (int i = 0; kind != NONE && i < extendedOperands.size(); ++i) {
+      kind = promote(kind, getKind((Expression) extendedOperands.get(i)));
+    }
+    return kind;
+  }
+
+  /**
+   * Checks if an operator can be evaluated.
+   *
+   * @param operator the infix operator.
+   * @return true if {@link #evaluate} supports the operator.
+   */
+  public static boolean isSupported(final Operator operator) {
+    return isArithmetic(operator) || isComparison(operator);
+  }
+
+  /**
+   * Evaluates an operator chain left to right.
+   *
+   * <p>Each step is promoted on its own, as in Java, so in
+   * <code>2147483647 + 1 + 1L</code> the first addition wraps as an int
+   * before the long is added. Comparisons yield 1 for true and 0 for false.
+   *
+   * @requires isSupported(node.getOperator())
+   * @requires kind == getOperandKind(node) /\ kind != NONE
+   *
+   * @param node the infix expression.
+   * @param kind the promoted kind of all operands, the kind of the result.
+   * @return the value of the expression.
+   */
+  public static long evaluate(final InfixExpression node, final int kind) {
+    Operator operator = node.getOperator();
+    Expression left = node.getLeftOperand();
+    Expression right = node.getRightOperand();
+    int stepKind = promote(getKind(left), getKind(right));
+    long result = evaluate(operator, stepKind, getValue(left), getValue(right));
+    List<?> extendedOperands = node.extendedOperands();
+    for (int i = 0; i < extendedOperands.size(); ++i) {
+      Expression operand = (Expression) extendedOperands.get(i);
+      stepKind = promote(stepKind, getKind(operand));
+      result = evaluate(operator, stepKind, result, getValue(operand));
+    }
+    return result;
+  }
+
+  /**
+   * Applies one operator to two values.
+   *
+   * @requires isSupported(operator)
+   * @requires kind == INT \/ kind == LONG
+   *
+   * @param operator the infix operator.
+   * @param kind the promoted kind of the operands.
+   * @param left the left value.
+   * @param right the right value.
+   * @return the result, 1 or 0 for a comparison.
+   */
+  public static long evaluate(final Operator operator, final int kind, final long left,
+      final long right) {
+    if (operator == Operator.PLUS) {
+      return narrow(kind, left + right);
+    } else if (operator == Operator.MINUS) {
+      return narrow(kind, left - right);
+    } else if (operator == Operator.TIMES) {
+      return narrow(kind, left * right);
+    } else if (operator == Operator.LESS) {
+      return toBits(left < right);
+    } else if (operator == Operator.LESS_EQUALS) {
+      return toBits(left <= right);
+    } else if (operator == Operator.GREATER) {
+      return toBits(left > right);
+    } else if (operator == Operator.GREATER_EQUALS) {
+      return toBits(left >= right);
+    } else if (operator == Operator.EQUALS) {
+      return toBits(left == right);
+    } else if (operator == Operator.NOT_EQUALS) {
+      return toBits(left != right);
+    }
+    ExceptionUtils.throwRuntimeException(
+        "Unsupported operator " + operator + " in ConstantEvaluator");
+    return 0;
+  }
+
+  /**
+   * Gets the kind of the result of an operator.
+   *
+   * @requires isSupported(operator)
+   *
+   * @param operator the infix operator.
+   * @param kind the promoted kind of the operands.
+   * @return BOOLEAN for a comparison, otherwise kind.
+   */
+  public static int getResultKind(final Operator operator, final int kind) {
+    return isComparison(operator) ? BOOLEAN : kind;
+  }
+
+  /**
+   * Narrows a value to a kind as a cast would.
+   *
+   * @param kind INT or LONG.
+   * @param value the value.
+   * @return the value truncated to 32 bits and sign extended for INT.
+   */
+  public static long narrow(final int kind, final long value) {
+    if (kind == LONG) {
+      return value;
+    }
+    return (int) value;
+  }
+
+  /**
+   * Creates a literal for the value.
+   *
+   * <p>Negative numbers are a minus applied to a number literal since a
+   * number literal token cannot be negative.
+   *
+   * @param ast the owner of the new nodes.
+   * @param kind INT, LONG or BOOLEAN.
+   * @param value the value.
+   * @return a new unparented literal expression.
+   */
+  public static Expression newLiteral(final AST ast, final int kind, final long value) {
+    if (kind == BOOLEAN) {
+      return ast.newBooleanLiteral(value != 0);
+    }
+    String suffix = (kind == LONG) ? "L" : "";
+    if (value >= 0) {
+      return ast.newNumberLiteral(Long.toString(value) + suffix);
+    }
+    PrefixExpression prefix = ast.newPrefixExpression();
+    prefix.setOperator(PrefixExpression.Operator.MINUS);
+    prefix.setOperand(ast.newNumberLiteral(Long.toUnsignedString(-value) + suffix));
+    return prefix;
+  }
+
+  private static boolean isArithmetic(Operator operator) {
+    return operator == Operator.PLUS
+        || operator == Operator.MINUS
+        || operator == Operator.TIMES;
+  }
+
+  private static boolean isComparison(Operator operator) {
+    return operator == Operator.LESS
+        || operator == Operator.LESS_EQUALS
+        || operator == Operator.GREATER
+        || operator == Operator.GREATER_EQUALS
+        || operator == Operator.EQUALS
+        || operator == Operator.NOT_EQUALS;
+  }
+
+  private static boolean isNumeric(int kind) {
+    return kind == INT || kind == LONG || kind == CHAR;
+  }
+
+  private static boolean isLiteral(Expression exp) {
+    return (exp instanceof NumberLiteral)
+        || (exp instanceof CharacterLiteral)
+        || (exp instanceof BooleanLiteral);
+  }
+
+  private static long toBits(boolean value) {
+    return value ? 1 : 0;
+  }
+
+  private static Value getLiteralValue(Expression literal) {
+    if (literal instanceof BooleanLiteral) {
+      return new Value(BOOLEAN, toBits(((BooleanLiteral) literal).booleanValue()), false);
+    }
+    if (literal instanceof CharacterLiteral) {
+      return new Value(CHAR, ((CharacterLiteral) literal).charValue(), false);
+    }
+    String token = ((NumberLiteral) literal).getToken();
+    try {
+      return parseIntegral(token);
+    } catch (NumberFormatException e) {
+      ExceptionUtils.throwRuntimeException(
+          "Non-integral literal " + token + " in ConstantEvaluator");
+    }
+    return null;
+  }
+
+  private static Value parseIntegral(String token) {
+    String digits = token.replace("_", "");
+    int kind = INT;
+    char last = digits.charAt(digits.length() - 1);
+    if (last == 'l' || last == 'L') {
+      kind = LONG;
+      digits = digits.substring(0, digits.length() - 1);
+    }
+
+    int radix = 10;
+    if (digits.startsWith("0x") || digits.startsWith("0X")) {
+      radix = 16;
+      digits = digits.substring(2);
+    } else if (digits.startsWith("0b") || digits.startsWith("0B")) {
+      radix = 2;
+      digits = digits.substring(2);
+    } else if (digits.length() > 1 && digits.charAt(0) == '0') {
+      radix = 8;
+      digits = digits.substring(1);
+    }
+
+    if (radix != 10) {
+      long bits = (kind == LONG)
+          ? Long.parseUnsignedLong(digits, radix)
+          : Integer.parseUnsignedInt(digits, radix);
+      return new Value(kind, bits, false);
+    }
+
+    if (kind == LONG) {
+      long bits = Long.parseUnsignedLong(digits);
+      if (bits < 0 && bits != Long.MIN_VALUE) {
+        throw new NumberFormatException(token);
+      }
+      return new Value(kind, bits, bits == Long.MIN_VALUE);
+    }
+    long bits = Long.parseLong(digits);
+    if (bits > -(long) Integer.MIN_VALUE) {
+      throw new NumberFormatException(token);
+    }
+    return new Value(kind, bits, bits > Integer.MAX_VALUE);
+  }
+}
@@ -1,9 +1,11 @@
 package edu.byu.cs329.constantfolding;
 
-import edu.byu.cs329.utils.JavaSourceUtils;
+import edu.byu.cs329.batch.BatchRunner;
+import edu.byu.cs329.batch.OutputCache;
+import edu.byu.cs329.batch.SourceFile;
+import edu.byu.cs329.metrics.Metrics;
 import java.io.File;
-import java.io.PrintWriter;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.slf4j.Logger;
@@ -27,8 +29,29 @@ public class ConstantFolding {
    * @return The root ASTNode for the constant folded version of the input.
    */
   public static ASTNode fold(ASTNode compilationUnit) {
-    boolean isChanged = true;
-    List<Folding> foldingList = List.of(
+    FoldingFixpoint.Statistics statistics = foldWithStatistics(compilationUnit);
+    log.debug("Folded in " + statistics.getRounds() + " rounds visiting " 
+        + statistics.getNodesVisited() + " nodes");
+    return compilationUnit;
+  }
+
+  /**
+   * Performs constant folding and reports the work done.
+   * 
+   * <p>Only the statements rewritten in one round are folded again in the
+   * next, so the work is proportional to the amount of change.
+   *
+   * @param compilationUnit ASTNode for the compliation unit.
+   * @return the rounds and nodes visited to reach the fixpoint.
+   */
+  public static FoldingFixpoint.Statistics foldWithStatistics(ASTNode compilationUnit) {
+    List<Folding> foldingList = List.of(new FusedFolding(newRuleList()));
+    FoldingFixpoint fixpoint = new FoldingFixpoint(foldingList);
+    return fixpoint.run(compilationUnit);
+  }
+
+  static List<FoldingRule> newRuleList() {
+    return List.of(
         new BlockFolding(),
         new ParenthesizedExpressionFolding(),
         new LogicalNotPrefixExpressionFolding(),
@@ -36,38 +59,67 @@ public class ConstantFolding {
         new InfixExpressionLessThanFolding(),
         new IfStatementFolding()
     );
-  
-    while (isChanged == true) {
-      isChanged = false;
-      for (Folding folding : foldingList) {
-        isChanged = isChanged || folding.fold(compilationUnit);
-      }
-    } 
+  }
 
-    return compilationUnit;
+  /**
+   * Describes the enabled rules for an {@link OutputCache}.
+   *
+   * @return the names of the rules in the order they are tried.
+   */
+  public static String getConfiguration() {
+    StringBuilder builder = new StringBuilder("ConstantFolding");
+    for (FoldingRule rule : newRuleList()) {
+      builder.append(' ').append(rule.getClass().getSimpleName());
+    }
+    return builder.toString();
   }
 
   /**
-   * Performs constant folding an a Java file.
+   * Performs constant folding an a Java file or on every Java file in a directory.
    * 
-   * @param args The args[0] is the file to fold and the args[1] is where to write the
-   *             output.
+   * <p>When args[0] is a directory the files are folded in parallel and
+   * written to the same relative paths under args[1], reusing the outputs
+   * cached in args[2] if it is given.
+   * 
+   * @param args The args[0] is the file or directory to fold and the args[1] is where
+   *             to write the output. The optional args[2] is a cache directory.
    */
   public static void main(String[] args) {
-    if (args.length != 2) {
+    boolean isBatch = args.length > 0 && new File(args[0]).isDirectory();
+    if (args.length != 2 && !(isBatch && args.length == 3)) {
       log.error("Missing Java input file or output file or both on command line");
       System.out.println("usage: java ConstantFolding <input file> <output file>");
+      System.out.println(
+          "       java ConstantFolding <input directory> <output directory> [cache directory]");
       System.exit(1);
     }
 
-    File inputFile = new File(args[0]);
-    ASTNode compilationUnit = JavaSourceUtils.getCompilationUnit(inputFile.toURI());
-    compilationUnit = fold(compilationUnit);
+    Metrics.configureFromSystemProperties();
+    if (isBatch) {
+      runBatch(Path.of(args[0]), Path.of(args[1]), (args.length == 3) ? Path.of(args[2]) : null);
+      return;
+    }
+
+    try {
+      SourceFile file = SourceFile.read(Path.of(args[0]));
+      fold(file.getRoot());
+      file.write(Path.of(args[1]));
+    } catch (Exception e) {
+      e.printStackTrace();
+    }
+  }
 
+  private static void runBatch(Path inputDirectory, Path outputDirectory, Path cacheDirectory) {
     try {
-      PrintWriter writer = new PrintWriter(args[1], "UTF-8");
-      writer.print(compilationUnit.toString());
-      writer.close();
+      OutputCache cache = (cacheDirectory == null) ? null
+          : OutputCache.open(cacheDirectory, getConfiguration(), OutputCache.DEFAULT_MAX_BYTES);
+      BatchRunner runner = new BatchRunner(ConstantFolding::fold,
+          Runtime.getRuntime().availableProcessors(), cache);
+      BatchRunner.Summary summary = runner.run(inputDirectory, outputDirectory);
+      System.out.println(summary);
+      if (!summary.getFailures().isEmpty()) {
+        System.exit(1);
+      }
     } catch (Exception e) {
       e.printStackTrace();
     }
@@ -4,4 +4,21 @@ import org.eclipse.jdt.core.dom.ASTNode;
 
 public interface Folding {
   public boolean fold(final ASTNode root);
+
+  /**
+   * Folds the tree and reports each rewrite to the listener.
+   * 
+   * <p>Implementations that cannot say where they rewrote report the root.
+   * 
+   * @param root the root of the tree to traverse.
+   * @param listener receives the parent of every rewrite.
+   * @return true if the rooted tree was changed.
+   */
+  public default boolean fold(final ASTNode root, final FoldingListener listener) {
+    boolean didFold = fold(root);
+    if (didFold) {
+      listener.didReplace(root);
+    }
+    return didFold;
+  }
 }
@@ -0,0 +1,236 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.metrics.Counter;
+import edu.byu.cs329.metrics.Metrics;
+import edu.byu.cs329.metrics.Timer;
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies a list of foldings until nothing changes, revisiting only the
+ * regions of the tree that were rewritten in the previous round.
+ *
+ * <p>A region is the nearest statement or method declaration enclosing a
+ * rewrite. The first round folds the whole tree. Every rewrite records the
+ * chain of regions above the rewritten node, and the next round folds the
+ * innermost region in that chain that is still attached to the tree.
+ */
+public class FoldingFixpoint {
+  static final Logger log = LoggerFactory.getLogger(FoldingFixpoint.class);
+
+  static final Timer FIXPOINT_TIME = Metrics.timer("fold.fixpoint");
+  static final Counter ROUNDS = Metrics.counter("fold.fixpoint.rounds");
+  static final Counter REGIONS = Metrics.counter("fold.fixpoint.regions");
+
+  /**
+   * Counts the work done by one run of the fixpoint.
+   */
+  public static class Statistics {
+    private int rounds = 0;
+    private int regionsVisited = 0;
+    private int rewrites = 0;
+    private long nodesVisited = 0;
+
+    public int getRounds() {
+      return rounds;
+    }
+
+    public int getRegionsVisited() {
+      return regionsVisited;
+    }
+
+    public int getRewrites() {
+      return rewrites;
+    }
+
+    public long getNodesVisited() {
+      return nodesVisited;
+    }
+
+    @Override
+    public String toString() {
+      return "rounds=" + rounds + " regions=" + regionsVisited
+          + " rewrites=" + rewrites + " nodesVisited=" + nodesVisited;
+    }
+  }
+
+  /**
+   * The regions enclosing one rewrite, innermost first.
+   */
+  static class Region {
+    final List<ASTNode> chain;
+
+    Region(final List<ASTNode> chain) {
+      this.chain = chain;
+    }
+
+    /**
+     * Finds the innermost region still in the tree.
+     *
+     * @param root the root of the tree.
+     * @return the innermost attached region, otherwise root.
+     */
+    ASTNode resolve(final ASTNode root) {
+      for (ASTNode node : chain) {
+        if (isAttached(node, root)) {
+          return node;
+        }
+      }
+      return root;
+    }
+  }
+
+  class Recorder implements FoldingListener {
+    final FoldingListener listener;
+    List<Region> dirty = new ArrayList<Region>();
+
+    Recorder(final FoldingListener listener) {
+      this.listener = listener;
+    }
+
+    @Override
+    public void didReplace(final ASTNode parent) {
+      ++statistics.rewrites;
+      dirty.add(new Region(getRegionChain(parent)));
+      listener.didReplace(parent);
+    }
+
+    @Override
+    public void didReplaceStatement(final Statement original, final Statement replacement) {
+      listener.didReplaceStatement(original, replacement);
+    }
+
+    @Override
+    public void didSpliceBlock(final Block block, final List<Statement> statements) {
+      listener.didSpliceBlock(block, statements);
+    }
+
+    @Override
+    public void didVisit(final int nodesVisited) {
+      statistics.nodesVisited += nodesVisited;
+      listener.didVisit(nodesVisited);
+    }
+  }
+
+  private final List<Folding> foldingList;
+  private Statistics statistics = null;
+
+  /**
+   * Creates a fixpoint over the given foldings.
+   *
+   * @param foldingList the foldings applied to each region in order.
+   */
+  public FoldingFixpoint(final List<Folding> foldingList) {
+    this.foldingList = foldingList;
+  }
+
+  /**
+   * Folds the tree until no folding changes it.
+   *
+   * @requires root != null
+   *
+   * @ensures no folding in the list changes root
+   *
+   * @param root the root of the tree to fold.
+   * @return the work done to reach the fixpoint.
+   */
+  public Statistics run(final ASTNode root) {
+    return run(root, FoldingListener.NONE);
+  }
+
+  /**
+   * Folds the tree until no folding changes it, passing every event on.
+   *
+   * @requires root != null /\ listener != null
+   *
+   * @ensures no folding in the list changes root
+   *
+   * @param root the root of the tree to fold.
+   * @param listener receives the events of every fold.
+   * @return the work done to reach the fixpoint.
+   */
+  public Statistics run(final ASTNode root, final FoldingListener listener) {
+    ExceptionUtils.requiresNonNull(root, "Null root passed to FoldingFixpoint.run");
+    ExceptionUtils.requiresNonNull(listener, "Null listener passed to FoldingFixpoint.run");
+    long start = System.nanoTime();
+    statistics = new Statistics();
+    List<Region> worklist = new ArrayList<Region>();
+    worklist.add(new Region(List.of(root)));
+
+    while (!worklist.isEmpty()) {
+      ++statistics.rounds;
+      Recorder recorder = new Recorder(listener);
+      for (Region region : getOutermostRegions(worklist, root)) {
+        ++statistics.regionsVisited;
+        for (Folding folding : foldingList) {
+          folding.fold(region.resolve(root), recorder);
+        }
+      }
+      worklist = recorder.dirty;
+    }
+
+    if (Metrics.isEnabled()) {
+      FIXPOINT_TIME.record(System.nanoTime() - start);
+      ROUNDS.add(statistics.rounds);
+      REGIONS.add(statistics.regionsVisited);
+    }
+    log.debug("Folding fixpoint: " + statistics);
+    return statistics;
+  }
+
+  private List<Region> getOutermostRegions(final List<Region> worklist, final ASTNode root) {
+    Set<ASTNode> nodes = new LinkedHashSet<ASTNode>();
+    for (Region region : worklist) {
+      nodes.add(region.resolve(root));
+    }
+
+    List<Region> regions = new ArrayList<Region>();
+    for (ASTNode node : nodes) {
+      if (!hasAncestorIn(node, nodes)) {
+        regions.add(new Region(getRegionChain(node)));
+      }
+    }
+    return regions;
+  }
+
+  private static boolean hasAncestorIn(final ASTNode node, final Set<ASTNode> nodes) {
+    for (ASTNode n = node.getParent(); n != null; n = n.getParent()) {
+      if (nodes.contains(n)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<ASTNode> getRegionChain(final ASTNode node) {
+    List<ASTNode> chain = new ArrayList<ASTNode>();
+    for (ASTNode n = node; n != null; n = n.getParent()) {
+      if (isRegion(n) || n.getParent() == null) {
+        chain.add(n);
+      }
+    }
+    return chain;
+  }
+
+  private static boolean isRegion(final ASTNode node) {
+    return (node instanceof Statement) || (node instanceof MethodDeclaration);
+  }
+
+  static boolean isAttached(final ASTNode node, final ASTNode root) {
+    for (ASTNode n = node; n != null; n = n.getParent()) {
+      if (n == root) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
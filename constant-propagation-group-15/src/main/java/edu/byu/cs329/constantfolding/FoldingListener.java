@@ -0,0 +1,55 @@
+package edu.byu.cs329.constantfolding;
+
+import java.util.List;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Receives notice of the work done by a {@link Folding}.
+ *
+ * <p>Besides the generic {@link #didReplace}, foldings that change control
+ * flow report what they did to statements, so a control flow graph can be
+ * patched instead of rebuilt.
+ */
+public interface FoldingListener {
+  public static final FoldingListener NONE = new FoldingListener() {};
+
+  /**
+   * Called after a fold replaces or removes a child of parent.
+   * 
+   * @param parent the node that held the replaced or removed child.
+   */
+  public default void didReplace(final ASTNode parent) {
+  }
+
+  /**
+   * Called after a fold replaces a statement with a statement it contained,
+   * or removes it, and before {@link #didReplace} for the same fold.
+   * 
+   * @param original the statement taken out of the tree.
+   * @param replacement the former descendant of original now in its place,
+   *     or null if original was removed.
+   */
+  public default void didReplaceStatement(final Statement original,
+      final Statement replacement) {
+  }
+
+  /**
+   * Called after a fold moves the statements of a nested block into its
+   * parent block in place of the nested block.
+   * 
+   * @param block the nested block, now detached and empty.
+   * @param statements the moved statements in order.
+   */
+  public default void didSpliceBlock(final Block block, final List<Statement> statements) {
+  }
+
+  /**
+   * Called once at the end of a fold with the number of nodes it visited.
+   * 
+   * @param nodesVisited the number of nodes visited by the fold.
+   */
+  public default void didVisit(final int nodesVisited) {
+  }
+}
@@ -0,0 +1,28 @@
+package edu.byu.cs329.constantfolding;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+
+/**
+ * A folding that rewrites a single node once its children are folded.
+ */
+public interface FoldingRule {
+  /**
+   * Gets the node types this rule can fold.
+   * 
+   * @return the {@link ASTNode#getNodeType()} values the rule applies to.
+   */
+  public int[] getNodeTypes();
+
+  /**
+   * Folds the node if the rule applies to it.
+   * 
+   * @requires node != null
+   * @requires node.getNodeType() \in getNodeTypes()
+   * @requires node.getParent() != null
+   * 
+   * @param node the node to fold.
+   * @param listener receives the parent of every rewrite.
+   * @return true if the node was rewritten, replaced or removed.
+   */
+  public boolean foldNode(final ASTNode node, final FoldingListener listener);
+}
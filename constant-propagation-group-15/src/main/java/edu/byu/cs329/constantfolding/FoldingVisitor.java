@@ -0,0 +1,109 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.metrics.Counter;
+import edu.byu.cs329.metrics.Events;
+import edu.byu.cs329.metrics.FoldEvent;
+import edu.byu.cs329.metrics.Metrics;
+import edu.byu.cs329.metrics.Timer;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+
+/**
+ * Common state for the visitors that implement each {@link Folding}.
+ */
+abstract class FoldingVisitor extends ASTVisitor {
+  static final Counter NODES_VISITED = Metrics.counter("fold.nodesVisited");
+  static final ClassValue<RuleMetrics> RULE_METRICS = new ClassValue<RuleMetrics>() {
+    @Override
+    protected RuleMetrics computeValue(Class<?> type) {
+      return new RuleMetrics(type);
+    }
+  };
+
+  /**
+   * The metrics of every rule of one class.
+   */
+  static final class RuleMetrics {
+    final Timer time;
+    final Counter nodes;
+    final Counter folds;
+
+    RuleMetrics(final Class<?> type) {
+      String name = "fold.rule." + type.getSimpleName();
+      time = Metrics.timer(name);
+      nodes = Metrics.counter(name + ".nodes");
+      folds = Metrics.counter(name + ".folds");
+    }
+  }
+
+  public boolean didFold = false;
+  int nodesVisited = 0;
+  final FoldingListener listener;
+
+  FoldingVisitor(final FoldingListener listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public boolean preVisit2(ASTNode node) {
+    ++nodesVisited;
+    return true;
+  }
+
+  /**
+   * Applies the rule to the node and records if it folded.
+   * 
+   * @param rule the rule to apply.
+   * @param node a node of a type the rule applies to.
+   * @return true if the node was rewritten.
+   */
+  boolean apply(final FoldingRule rule, final ASTNode node) {
+    if (Metrics.isEnabled()) {
+      return applyMeasured(rule, node);
+    }
+    boolean didFoldNode = rule.foldNode(node, listener);
+    didFold = didFold || didFoldNode;
+    return didFoldNode;
+  }
+
+  private boolean applyMeasured(final FoldingRule rule, final ASTNode node) {
+    RuleMetrics metrics = RULE_METRICS.get(rule.getClass());
+    long start = System.nanoTime();
+    boolean didFoldNode = rule.foldNode(node, listener);
+    metrics.time.record(System.nanoTime() - start);
+    metrics.nodes.increment();
+    if (didFoldNode) {
+      metrics.folds.increment();
+    }
+    didFold = didFold || didFoldNode;
+    return didFoldNode;
+  }
+
+  /**
+   * Visits the tree at root and reports the number of visited nodes.
+   * 
+   * @param root the root of the tree to traverse.
+   * @return true if any node was rewritten.
+   */
+  boolean foldFrom(final ASTNode root) {
+    FoldEvent event = new FoldEvent();
+    if (event.isEnabled()) {
+      event.file = Events.fileOf(root);
+      event.method = Events.methodOf(root);
+      event.begin();
+    }
+    root.accept(this);
+    if (Metrics.isEnabled()) {
+      NODES_VISITED.add(nodesVisited);
+    }
+    if (event.shouldCommit()) {
+      Class<?> folding = getClass().getEnclosingClass();
+      event.folding = ((folding == null) ? getClass() : folding).getSimpleName();
+      event.nodesVisited = nodesVisited;
+      event.folded = didFold;
+      event.commit();
+    }
+    listener.didVisit(nodesVisited);
+    return didFold;
+  }
+}
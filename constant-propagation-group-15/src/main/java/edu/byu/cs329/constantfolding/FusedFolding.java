@@ -0,0 +1,104 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+/**
+ * Applies several folding rules in one post-order traversal.
+ *
+ * <p>Each node is dispatched on {@link ASTNode#getNodeType()} to the rules
+ * registered for that type once all of its children are folded. A nested
+ * expression such as <code>!(1 &lt; (2 + 3))</code> therefore folds
+ * completely in a single pass.
+ */
+public class FusedFolding implements Folding {
+  private static final FoldingRule[] NO_RULES = new FoldingRule[0];
+
+  private final FoldingRule[][] ruleTable;
+
+  class Visitor extends FoldingVisitor {
+    Visitor(final FoldingListener listener) {
+      super(listener);
+    }
+
+    @Override
+    public void postVisit(ASTNode node) {
+      int nodeType = node.getNodeType();
+      if (nodeType >= ruleTable.length) {
+        return;
+      }
+      for (FoldingRule rule : ruleTable[nodeType]) {
+        if (apply(rule, node)) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates a fused folding from the rules.
+   *
+   * <p>Rules for the same node type are tried in the order given until
+   * one of them rewrites the node.
+   *
+   * @param ruleList the rules to apply.
+   */
+  public FusedFolding(final List<FoldingRule> ruleList) {
+    int maxNodeType = 0;
+    for (FoldingRule rule : ruleList) {
+      for (int nodeType : rule.getNodeTypes()) {
+        maxNodeType = Math.max(maxNodeType, nodeType);
+      }
+    }
+
+    List<List<FoldingRule>> rulesByType = new ArrayList<List<FoldingRule>>();
+    for (int i = 0; i <= maxNodeType; ++i) {
+      rulesByType.add(new ArrayList<FoldingRule>());
+    }
+    for (FoldingRule rule : ruleList) {
+      for (int nodeType : rule.getNodeTypes()) {
+        rulesByType.get(nodeType).add(rule);
+      }
+    }
+
+    ruleTable = new FoldingRule[maxNodeType + 1][];
+    for (int i = 0; i <= maxNodeType; ++i) {
+      ruleTable[i] = rulesByType.get(i).toArray(NO_RULES);
+    }
+  }
+
+  /**
+   * Folds every node reachable from root bottom-up in one traversal.
+   *
+   * @requires root != null
+   * @requires (root instanceof CompilationUnit) \/ parent(root) != null
+   *
+   * @ensures fold(root) == some rule rewrote a node in the rooted tree
+   *
+   * @param root the root of the tree to traverse.
+   * @return true if any rule rewrote a node.
+   */
+  @Override
+  public boolean fold(final ASTNode root) {
+    return fold(root, FoldingListener.NONE);
+  }
+
+  @Override
+  public boolean fold(final ASTNode root, final FoldingListener listener) {
+    checkRequires(root);
+    Visitor visitor = new Visitor(listener);
+    return visitor.foldFrom(root);
+  }
+
+  private void checkRequires(final ASTNode root) {
+    ExceptionUtils.requiresNonNull(root, "Null root passed to FusedFolding.fold");
+
+    if (!(root instanceof CompilationUnit) && root.getParent() == null) {
+      ExceptionUtils.throwRuntimeException(
+          "Non-CompilationUnit root with no parent passed to FusedFolding.fold");
+    }
+  }
+}
@@ -1,10 +1,7 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.Expression;
@@ -19,42 +16,18 @@ import org.slf4j.LoggerFactory;
  * @author Ben Millett
  * @author Caleb Sly
  */
-public class IfStatementFolding implements Folding {
+public class IfStatementFolding implements Folding, FoldingRule {
   static final Logger log = LoggerFactory.getLogger(IfStatementFolding.class);
 
-  class Visitor extends ASTVisitor {
-    public boolean didFold = false;
+  class Visitor extends FoldingVisitor {
+    Visitor(final FoldingListener listener) {
+      super(listener);
+    }
 
-    /**
-     * Folds if statements with boolean predicates.
-     * 
-     * @param node IfStatement node to potentially fold
-     */
     @Override
     public void endVisit(IfStatement node) {
-      Expression exp = node.getExpression();
-      if (!(exp instanceof BooleanLiteral)) {
-        return;
-      }
-      boolean predicate = ((BooleanLiteral) exp).booleanValue();
-      AST ast = node.getAST();
-      ASTNode newExp;
-      if (predicate) {
-        newExp = ASTNode.copySubtree(ast, node.getThenStatement());
-      } else {
-        Statement elseStatement = node.getElseStatement();
-        if (elseStatement == null) {
-          TreeModificationUtils.removeChildInParent(node);
-          didFold = true;
-          return;
-        }
-        newExp = ASTNode.copySubtree(ast, node.getElseStatement());
-      }
-      TreeModificationUtils.replaceChildInParent(node, newExp);
-      didFold = true;
-
+      apply(IfStatementFolding.this, node);
     }
-
   }
 
   public IfStatementFolding() {
@@ -96,8 +69,7 @@ public class IfStatementFolding implements Folding {
    *             if executedStatement(n) == null
    *                children(parent(n')) == (children(parent(n)) setminus {n})
    *             else
-   *                fresh(n')
-*                   /\ value(n') == value(executedStatement(n))
+   *                n' == old(executedStatement(n))
    *                /\ parent(n') == parent(n)
    *                /\ children(parent(n')) == (children(parent(n)) setminus {n}) union {n'}
    *   
@@ -105,12 +77,65 @@ public class IfStatementFolding implements Folding {
    * @return true if if statements with boolean predicates were replaced in the rooted tree
    */
   public boolean fold(final ASTNode root) {
+    return fold(root, FoldingListener.NONE);
+  }
+
+  @Override
+  public boolean fold(final ASTNode root, final FoldingListener listener) {
     checkRequires(root);
-    Visitor visitor = new Visitor();
-    root.accept(visitor);
+    ASTNode parent = root.getParent();
+    Visitor visitor = new Visitor(listener);
+    boolean didFold = visitor.foldFrom(root);
+    ASTNode blockRoot = root;
+    if (parent != null && root.getParent() == null) {
+      blockRoot = parent;
+    }
     BlockFolding blockFolding = new BlockFolding();
-    blockFolding.fold(root);
-    return visitor.didFold;
+    blockFolding.fold(blockRoot, listener);
+    return didFold;
+  }
+
+  @Override
+  public int[] getNodeTypes() {
+    return new int[] {ASTNode.IF_STATEMENT};
+  }
+
+  /**
+   * Folds if statements with boolean predicates.
+   * 
+   * @param node IfStatement node to potentially fold
+   * @param listener receives the parent of the node if it is folded
+   * @return true if the node was folded
+   */
+  @Override
+  public boolean foldNode(final ASTNode node, final FoldingListener listener) {
+    return foldIfStatement((IfStatement) node, listener);
+  }
+
+  private boolean foldIfStatement(IfStatement node, FoldingListener listener) {
+    Expression exp = node.getExpression();
+    if (!(exp instanceof BooleanLiteral)) {
+      return false;
+    }
+    boolean predicate = ((BooleanLiteral) exp).booleanValue();
+    Statement executedStatement;
+    if (predicate) {
+      executedStatement = node.getThenStatement();
+    } else {
+      executedStatement = node.getElseStatement();
+      if (executedStatement == null) {
+        ASTNode parent = node.getParent();
+        NodeRelocation.detach(node);
+        listener.didReplaceStatement(node, null);
+        listener.didReplace(parent);
+        return true;
+      }
+    }
+    ASTNode parent = node.getParent();
+    NodeRelocation.replaceWithDescendant(node, executedStatement);
+    listener.didReplaceStatement(node, executedStatement);
+    listener.didReplace(parent);
+    return true;
   }
 
   private void checkRequires(final ASTNode root) {
@@ -1,15 +1,12 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.InfixExpression;
 import org.eclipse.jdt.core.dom.InfixExpression.Operator;
-import org.eclipse.jdt.core.dom.NumberLiteral;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,45 +16,18 @@ import org.slf4j.LoggerFactory;
  * @author Ben Millett
  * @author Caleb Sly
  */
-public class InfixExpressionLessThanFolding implements Folding {
+public class InfixExpressionLessThanFolding implements Folding, FoldingRule {
   static final Logger log = LoggerFactory.getLogger(InfixExpressionLessThanFolding.class);
   
-  class Visitor extends ASTVisitor {
-    public boolean didFold = false;
+  class Visitor extends FoldingVisitor {
+    Visitor(final FoldingListener listener) {
+      super(listener);
+    }
 
-    /**
-     * Folds infix expressions with < operator.
-     * 
-     * @param node InfixExpression node to potentially fold
-     */
     @Override
     public void endVisit(InfixExpression node) {
-      Operator operator = node.getOperator();
-      if (operator != InfixExpression.Operator.LESS) {
-        return;
-      }
-
-      Expression lhs = node.getLeftOperand();
-      if (!(lhs instanceof NumberLiteral)) {
-        return;
-      }
-
-      Expression rhs = node.getRightOperand();
-      if (!(rhs instanceof NumberLiteral)) {
-        return;
-      }
-
-      int left = Integer.decode(((NumberLiteral)lhs).getToken());
-      int right = Integer.decode(((NumberLiteral)rhs).getToken());
-      boolean literal = (left < right);
-
-
-      AST ast = node.getAST();
-      ASTNode newExp = ast.newBooleanLiteral(literal);
-      TreeModificationUtils.replaceChildInParent(node, newExp);
-      didFold = true;
+      apply(InfixExpressionLessThanFolding.this, node);
     }
-    
   }
 
   public InfixExpressionLessThanFolding() {
@@ -87,7 +57,8 @@ public class InfixExpressionLessThanFolding implements Folding {
    * 
    * @requires root != null
    * @requires (root instanceof CompilationUnit) \/ parent(root) != null
-   * @requires for all n in old(top), isInt(leftHandOperand(n)) /\ isInt(rightHandOperand(n))
+   * @requires for all n in old(top), (isInt(leftHandOperand(n)) \/ isLong(leftHandOperand(n)))
+   *     /\ (isInt(rightHandOperand(n)) \/ isLong(rightHandOperand(n)))
    * 
    * @ensures fold(root) == (old(top) != emptyset)
    * @ensures forall n in old(top), exists n' in nodes 
@@ -101,10 +72,58 @@ public class InfixExpressionLessThanFolding implements Folding {
    * @return true if infix expressions were replaced in the rooted tree
    */
   public boolean fold(final ASTNode root) {
+    return fold(root, FoldingListener.NONE);
+  }
+
+  @Override
+  public boolean fold(final ASTNode root, final FoldingListener listener) {
     checkRequires(root);
-    Visitor visitor = new Visitor();
-    root.accept(visitor);
-    return visitor.didFold;
+    Visitor visitor = new Visitor(listener);
+    return visitor.foldFrom(root);
+  }
+
+  @Override
+  public int[] getNodeTypes() {
+    return new int[] {ASTNode.INFIX_EXPRESSION};
+  }
+
+  /**
+   * Folds infix expressions with < operator.
+   * 
+   * @param node InfixExpression node to potentially fold
+   * @param listener receives the parent of the node if it is folded
+   * @return true if the node was folded
+   */
+  @Override
+  public boolean foldNode(final ASTNode node, final FoldingListener listener) {
+    return foldInfixExpression((InfixExpression) node, listener);
+  }
+
+  private boolean foldInfixExpression(InfixExpression node, FoldingListener listener) {
+    Operator operator = node.getOperator();
+    if (operator != InfixExpression.Operator.LESS) {
+      return false;
+    }
+
+    Expression lhs = node.getLeftOperand();
+    if (!ConstantEvaluator.isNumber(lhs)) {
+      return false;
+    }
+
+    Expression rhs = node.getRightOperand();
+    if (!ConstantEvaluator.isNumber(rhs)) {
+      return false;
+    }
+
+    int kind = ConstantEvaluator.getOperandKind(node);
+    long literal = ConstantEvaluator.evaluate(node, kind);
+
+    AST ast = node.getAST();
+    ASTNode newExp = ConstantEvaluator.newLiteral(ast, ConstantEvaluator.BOOLEAN, literal);
+    ASTNode parent = node.getParent();
+    NodeRelocation.replace(node, newExp);
+    listener.didReplace(parent);
+    return true;
   }
 
   private void checkRequires(final ASTNode root) {
@@ -1,17 +1,13 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
-import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.InfixExpression;
 import org.eclipse.jdt.core.dom.InfixExpression.Operator;
-import org.eclipse.jdt.core.dom.NumberLiteral;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,59 +17,18 @@ import org.slf4j.LoggerFactory;
  * @author Ben Millett
  * @author Caleb Sly
  */
-public class InfixExpressionPlusFolding implements Folding {
+public class InfixExpressionPlusFolding implements Folding, FoldingRule {
   static final Logger log = LoggerFactory.getLogger(InfixExpressionPlusFolding.class);
   
-  class Visitor extends ASTVisitor {
-    public boolean didFold = false;
+  class Visitor extends FoldingVisitor {
+    Visitor(final FoldingListener listener) {
+      super(listener);
+    }
 
-    /**
-     * Folds infix expressions with + operator.
-     * 
-     * @param node InfixExpression node to potentially fold
-     */
     @Override
     public void endVisit(InfixExpression node) {
-      Operator operator = node.getOperator();
-      if (operator != InfixExpression.Operator.PLUS) {
-        return;
-      }
-
-      Expression lhs = node.getLeftOperand();
-      if (!(lhs instanceof NumberLiteral)) {
-        return;
-      }
-
-      Expression rhs = node.getRightOperand();
-      if (!(rhs instanceof NumberLiteral)) {
-        return;
-      }
-
-      for (Object operand : node.extendedOperands()) {
-        Expression expOperand = (Expression) operand;
-        if (!(expOperand instanceof NumberLiteral)) {
-          return;
-        }
-      }
-
-      List<Integer> operands = new ArrayList<>();
-      for (Object operand : node.extendedOperands()) {
-        NumberLiteral expOperand = (NumberLiteral) operand;
-        operands.add(Integer.decode(expOperand.getToken()));
-      }
-      operands.add(Integer.decode(((NumberLiteral)lhs).getToken()));
-      operands.add(Integer.decode(((NumberLiteral)rhs).getToken()));
-      Integer literal = 0;
-      for (int operand : operands) {
-        literal += operand;
-      }
-
-      AST ast = node.getAST();
-      ASTNode newExp = ast.newNumberLiteral(literal.toString());
-      TreeModificationUtils.replaceChildInParent(node, newExp);
-      didFold = true;
+      apply(InfixExpressionPlusFolding.this, node);
     }
-    
   }
 
   public InfixExpressionPlusFolding() {
@@ -104,14 +59,18 @@ public class InfixExpressionPlusFolding implements Folding {
    * <p>operands(n) := leftHandOperand(n) union rightHandOperand(n) union
    *                   extendedOperands(n)
    * 
+   * <p>isNumberLiteral(o) := o is a number literal or a minus applied to one
+   * 
    * <p>sum(list) := for all i in list
    *                    total += toInt(i)
+   *                 in long if some i is long and otherwise in int,
+   *                 wrapping on overflow as Java does
    * 
    * @modifies nodes in parents
    * 
    * @requires root != null
    * @requires (root instanceof CompilationUnit) \/ parent(root) != null
-   * @requires for all n in old(top), for all o in operands(n), isInt(o)
+   * @requires for all n in old(top), for all o in operands(n), isInt(o) \/ isLong(o)
    * 
    * @ensures fold(root) == (old(top) != emptyset)
    * @ensures forall n in old(top), exists n' in nodes 
@@ -125,10 +84,65 @@ public class InfixExpressionPlusFolding implements Folding {
    * @return true if infix expressions were replaced in the rooted tree
    */
   public boolean fold(final ASTNode root) {
+    return fold(root, FoldingListener.NONE);
+  }
+
+  @Override
+  public boolean fold(final ASTNode root, final FoldingListener listener) {
     checkRequires(root);
-    Visitor visitor = new Visitor();
-    root.accept(visitor);
-    return visitor.didFold;
+    Visitor visitor = new Visitor(listener);
+    return visitor.foldFrom(root);
+  }
+
+  @Override
+  public int[] getNodeTypes() {
+    return new int[] {ASTNode.INFIX_EXPRESSION};
+  }
+
+  /**
+   * Folds infix expressions with + operator.
+   * 
+   * @param node InfixExpression node to potentially fold
+   * @param listener receives the parent of the node if it is folded
+   * @return true if the node was folded
+   */
+  @Override
+  public boolean foldNode(final ASTNode node, final FoldingListener listener) {
+    return foldInfixExpression((InfixExpression) node, listener);
+  }
+
+  private boolean foldInfixExpression(InfixExpression node, FoldingListener listener) {
+    Operator operator = node.getOperator();
+    if (operator != InfixExpression.Operator.PLUS) {
+      return false;
+    }
+
+    Expression lhs = node.getLeftOperand();
+    if (!ConstantEvaluator.isNumber(lhs)) {
+      return false;
+    }
+
+    Expression rhs = node.getRightOperand();
+    if (!ConstantEvaluator.isNumber(rhs)) {
+      return false;
+    }
+
+    List<?> extendedOperands = node.extendedOperands();
+    for (int i = 0; i < extendedOperands.size(); ++i) {
+      if (!ConstantEvaluator.isNumber((Expression) extendedOperands.get(i))) {
+        return false;
+      }
+    }
+
+    int kind = ConstantEvaluator.getOperandKind(node);
+    long literal = ConstantEvaluator.evaluate(node, kind);
+
+    AST ast = node.getAST();
+    ASTNode newExp = ConstantEvaluator.newLiteral(ast, kind, literal);
+    ASTNode parent = node.getParent();
+    NodeRelocation.replace(node, newExp);
+    listener.didReplace(parent);
+    return true;
   }
 
   private void checkRequires(final ASTNode root) {
@@ -1,10 +1,8 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.Expression;
@@ -19,36 +17,18 @@ import org.slf4j.LoggerFactory;
  * @author Ben Millett
  * @author Caleb Sly
  */
-public class LogicalNotPrefixExpressionFolding implements Folding {
+public class LogicalNotPrefixExpressionFolding implements Folding, FoldingRule {
   static final Logger log = LoggerFactory.getLogger(LogicalNotPrefixExpressionFolding.class);
 
-  class Visitor extends ASTVisitor {
-    public boolean didFold = false;
+  class Visitor extends FoldingVisitor {
+    Visitor(final FoldingListener listener) {
+      super(listener);
+    }
 
-    /**
-     * Folds prefix expressions with ! operator.
-     * 
-     * @param node PrefixExpression node to potentially fold
-     */
     @Override
     public void endVisit(PrefixExpression node) {
-      Operator operator = node.getOperator();
-      if (operator != PrefixExpression.Operator.NOT) {
-        return;
-      }
-
-      Expression exp = node.getOperand();
-      if (!(exp instanceof BooleanLiteral)) {
-        return;
-      }
-      boolean literal = !((BooleanLiteral) exp).booleanValue();
-
-      AST ast = node.getAST();
-      ASTNode newExp = ast.newBooleanLiteral(literal);
-      TreeModificationUtils.replaceChildInParent(node, newExp);
-      didFold = true;
+      apply(LogicalNotPrefixExpressionFolding.this, node);
     }
-
   }
 
   /**
@@ -86,11 +66,52 @@ public class LogicalNotPrefixExpressionFolding implements Folding {
    * @return true if prefix expressions were replaced in the rooted tree
    */
   @Override
-  public boolean fold(ASTNode root) {
+  public boolean fold(final ASTNode root) {
+    return fold(root, FoldingListener.NONE);
+  }
+
+  @Override
+  public boolean fold(final ASTNode root, final FoldingListener listener) {
     checkRequires(root);
-    Visitor visitor = new Visitor();
-    root.accept(visitor);
-    return visitor.didFold;
+    Visitor visitor = new Visitor(listener);
+    return visitor.foldFrom(root);
+  }
+
+  @Override
+  public int[] getNodeTypes() {
+    return new int[] {ASTNode.PREFIX_EXPRESSION};
+  }
+
+  /**
+   * Folds prefix expressions with ! operator.
+   * 
+   * @param node PrefixExpression node to potentially fold
+   * @param listener receives the parent of the node if it is folded
+   * @return true if the node was folded
+   */
+  @Override
+  public boolean foldNode(final ASTNode node, final FoldingListener listener) {
+    return foldPrefixExpression((PrefixExpression) node, listener);
+  }
+
+  private boolean foldPrefixExpression(PrefixExpression node, FoldingListener listener) {
+    Operator operator = node.getOperator();
+    if (operator != PrefixExpression.Operator.NOT) {
+      return false;
+    }
+
+    Expression exp = node.getOperand();
+    if (!(exp instanceof BooleanLiteral)) {
+      return false;
+    }
+    boolean literal = !((BooleanLiteral) exp).booleanValue();
+
+    AST ast = node.getAST();
+    ASTNode newExp = ast.newBooleanLiteral(literal);
+    ASTNode parent = node.getParent();
+    NodeRelocation.replace(node, newExp);
+    listener.didReplace(parent);
+    return true;
   }
 
   private void checkRequires(final ASTNode root) {
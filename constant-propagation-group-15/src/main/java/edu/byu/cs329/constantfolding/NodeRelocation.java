@@ -0,0 +1,119 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.List;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ChildPropertyDescriptor;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+
+/**
+ * Moves subtrees around the tree without copying them.
+ *
+ * <p>A node in the DOM can have only one parent, so promoting a child
+ * over its parent first detaches the child. A mandatory slot left behind
+ * is filled with a single placeholder node rather than a copy of the
+ * subtree, and the placeholder is discarded with the old parent.
+ */
+public final class NodeRelocation {
+
+  private NodeRelocation() {
+  }
+
+  /**
+   * Replaces node in its parent with the descendant, moving the descendant.
+   *
+   * @requires node != null /\ node.getParent() != null
+   * @requires descendant != null /\ descendant is a proper descendant of node
+   *
+   * @ensures parent(descendant) = old(parent(node))
+   * @ensures node.getParent() == null
+   *
+   * @param node the node to replace.
+   * @param descendant the subtree to move into the place of node.
+   */
+  public static void replaceWithDescendant(final ASTNode node, final ASTNode descendant) {
+    ExceptionUtils.requiresNonNull(descendant, "Null descendant passed to NodeRelocation");
+    detach(descendant);
+    replace(node, descendant);
+  }
+
+  /**
+   * Replaces node in its parent with an unparented replacement.
+   *
+   * @requires node != null /\ node.getParent() != null
+   * @requires replacement != null /\ replacement.getParent() == null
+   *
+   * @ensures parent(replacement) = old(parent(node))
+   * @ensures node.getParent() == null
+   *
+   * @param node the node to replace.
+   * @param replacement the node to put in its place.
+   */
+  public static void replace(final ASTNode node, final ASTNode replacement) {
+    checkRequires(node);
+    StructuralPropertyDescriptor location = node.getLocationInParent();
+    ASTNode parent = node.getParent();
+    if (location.isChildListProperty()) {
+      List<ASTNode> list = getNodeList(parent.getStructuralProperty(location));
+      list.set(list.indexOf(node), replacement);
+      return;
+    }
+    parent.setStructuralProperty(location, replacement);
+  }
+
+  /**
+   * Removes node from its parent.
+   *
+   * <p>A node in a list or optional slot is removed outright. A node in a
+   * mandatory slot is replaced with a placeholder.
+   *
+   * @requires node != null /\ node.getParent() != null
+   *
+   * @ensures node.getParent() == null
+   *
+   * @param node the node to remove.
+   */
+  public static void detach(final ASTNode node) {
+    checkRequires(node);
+    StructuralPropertyDescriptor location = node.getLocationInParent();
+    ASTNode parent = node.getParent();
+    if (location.isChildListProperty()) {
+      getNodeList(parent.getStructuralProperty(location)).remove(node);
+      return;
+    }
+    if (!((ChildPropertyDescriptor) location).isMandatory()) {
+      parent.setStructuralProperty(location, null);
+      return;
+    }
+    parent.setStructuralProperty(location, newPlaceholder(node));
+  }
+
+  private static ASTNode newPlaceholder(final ASTNode node) {
+    AST ast = node.getAST();
+    if (node instanceof Expression) {
+      return ast.newNullLiteral();
+    }
+    if (node instanceof Statement) {
+      return ast.newEmptyStatement();
+    }
+    ExceptionUtils.throwRuntimeException(
+        "No placeholder for " + node.getClass().getSimpleName() + " in NodeRelocation");
+    return null;
+  }
+
+  private static void checkRequires(final ASTNode node) {
+    ExceptionUtils.requiresNonNull(node, "Null node passed to NodeRelocation");
+    if (node.getParent() == null) {
+      ExceptionUtils.throwRuntimeException("Node with no parent passed to NodeRelocation");
+    }
+  }
+
+  private static List<ASTNode> getNodeList(Object list) {
+    @SuppressWarnings("unchecked")
+    List<ASTNode> nodeList = (List<ASTNode>)(list);
+    return nodeList;
+  }
+}
@@ -1,10 +1,7 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.CharacterLiteral;
 import org.eclipse.jdt.core.dom.CompilationUnit;
@@ -21,31 +18,17 @@ import org.slf4j.LoggerFactory;
  * 
  * @author Eric Mercer
  */
-public class ParenthesizedExpressionFolding implements Folding {
+public class ParenthesizedExpressionFolding implements Folding, FoldingRule {
   static final Logger log = LoggerFactory.getLogger(ParenthesizedExpressionFolding.class);
   
-  class Visitor extends ASTVisitor {
-    public boolean didFold = false;
-
-    private boolean isLiteralExpression(ASTNode exp) {
-      return (exp instanceof BooleanLiteral) 
-        || (exp instanceof CharacterLiteral)
-        || (exp instanceof NullLiteral)
-        || (exp instanceof StringLiteral)
-        || (exp instanceof TypeLiteral)
-        || (exp instanceof NumberLiteral);
+  class Visitor extends FoldingVisitor {
+    Visitor(final FoldingListener listener) {
+      super(listener);
     }
-    
+
     @Override
     public void endVisit(ParenthesizedExpression node) {
-      ASTNode exp = node.getExpression();
-      if (!isLiteralExpression(exp)) {
-        return;
-      }
-      AST ast = node.getAST();
-      ASTNode newExp = ASTNode.copySubtree(ast, exp);
-      TreeModificationUtils.replaceChildInParent(node, newExp);
-      didFold = true;
+      apply(ParenthesizedExpressionFolding.this, node);
     }
   }
 
@@ -79,9 +62,7 @@ public class ParenthesizedExpressionFolding implements Folding {
    * 
    * @ensures fold(root) == (old(top) != emptyset)
    * @ensures forall n in old(top), exists n' in nodes 
-   *             fresh(n')
-   *          /\ isLiteral(n')
-   *          /\ value(n') == value(literal(n))
+   *             n' == old(literal(n))
    *          /\ parent(n') == parent(n)
    *          /\ children(parent(n')) == (children(parent(n)) setminus {n}) union {n'}
    *   
@@ -89,10 +70,52 @@ public class ParenthesizedExpressionFolding implements Folding {
    * @return true if parenthesized literals were replaced in the rooted tree
    */
   public boolean fold(final ASTNode root) {
+    return fold(root, FoldingListener.NONE);
+  }
+
+  @Override
+  public boolean fold(final ASTNode root, final FoldingListener listener) {
     checkRequires(root);
-    Visitor visitor = new Visitor();
-    root.accept(visitor);
-    return visitor.didFold;
+    Visitor visitor = new Visitor(listener);
+    return visitor.foldFrom(root);
+  }
+
+  @Override
+  public int[] getNodeTypes() {
+    return new int[] {ASTNode.PARENTHESIZED_EXPRESSION};
+  }
+
+  /**
+   * Folds parenthesized expressions around a literal.
+   * 
+   * @param node ParenthesizedExpression node to potentially fold
+   * @param listener receives the parent of the node if it is folded
+   * @return true if the node was folded
+   */
+  @Override
+  public boolean foldNode(final ASTNode node, final FoldingListener listener) {
+    return foldParenthesizedExpression((ParenthesizedExpression) node, listener);
+  }
+
+  private boolean foldParenthesizedExpression(ParenthesizedExpression node, 
+      FoldingListener listener) {
+    ASTNode exp = node.getExpression();
+    if (!isLiteralExpression(exp)) {
+      return false;
+    }
+    ASTNode parent = node.getParent();
+    NodeRelocation.replaceWithDescendant(node, exp);
+    listener.didReplace(parent);
+    return true;
+  }
+
+  private boolean isLiteralExpression(ASTNode exp) {
+    return (exp instanceof BooleanLiteral) 
+      || (exp instanceof CharacterLiteral)
+      || (exp instanceof NullLiteral)
+      || (exp instanceof StringLiteral)
+      || (exp instanceof TypeLiteral)
+      || (exp instanceof NumberLiteral);
   }
 
   private void checkRequires(final ASTNode root) {
@@ -1,9 +1,38 @@
 package edu.byu.cs329.constantpropagation;
 
-import edu.byu.cs329.utils.JavaSourceUtils;
+import edu.byu.cs329.batch.BatchRunner;
+import edu.byu.cs329.batch.OutputCache;
+import edu.byu.cs329.batch.SourceFile;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.IndexedControlFlowGraph;
+import edu.byu.cs329.cfg.MutableControlFlowGraph;
+import edu.byu.cs329.constantfolding.BlockFolding;
+import edu.byu.cs329.constantfolding.FoldingFixpoint;
+import edu.byu.cs329.constantfolding.FoldingListener;
+import edu.byu.cs329.constantfolding.FoldingRule;
+import edu.byu.cs329.constantfolding.FusedFolding;
+import edu.byu.cs329.constantfolding.IfStatementFolding;
+import edu.byu.cs329.metrics.Counter;
+import edu.byu.cs329.metrics.Events;
+import edu.byu.cs329.metrics.Metrics;
+import edu.byu.cs329.metrics.PropagationRoundEvent;
+import edu.byu.cs329.metrics.Timer;
+import edu.byu.cs329.ssa.SsaForm;
 import java.io.File;
-import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,36 +45,271 @@ public class ConstantPropagation {
 
   static final Logger log = LoggerFactory.getLogger(ConstantPropagation.class);
 
+  static final Timer PROPAGATION_TIME = Metrics.timer("propagation");
+  static final Counter PASSES = Metrics.counter("propagation.passes");
+  static final Counter ROUNDS = Metrics.counter("propagation.rounds");
+  static final Counter REPLACEMENTS = Metrics.counter("propagation.replacements");
+
+  /**
+   * Counts the work done by one run of {@link #propagate}.
+   */
+  public static class Statistics {
+    private final Map<MethodDeclaration, Integer> rounds =
+        new LinkedHashMap<MethodDeclaration, Integer>();
+    private int passes = 0;
+    private int rewrites = 0;
+
+    /**
+     * Gets the rounds of one method.
+     *
+     * @param method a method of the tree.
+     * @return the number of times the method was analyzed and folded.
+     */
+    public int getRounds(final MethodDeclaration method) {
+      return rounds.getOrDefault(method, 0);
+    }
+
+    public int getMethodCount() {
+      return rounds.size();
+    }
+
+    public int getMaxRounds() {
+      return rounds.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    public int getTotalRounds() {
+      return rounds.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public int getPasses() {
+      return passes;
+    }
+
+    public int getRewrites() {
+      return rewrites;
+    }
+
+    @Override
+    public String toString() {
+      return "methods=" + getMethodCount() + " passes=" + passes + " rounds=" + getTotalRounds()
+          + " maxRounds=" + getMaxRounds() + " rewrites=" + rewrites;
+    }
+  }
+
+  /**
+   * A method on the worklist and the graph kept for it across rounds.
+   */
+  static class MethodState {
+    final MethodDeclaration declaration;
+    final MutableControlFlowGraph cfg;
+    final List<MutableControlFlowGraph> enclosedGraphs = new ArrayList<MutableControlFlowGraph>();
+
+    MethodState(final ControlFlowGraph cfg) {
+      this.declaration = cfg.getMethodDeclaration();
+      this.cfg = new MutableControlFlowGraph(cfg);
+    }
+  }
+
+  /**
+   * Patches the graphs a fold touches and records the methods it changed.
+   */
+  static class FoldRecorder implements FoldingListener {
+    final List<MutableControlFlowGraph> graphs;
+    final Map<MethodDeclaration, MethodState> states;
+    final Set<MethodState> changed;
+
+    FoldRecorder(final MethodState state, final Map<MethodDeclaration, MethodState> states,
+        final Set<MethodState> changed) {
+      this.graphs = state.enclosedGraphs;
+      this.states = states;
+      this.changed = changed;
+    }
+
+    @Override
+    public void didReplace(final ASTNode parent) {
+      MethodState state = states.get(getEnclosingMethod(parent));
+      if (state != null) {
+        changed.add(state);
+      }
+    }
+
+    @Override
+    public void didReplaceStatement(final Statement original, final Statement replacement) {
+      for (MutableControlFlowGraph graph : graphs) {
+        graph.didReplaceStatement(original, replacement);
+      }
+    }
+
+    @Override
+    public void didSpliceBlock(final Block block, final List<Statement> statements) {
+      for (MutableControlFlowGraph graph : graphs) {
+        graph.didSpliceBlock(block, statements);
+      }
+    }
+  }
+
   /**
    * Performs constant propagation.
    * 
+   * <p>Each method is put in SSA form and analyzed with sparse conditional
+   * constant propagation, constant expressions are replaced by literals, and
+   * if statements with a literal condition are folded away. This is repeated
+   * for each method until a round changes nothing.
+   * 
+   * <p>The methods are kept on a worklist. Every pass analyzes the methods
+   * on the list in parallel, then applies their rewrites and folds each of
+   * them. A method stays on the list only if its analysis rewrote it or a
+   * fold changed it, and is retired as soon as a round leaves it alone. The
+   * graph of each method is built once and patched by the folds.
+   * 
+   * @requires node != null
+   * @requires (node instanceof CompilationUnit) \/ parent(node) != null
+   * 
    * @param node the root node for constant propagation.
+   * @return the rounds of each method and the work done.
+   */
+  public static Statistics propagate(ASTNode node) {
+    long start = System.nanoTime();
+    Map<MethodDeclaration, MethodState> states =
+        new IdentityHashMap<MethodDeclaration, MethodState>();
+    List<MethodState> worklist = new ArrayList<MethodState>();
+    for (ControlFlowGraph cfg : new ControlFlowGraphBuilder().build(node)) {
+      MethodState state = new MethodState(cfg);
+      states.put(state.declaration, state);
+      worklist.add(state);
+    }
+    for (MethodState state : worklist) {
+      for (ASTNode n = state.declaration; n != null; n = getEnclosingMethod(n.getParent())) {
+        MethodState enclosing = states.get(n);
+        if (enclosing != null) {
+          enclosing.enclosedGraphs.add(state.cfg);
+        }
+      }
+    }
+
+    FoldingFixpoint fixpoint = new FoldingFixpoint(List.of(new FusedFolding(newRuleList())));
+    ParallelMethodAnalysis analysis = new ParallelMethodAnalysis();
+    Statistics statistics = new Statistics();
+    while (!worklist.isEmpty()) {
+      PropagationRoundEvent event = new PropagationRoundEvent();
+      if (event.isEnabled()) {
+        event.begin();
+      }
+      ++statistics.passes;
+      List<MutableControlFlowGraph> cfgList = new ArrayList<MutableControlFlowGraph>();
+      for (MethodState state : worklist) {
+        cfgList.add(state.cfg);
+      }
+      int[] rewrites = analysis.run(cfgList, ConstantPropagation::analyze);
+      Set<MethodState> changed = new LinkedHashSet<MethodState>();
+      for (int i = 0; i < worklist.size(); ++i) {
+        MethodState state = worklist.get(i);
+        statistics.rounds.merge(state.declaration, 1, Integer::sum);
+        statistics.rewrites += rewrites[i];
+        if (rewrites[i] > 0) {
+          changed.add(state);
+        }
+        fixpoint.run(state.declaration, new FoldRecorder(state, states, changed));
+      }
+      if (event.shouldCommit()) {
+        event.file = Events.fileOf(node);
+        event.pass = statistics.passes;
+        event.methods = worklist.size();
+        event.replacements = Arrays.stream(rewrites).sum();
+        event.changedMethods = changed.size();
+        event.commit();
+      }
+      worklist = new ArrayList<MethodState>(changed);
+    }
+    if (Metrics.isEnabled()) {
+      PROPAGATION_TIME.record(System.nanoTime() - start);
+      PASSES.add(statistics.passes);
+      ROUNDS.add(statistics.getTotalRounds());
+      REPLACEMENTS.add(statistics.rewrites);
+    }
+    log.debug("Propagated constants: " + statistics);
+    return statistics;
+  }
+
+  static List<FoldingRule> newRuleList() {
+    return List.of(new BlockFolding(), new IfStatementFolding());
+  }
+
+  /**
+   * Describes the analysis and enabled rules for an {@link OutputCache}.
+   *
+   * @return the names of the analysis and of the rules in the order they are tried.
    */
-  public static void propagate(ASTNode node) {
+  public static String getConfiguration() {
+    StringBuilder builder = new StringBuilder("ConstantPropagation");
+    builder.append(' ').append(SparseConditionalConstantPropagation.class.getSimpleName());
+    for (FoldingRule rule : newRuleList()) {
+      builder.append(' ').append(rule.getClass().getSimpleName());
+    }
+    return builder.toString();
+  }
+
+  private static List<Runnable> analyze(ControlFlowGraph cfg) {
+    SsaForm ssa = new SsaForm(IndexedControlFlowGraph.of(cfg).getInfo().getDominatorTree());
+    return new SparseConditionalConstantPropagation(ssa).getRewrites();
+  }
+
+  private static ASTNode getEnclosingMethod(ASTNode node) {
+    ASTNode current = node;
+    while (current != null && !(current instanceof MethodDeclaration)) {
+      current = current.getParent();
+    }
+    return current;
   }
 
   /**
-   * Performs constant folding an a Java file.
+   * Performs constant propagation on a Java file or on every Java file in a directory.
    * 
-   * @param args args[0] is the file to fold and args[1] is where to write the
-   *             output
+   * <p>When args[0] is a directory the files are propagated in parallel and
+   * written to the same relative paths under args[1], reusing the outputs
+   * cached in args[2] if it is given.
+   * 
+   * @param args args[0] is the file or directory to propagate and args[1] is where to
+   *             write the output. The optional args[2] is a cache directory.
    */
   public static void main(String[] args) {
-    if (args.length != 2) {
-      log.error("Missing Java input file or output file on command line");
-      System.out.println("usage: java DomViewer <java file to parse> <html file to write>");
+    boolean isBatch = args.length > 0 && new File(args[0]).isDirectory();
+    if (args.length != 2 && !(isBatch && args.length == 3)) {
+      log.error("Missing Java input file or output file or both on command line");
+      System.out.println("usage: java ConstantPropagation <input file> <output file>");
+      System.out.println(
+          "       java ConstantPropagation <input directory> <output directory> [cache directory]");
       System.exit(1);
     }
 
-    File inputFile = new File(args[0]);
-    // String inputFileAsString = readFile(inputFile.toURI());
-    ASTNode node = JavaSourceUtils.getCompilationUnit(inputFile.toURI());//parse(inputFileAsString);
-    ConstantPropagation.propagate(node);
+    Metrics.configureFromSystemProperties();
+    if (isBatch) {
+      runBatch(Path.of(args[0]), Path.of(args[1]), (args.length == 3) ? Path.of(args[2]) : null);
+      return;
+    }
+
+    try {
+      SourceFile file = SourceFile.read(Path.of(args[0]));
+      propagate(file.getRoot());
+      file.write(Path.of(args[1]));
+    } catch (Exception e) {
+      e.printStackTrace();
+    }
+  }
 
+  private static void runBatch(Path inputDirectory, Path outputDirectory, Path cacheDirectory) {
     try {
-      PrintWriter writer = new PrintWriter(args[1], "UTF-8");
-      writer.print(node.toString());
-      writer.close();
+      OutputCache cache = (cacheDirectory == null) ? null
+          : OutputCache.open(cacheDirectory, getConfiguration(), OutputCache.DEFAULT_MAX_BYTES);
+      BatchRunner runner = new BatchRunner(node -> {
+        propagate(node);
+        return node;
+      }, Runtime.getRuntime().availableProcessors(), cache);
+      BatchRunner.Summary summary = runner.run(inputDirectory, outputDirectory);
+      System.out.println(summary);
+      if (!summary.getFailures().isEmpty()) {
+        System.exit(1);
+      }
     } catch (Exception e) {
       e.printStackTrace();
     }
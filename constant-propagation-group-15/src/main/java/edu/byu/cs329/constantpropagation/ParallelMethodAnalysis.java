@@ -0,0 +1,91 @@
+package edu.byu.cs329.constantpropagation;
+
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.eclipse.jdt.core.dom.ASTNode;
+
+/**
+ * Analyzes every method in a tree in parallel and then rewrites the tree
+ * serially.
+ *
+ * <p>The JDT DOM may be read from several threads but not modified, so an
+ * analysis returns its rewrites instead of applying them. Setting a node
+ * property is a modification too: <code>ASTNode.setProperty</code> is not
+ * synchronized, so an analysis keeps any per-node state in its own maps. The rewrites are
+ * applied on the calling thread after every method is analyzed, in the
+ * order the methods appear in the source.
+ */
+public class ParallelMethodAnalysis {
+
+  /**
+   * An analysis of one method.
+   */
+  public interface Analyzer {
+    /**
+     * Analyzes one method without modifying the tree.
+     *
+     * <p>An analysis that needs reaching definitions builds them from the
+     * graph, so analyses that work on the SSA form do not pay for them.
+     *
+     * @param cfg the control flow graph of the method.
+     * @return the rewrites to apply to the method, in order.
+     */
+    List<Runnable> analyze(ControlFlowGraph cfg);
+  }
+
+  private final ControlFlowGraphBuilder cfgBuilder = new ControlFlowGraphBuilder();
+
+  /**
+   * Analyzes every method in parallel and then applies the rewrites.
+   *
+   * @requires root != null
+   * @requires analyzer does not modify the tree
+   *
+   * @ensures every rewrite returned by the analyzer is run exactly once
+   *     after every method is analyzed
+   *
+   * @param root the root of the tree.
+   * @param analyzer the analysis to run on each method.
+   * @return the number of rewrites applied.
+   */
+  public int run(final ASTNode root, final Analyzer analyzer) {
+    ExceptionUtils.requiresNonNull(root, "Null root passed to ParallelMethodAnalysis.run");
+    return Arrays.stream(run(cfgBuilder.build(root), analyzer)).sum();
+  }
+
+  /**
+   * Analyzes the given graphs in parallel and then applies the rewrites.
+   *
+   * @requires cfgList != null
+   * @requires analyzer does not modify the tree
+   *
+   * @ensures every rewrite returned by the analyzer is run exactly once
+   *     after every graph is analyzed
+   *
+   * @param cfgList the graphs of the methods to analyze.
+   * @param analyzer the analysis to run on each method.
+   * @return the number of rewrites applied to each method, in list order.
+   */
+  public int[] run(final List<? extends ControlFlowGraph> cfgList, final Analyzer analyzer) {
+    ExceptionUtils.requiresNonNull(cfgList, "Null graphs passed to ParallelMethodAnalysis.run");
+
+    List<List<Runnable>> rewriteLists = IntStream.range(0, cfgList.size())
+        .parallel()
+        .mapToObj(i -> analyzer.analyze(cfgList.get(i)))
+        .collect(Collectors.toList());
+
+    int[] rewrites = new int[cfgList.size()];
+    for (int i = 0; i < rewriteLists.size(); ++i) {
+      for (Runnable rewrite : rewriteLists.get(i)) {
+        rewrite.run();
+        ++rewrites[i];
+      }
+    }
+    return rewrites;
+  }
+}
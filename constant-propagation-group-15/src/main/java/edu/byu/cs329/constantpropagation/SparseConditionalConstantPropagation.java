@@ -0,0 +1,759 @@
+package edu.byu.cs329.constantpropagation;
+
+import edu.byu.cs329.cfg.IndexedControlFlowGraph;
+import edu.byu.cs329.constantfolding.ConstantEvaluator;
+import edu.byu.cs329.ssa.IntList;
+import edu.byu.cs329.ssa.SsaForm;
+import edu.byu.cs329.utils.TreeModificationUtils;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.BreakStatement;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.ConditionalExpression;
+import org.eclipse.jdt.core.dom.ContinueStatement;
+import org.eclipse.jdt.core.dom.EmptyStatement;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+import org.eclipse.jdt.core.dom.ThrowStatement;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.VariableDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationExpression;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.eclipse.jdt.core.dom.WhileStatement;
+
+/**
+ * Sparse conditional constant propagation over the SSA form of one method.
+ *
+ * <p>Each value starts at TOP, meaning no executable definition has been
+ * seen, and can only move down to a constant and then to BOTTOM. Edges of
+ * the graph become executable when their source is executable and, for an
+ * <code>if</code> or <code>while</code>, when the condition can take the
+ * branch. A changed value only revisits the statements and phis that use
+ * it, so the work is proportional to the def-use edges rather than to the
+ * statements times the number of rounds.
+ *
+ * <p>Only <code>int</code>, <code>long</code> and <code>boolean</code>
+ * locals and parameters are tracked. Parameters are BOTTOM. The analysis
+ * does not modify the tree; {@link #getRewrites} returns the replacements
+ * of constant expressions by literals.
+ */
+public final class SparseConditionalConstantPropagation {
+  private static final Lattice TOP = new Lattice(ConstantEvaluator.NONE, 0);
+  private static final Lattice BOTTOM = new Lattice(ConstantEvaluator.NONE, 0);
+
+  /**
+   * A lattice element: TOP, a constant of a kind, or BOTTOM.
+   */
+  static final class Lattice {
+    final int kind;
+    final long bits;
+
+    Lattice(int kind, long bits) {
+      this.kind = kind;
+      this.bits = bits;
+    }
+
+    boolean isConstant() {
+      return this != TOP && this != BOTTOM;
+    }
+
+    boolean isTrue() {
+      return kind == ConstantEvaluator.BOOLEAN && bits != 0;
+    }
+
+    boolean isFalse() {
+      return kind == ConstantEvaluator.BOOLEAN && bits == 0;
+    }
+
+    Lattice meet(Lattice other) {
+      if (this == TOP) {
+        return other;
+      }
+      if (other == TOP || this == other) {
+        return this;
+      }
+      if (this == BOTTOM || other == BOTTOM) {
+        return BOTTOM;
+      }
+      if (kind == other.kind && bits == other.bits) {
+        return this;
+      }
+      return BOTTOM;
+    }
+
+    @Override
+    public String toString() {
+      if (this == TOP) {
+        return "TOP";
+      }
+      if (this == BOTTOM) {
+        return "BOTTOM";
+      }
+      return kind + ":" + bits;
+    }
+  }
+
+  private final SsaForm ssa;
+  private final IndexedControlFlowGraph cfg;
+  private final Lattice[] values;
+  private final Map<Expression, Lattice> literalValues =
+      new IdentityHashMap<Expression, Lattice>();
+  private final Map<VariableDeclaration, Integer> variableKinds =
+      new IdentityHashMap<VariableDeclaration, Integer>();
+  private final BitSet executableEdges;
+  private final BitSet executableStatements;
+  private final IntList flowWorklist = new IntList();
+  private final IntList ssaWorklist = new IntList();
+  private int evaluations = 0;
+
+  /**
+   * Runs the analysis.
+   *
+   * @param ssa the SSA form of the method.
+   */
+  public SparseConditionalConstantPropagation(final SsaForm ssa) {
+    this.ssa = ssa;
+    this.cfg = ssa.getGraph();
+    UnmodeledDefinitionFinder finder = new UnmodeledDefinitionFinder();
+    cfg.getMethodDeclaration().getBody().accept(finder);
+    Set<VariableDeclaration> untrackedVariables =
+        Collections.newSetFromMap(new IdentityHashMap<VariableDeclaration, Boolean>());
+    for (SimpleName name : finder.untrackedNames) {
+      untrackedVariables.add(ssa.getDeclaration(name));
+    }
+    values = new Lattice[ssa.valueCount()];
+    for (int value = 0; value < values.length; ++value) {
+      values[value] = (ssa.getStatement(value) < 0) ? BOTTOM : TOP;
+      recordKind(value, untrackedVariables);
+    }
+    executableEdges = new BitSet(cfg.edgeCount());
+    executableStatements = new BitSet(cfg.size());
+    if (!finder.hasJump) {
+      solve();
+    }
+  }
+
+  /**
+   * Finds the definitions the graph does not model.
+   *
+   * <p>The graph has no edges for <code>break</code> and
+   * <code>continue</code>, and no nodes for the statements nested in a
+   * <code>for</code>, <code>do</code>, <code>switch</code>,
+   * <code>try</code> or labeled statement, in a class body, or in a block
+   * that is not the body of a method, <code>if</code> or <code>while</code>.
+   * A variable defined in such a statement is not tracked, and a method
+   * with a jump is not analyzed at all.
+   */
+  private static final class UnmodeledDefinitionFinder extends ASTVisitor {
+    final List<SimpleName> untrackedNames = new ArrayList<SimpleName>();
+    boolean hasJump = false;
+    private int depth = 0;
+
+    @Override
+    public void preVisit(ASTNode node) {
+      if (isUnmodeled(node)) {
+        ++depth;
+      }
+    }
+
+    @Override
+    public void postVisit(ASTNode node) {
+      if (isUnmodeled(node)) {
+        --depth;
+      }
+    }
+
+    @Override
+    public boolean visit(BreakStatement node) {
+      hasJump = true;
+      return false;
+    }
+
+    @Override
+    public boolean visit(ContinueStatement node) {
+      hasJump = true;
+      return false;
+    }
+
+    @Override
+    public void endVisit(VariableDeclarationFragment node) {
+      addDefinition(node.getName());
+    }
+
+    @Override
+    public void endVisit(SingleVariableDeclaration node) {
+      addDefinition(node.getName());
+    }
+
+    @Override
+    public void endVisit(Assignment node) {
+      addDefinition(node.getLeftHandSide());
+    }
+
+    @Override
+    public void endVisit(PostfixExpression node) {
+      addDefinition(node.getOperand());
+    }
+
+    @Override
+    public void endVisit(PrefixExpression node) {
+      addDefinition(node.getOperand());
+    }
+
+    private void addDefinition(Expression expression) {
+      if (depth > 0 && expression instanceof SimpleName) {
+        untrackedNames.add((SimpleName) expression);
+      }
+    }
+
+    private static boolean isUnmodeled(ASTNode node) {
+      if (node instanceof AnonymousClassDeclaration) {
+        return true;
+      }
+      if (node instanceof Block) {
+        ASTNode parent = node.getParent();
+        return !(parent instanceof MethodDeclaration || parent instanceof IfStatement
+            || parent instanceof WhileStatement);
+      }
+      return node instanceof Statement
+          && !(node instanceof ExpressionStatement
+          || node instanceof VariableDeclarationStatement
+          || node instanceof IfStatement
+          || node instanceof WhileStatement
+          || node instanceof ReturnStatement
+          || node instanceof ThrowStatement
+          || node instanceof EmptyStatement);
+    }
+  }
+
+  /**
+   * Gets the number of statement and phi evaluations the analysis made.
+   *
+   * @return the number of evaluations.
+   */
+  public int getEvaluations() {
+    return evaluations;
+  }
+
+  /**
+   * Checks if a statement can execute.
+   *
+   * @param s the statement.
+   * @return true if s is reached over executable edges.
+   */
+  public boolean isExecutable(final Statement s) {
+    int id = cfg.id(s);
+    return id >= 0 && executableStatements.get(id);
+  }
+
+  /**
+   * Gets the constant a read of a variable always sees.
+   *
+   * @param use a simple name read in a statement of the graph.
+   * @return the literal value, a Long or a Boolean, or null if it is not constant.
+   */
+  public Object getConstant(final SimpleName use) {
+    int value = ssa.getValue(use);
+    if (value == SsaForm.UNDEFINED || !values[value].isConstant()) {
+      return null;
+    }
+    Lattice lattice = values[value];
+    if (lattice.kind == ConstantEvaluator.BOOLEAN) {
+      return lattice.bits != 0;
+    }
+    return lattice.bits;
+  }
+
+  /**
+   * Gets the rewrites that replace constant expressions by literals.
+   *
+   * <p>In each executable statement every largest expression with a
+   * constant value is replaced, except the condition of a
+   * <code>while</code> since <code>while (false)</code> does not compile.
+   * The statements of untaken branches are left for if statement folding.
+   *
+   * @return the rewrites in statement order.
+   */
+  public List<Runnable> getRewrites() {
+    List<Runnable> rewriteList = new ArrayList<Runnable>();
+    for (int s = executableStatements.nextSetBit(0); s >= 0;
+        s = executableStatements.nextSetBit(s + 1)) {
+      Statement statement = cfg.statement(s);
+      statement.accept(new ASTVisitor() {
+        @Override
+        public boolean preVisit2(ASTNode node) {
+          if (node == statement) {
+            return true;
+          }
+          if (node instanceof Statement || node instanceof AnonymousClassDeclaration
+              || node instanceof Type) {
+            return false;
+          }
+          if (!(node instanceof Expression)) {
+            return true;
+          }
+          Expression expression = (Expression) node;
+          if (!isReplaceable(expression)) {
+            return !(expression instanceof Name);
+          }
+          Lattice lattice = evaluate(expression);
+          if (!lattice.isConstant() || lattice.kind == ConstantEvaluator.CHAR) {
+            return !(expression instanceof Name);
+          }
+          rewriteList.add(() -> TreeModificationUtils.replaceChildInParent(expression,
+              ConstantEvaluator.newLiteral(expression.getAST(), lattice.kind, lattice.bits)));
+          return false;
+        }
+      });
+    }
+    return rewriteList;
+  }
+
+  private static boolean isReplaceable(Expression expression) {
+    if (expression instanceof NumberLiteral || expression instanceof BooleanLiteral
+        || expression instanceof CharacterLiteral || ConstantEvaluator.isNumber(expression)) {
+      return false;
+    }
+    StructuralPropertyDescriptor location = expression.getLocationInParent();
+    if (location == WhileStatement.EXPRESSION_PROPERTY
+        || location == Assignment.LEFT_HAND_SIDE_PROPERTY
+        || location == PostfixExpression.OPERAND_PROPERTY) {
+      return false;
+    }
+    if (location == PrefixExpression.OPERAND_PROPERTY) {
+      PrefixExpression prefix = (PrefixExpression) expression.getParent();
+      PrefixExpression.Operator operator = prefix.getOperator();
+      return operator != PrefixExpression.Operator.INCREMENT
+          && operator != PrefixExpression.Operator.DECREMENT;
+    }
+    return true;
+  }
+
+  private void solve() {
+    if (cfg.size() == 0) {
+      return;
+    }
+    executableStatements.set(0);
+    for (int phi : ssa.getPhis(0)) {
+      evaluatePhi(phi);
+    }
+    visitStatement(0);
+    while (flowWorklist.size() > 0 || ssaWorklist.size() > 0) {
+      while (flowWorklist.size() > 0) {
+        int edge = flowWorklist.removeLast();
+        if (executableEdges.get(edge)) {
+          continue;
+        }
+        executableEdges.set(edge);
+        int t = cfg.edgeTarget(edge);
+        for (int phi : ssa.getPhis(t)) {
+          evaluatePhi(phi);
+        }
+        if (!executableStatements.get(t)) {
+          executableStatements.set(t);
+          visitStatement(t);
+        }
+      }
+      while (ssaWorklist.size() > 0 && flowWorklist.size() == 0) {
+        int value = ssaWorklist.removeLast();
+        for (int phi : ssa.getPhiUsers(value)) {
+          if (executableStatements.get(ssa.getStatement(phi))) {
+            evaluatePhi(phi);
+          }
+        }
+        for (int s : ssa.getStatementUsers(value)) {
+          if (executableStatements.get(s)) {
+            visitStatement(s);
+          }
+        }
+      }
+    }
+  }
+
+  private void visitStatement(int s) {
+    ++evaluations;
+    for (int value : ssa.getDefinitions(s)) {
+      update(value, evaluateDefinition(value));
+    }
+    Statement statement = cfg.statement(s);
+    if (statement instanceof IfStatement) {
+      IfStatement ifStatement = (IfStatement) statement;
+      int thenTarget = getFirstId(ifStatement.getThenStatement());
+      int elseTarget = getFirstId(ifStatement.getElseStatement());
+      visitBranch(s, evaluate(ifStatement.getExpression()),
+          chooseTarget(s, thenTarget, elseTarget), chooseTarget(s, elseTarget, thenTarget));
+      return;
+    }
+    if (statement instanceof WhileStatement) {
+      WhileStatement whileStatement = (WhileStatement) statement;
+      int bodyTarget = getFirstId(whileStatement.getBody());
+      if (bodyTarget < 0) {
+        bodyTarget = s;
+      }
+      visitBranch(s, evaluate(whileStatement.getExpression()),
+          bodyTarget, chooseTarget(s, -1, bodyTarget));
+      return;
+    }
+    for (int k = 0; k < cfg.succCount(s); ++k) {
+      flowWorklist.add(cfg.succEdge(s, k));
+    }
+  }
+
+  private void visitBranch(int s, Lattice condition, int trueTarget, int falseTarget) {
+    if (condition == TOP) {
+      return;
+    }
+    for (int k = 0; k < cfg.succCount(s); ++k) {
+      int t = cfg.succId(s, k);
+      if (condition.isTrue() && t != trueTarget || condition.isFalse() && t != falseTarget) {
+        continue;
+      }
+      flowWorklist.add(cfg.succEdge(s, k));
+    }
+  }
+
+  private int getFirstId(Statement branch) {
+    if (branch == null) {
+      return -1;
+    }
+    if (branch instanceof Block) {
+      List<?> statements = ((Block) branch).statements();
+      if (statements.isEmpty()) {
+        return -1;
+      }
+      return cfg.id((Statement) statements.get(0));
+    }
+    return cfg.id(branch);
+  }
+
+  private int chooseTarget(int s, int target, int otherTarget) {
+    if (target >= 0) {
+      return target;
+    }
+    for (int k = 0; k < cfg.succCount(s); ++k) {
+      if (cfg.succId(s, k) != otherTarget) {
+        return cfg.succId(s, k);
+      }
+    }
+    return otherTarget;
+  }
+
+  /**
+   * Meets the operands of a phi on its executable edges.
+   *
+   * <p>An operand with no definition is skipped for a local declared in the
+   * method: Java's definite assignment rule means every read it reaches is
+   * assigned on every path to that read. For any other variable the path
+   * may carry a value the graph does not see, so the phi is BOTTOM.
+   */
+  private void evaluatePhi(int phi) {
+    ++evaluations;
+    int s = ssa.getStatement(phi);
+    int[] operands = ssa.getPhiOperands(phi);
+    boolean isLocal = ssa.getDeclaration(phi) instanceof VariableDeclarationFragment;
+    Lattice result = TOP;
+    for (int k = 0; k < operands.length; ++k) {
+      boolean isEntry = k == cfg.predCount(s);
+      if (!isEntry && !executableEdges.get(cfg.predEdge(s, k))) {
+        continue;
+      }
+      if (operands[k] == SsaForm.UNDEFINED) {
+        if (!isLocal) {
+          result = BOTTOM;
+        }
+        continue;
+      }
+      result = result.meet(values[operands[k]]);
+    }
+    update(phi, result);
+  }
+
+  private void update(int value, Lattice lattice) {
+    Lattice old = values[value];
+    Lattice result = old.meet(lattice);
+    if (result == old) {
+      return;
+    }
+    values[value] = result;
+    ssaWorklist.add(value);
+  }
+
+  private void recordKind(int value, Set<VariableDeclaration> untrackedVariables) {
+    ASTNode node = ssa.getDefiningNode(value);
+    Type type = null;
+    int dimensions = 0;
+    if (node instanceof SingleVariableDeclaration) {
+      SingleVariableDeclaration declaration = (SingleVariableDeclaration) node;
+      type = declaration.getType();
+      dimensions = declaration.getExtraDimensions() + (declaration.isVarargs() ? 1 : 0);
+    } else if (node instanceof VariableDeclarationFragment) {
+      VariableDeclarationFragment fragment = (VariableDeclarationFragment) node;
+      dimensions = fragment.getExtraDimensions();
+      ASTNode parent = fragment.getParent();
+      if (parent instanceof VariableDeclarationStatement) {
+        type = ((VariableDeclarationStatement) parent).getType();
+      } else if (parent instanceof VariableDeclarationExpression) {
+        type = ((VariableDeclarationExpression) parent).getType();
+      }
+    } else {
+      return;
+    }
+    VariableDeclaration variable = ssa.getDeclaration(value);
+    int kind = (dimensions == 0 && !untrackedVariables.contains(variable))
+        ? getKind(type) : ConstantEvaluator.NONE;
+    variableKinds.put(variable, kind);
+  }
+
+  private static int getKind(Type type) {
+    if (!(type instanceof PrimitiveType)) {
+      return ConstantEvaluator.NONE;
+    }
+    PrimitiveType.Code code = ((PrimitiveType) type).getPrimitiveTypeCode();
+    if (code == PrimitiveType.INT) {
+      return ConstantEvaluator.INT;
+    } else if (code == PrimitiveType.LONG) {
+      return ConstantEvaluator.LONG;
+    } else if (code == PrimitiveType.BOOLEAN) {
+      return ConstantEvaluator.BOOLEAN;
+    }
+    return ConstantEvaluator.NONE;
+  }
+
+  private Lattice evaluateDefinition(int value) {
+    Integer kind = variableKinds.get(ssa.getDeclaration(value));
+    if (kind == null || kind == ConstantEvaluator.NONE) {
+      return BOTTOM;
+    }
+    ASTNode node = ssa.getDefiningNode(value);
+    if (node instanceof VariableDeclarationFragment) {
+      Expression initializer = ((VariableDeclarationFragment) node).getInitializer();
+      if (initializer == null) {
+        return BOTTOM;
+      }
+      return assign(kind, evaluate(initializer));
+    }
+    if (node instanceof Assignment) {
+      Assignment assignment = (Assignment) node;
+      Assignment.Operator operator = assignment.getOperator();
+      Lattice right = evaluate(assignment.getRightHandSide());
+      if (operator == Assignment.Operator.ASSIGN) {
+        return assign(kind, right);
+      }
+      InfixExpression.Operator infixOperator = toInfixOperator(operator);
+      if (infixOperator == null) {
+        return BOTTOM;
+      }
+      return cast(kind, evaluateInfix(infixOperator,
+          evaluate(assignment.getLeftHandSide()), right));
+    }
+    Expression operand;
+    boolean isIncrement;
+    if (node instanceof PostfixExpression) {
+      PostfixExpression postfix = (PostfixExpression) node;
+      operand = postfix.getOperand();
+      isIncrement = postfix.getOperator() == PostfixExpression.Operator.INCREMENT;
+    } else if (node instanceof PrefixExpression) {
+      PrefixExpression prefix = (PrefixExpression) node;
+      operand = prefix.getOperand();
+      isIncrement = prefix.getOperator() == PrefixExpression.Operator.INCREMENT;
+    } else {
+      return BOTTOM;
+    }
+    Lattice one = new Lattice(ConstantEvaluator.INT, 1);
+    return cast(kind, evaluateInfix(isIncrement
+        ? InfixExpression.Operator.PLUS : InfixExpression.Operator.MINUS,
+        evaluate(operand), one));
+  }
+
+  private static InfixExpression.Operator toInfixOperator(Assignment.Operator operator) {
+    if (operator == Assignment.Operator.PLUS_ASSIGN) {
+      return InfixExpression.Operator.PLUS;
+    } else if (operator == Assignment.Operator.MINUS_ASSIGN) {
+      return InfixExpression.Operator.MINUS;
+    } else if (operator == Assignment.Operator.TIMES_ASSIGN) {
+      return InfixExpression.Operator.TIMES;
+    }
+    return null;
+  }
+
+  private static Lattice assign(int kind, Lattice lattice) {
+    if (!lattice.isConstant()) {
+      return lattice;
+    }
+    if (kind == ConstantEvaluator.BOOLEAN) {
+      return (lattice.kind == ConstantEvaluator.BOOLEAN) ? lattice : BOTTOM;
+    }
+    if (lattice.kind == ConstantEvaluator.INT || lattice.kind == ConstantEvaluator.CHAR
+        || lattice.kind == ConstantEvaluator.LONG && kind == ConstantEvaluator.LONG) {
+      return new Lattice(kind, lattice.bits);
+    }
+    return BOTTOM;
+  }
+
+  private static Lattice cast(int kind, Lattice lattice) {
+    if (!lattice.isConstant()) {
+      return lattice;
+    }
+    if (kind == ConstantEvaluator.BOOLEAN || lattice.kind == ConstantEvaluator.BOOLEAN) {
+      return (kind == lattice.kind) ? lattice : BOTTOM;
+    }
+    return new Lattice(kind, ConstantEvaluator.narrow(kind, lattice.bits));
+  }
+
+  private Lattice evaluate(Expression expression) {
+    if (expression instanceof NumberLiteral) {
+      if (!ConstantEvaluator.isIntegral((NumberLiteral) expression)) {
+        return BOTTOM;
+      }
+      return evaluateLiteral(expression);
+    }
+    if (expression instanceof BooleanLiteral || expression instanceof CharacterLiteral) {
+      return evaluateLiteral(expression);
+    }
+    if (expression instanceof SimpleName) {
+      int value = ssa.getValue((SimpleName) expression);
+      return (value == SsaForm.UNDEFINED) ? BOTTOM : values[value];
+    }
+    if (expression instanceof ParenthesizedExpression) {
+      return evaluate(((ParenthesizedExpression) expression).getExpression());
+    }
+    if (expression instanceof PrefixExpression) {
+      return evaluatePrefix((PrefixExpression) expression);
+    }
+    if (expression instanceof InfixExpression) {
+      return evaluateInfix((InfixExpression) expression);
+    }
+    if (expression instanceof ConditionalExpression) {
+      ConditionalExpression conditional = (ConditionalExpression) expression;
+      Lattice condition = evaluate(conditional.getExpression());
+      if (condition.isTrue()) {
+        return evaluate(conditional.getThenExpression());
+      } else if (condition.isFalse()) {
+        return evaluate(conditional.getElseExpression());
+      }
+      return (condition == TOP) ? TOP : BOTTOM;
+    }
+    return BOTTOM;
+  }
+
+  private Lattice evaluateLiteral(Expression literal) {
+    Lattice lattice = literalValues.get(literal);
+    if (lattice == null) {
+      int kind = ConstantEvaluator.getKind(literal);
+      lattice = (kind == ConstantEvaluator.NONE)
+          ? BOTTOM : new Lattice(kind, ConstantEvaluator.getValue(literal));
+      literalValues.put(literal, lattice);
+    }
+    return lattice;
+  }
+
+  private Lattice evaluatePrefix(PrefixExpression prefix) {
+    PrefixExpression.Operator operator = prefix.getOperator();
+    if (ConstantEvaluator.isNumber(prefix)) {
+      NumberLiteral literal = (NumberLiteral) prefix.getOperand();
+      return ConstantEvaluator.isIntegral(literal) ? evaluateLiteral(prefix) : BOTTOM;
+    }
+    Lattice operand = evaluate(prefix.getOperand());
+    if (!operand.isConstant()) {
+      return operand;
+    }
+    if (operator == PrefixExpression.Operator.NOT) {
+      return operand.isTrue() ? newBoolean(false)
+          : operand.isFalse() ? newBoolean(true) : BOTTOM;
+    }
+    int kind = ConstantEvaluator.promote(operand.kind, operand.kind);
+    if (kind == ConstantEvaluator.NONE) {
+      return BOTTOM;
+    }
+    if (operator == PrefixExpression.Operator.PLUS) {
+      return new Lattice(kind, operand.bits);
+    } else if (operator == PrefixExpression.Operator.MINUS) {
+      return new Lattice(kind, ConstantEvaluator.narrow(kind, -operand.bits));
+    } else if (operator == PrefixExpression.Operator.COMPLEMENT) {
+      return new Lattice(kind, ConstantEvaluator.narrow(kind, ~operand.bits));
+    }
+    return BOTTOM;
+  }
+
+  private Lattice evaluateInfix(InfixExpression infix) {
+    InfixExpression.Operator operator = infix.getOperator();
+    Lattice result = evaluate(infix.getLeftOperand());
+    List<?> extendedOperands = infix.extendedOperands();
+    for (int i = -1; i < extendedOperands.size(); ++i) {
+      if (operator == InfixExpression.Operator.CONDITIONAL_AND && result.isFalse()
+          || operator == InfixExpression.Operator.CONDITIONAL_OR && result.isTrue()) {
+        return result;
+      }
+      Expression operand = (i < 0)
+          ? infix.getRightOperand() : (Expression) extendedOperands.get(i);
+      result = evaluateInfix(operator, result, evaluate(operand));
+    }
+    return result;
+  }
+
+  private static Lattice evaluateInfix(InfixExpression.Operator operator, Lattice left,
+      Lattice right) {
+    if (left == BOTTOM || right == BOTTOM) {
+      return BOTTOM;
+    }
+    if (left == TOP || right == TOP) {
+      return TOP;
+    }
+    if (left.kind == ConstantEvaluator.BOOLEAN && right.kind == ConstantEvaluator.BOOLEAN) {
+      return evaluateBoolean(operator, left.bits != 0, right.bits != 0);
+    }
+    int kind = ConstantEvaluator.promote(left.kind, right.kind);
+    if (kind == ConstantEvaluator.NONE || !ConstantEvaluator.isSupported(operator)) {
+      return BOTTOM;
+    }
+    return new Lattice(ConstantEvaluator.getResultKind(operator, kind),
+        ConstantEvaluator.evaluate(operator, kind, left.bits, right.bits));
+  }
+
+  private static Lattice evaluateBoolean(InfixExpression.Operator operator, boolean left,
+      boolean right) {
+    if (operator == InfixExpression.Operator.CONDITIONAL_AND
+        || operator == InfixExpression.Operator.AND) {
+      return newBoolean(left && right);
+    } else if (operator == InfixExpression.Operator.CONDITIONAL_OR
+        || operator == InfixExpression.Operator.OR) {
+      return newBoolean(left || right);
+    } else if (operator == InfixExpression.Operator.XOR
+        || operator == InfixExpression.Operator.NOT_EQUALS) {
+      return newBoolean(left != right);
+    } else if (operator == InfixExpression.Operator.EQUALS) {
+      return newBoolean(left == right);
+    }
+    return BOTTOM;
+  }
+
+  private static Lattice newBoolean(boolean value) {
+    return new Lattice(ConstantEvaluator.BOOLEAN, value ? 1 : 0);
+  }
+}
@@ -0,0 +1,330 @@
+package edu.byu.cs329.generator;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates programs in the Java subset the analyses handle.
+ *
+ * <p>A program is one class of int methods. Each method takes an int
+ * parameter, declares all of its int and boolean locals first, and then
+ * runs a body of assignments and if, if-else and while statements that
+ * ends in a return. Expressions use only literals, locals, {@code +},
+ * {@code <}, {@code !} and parentheses. Every name is declared once per
+ * method and no two methods share state, so nothing is shadowed.
+ *
+ * <p>Every while loop counts a local of its own from zero to the parameter,
+ * and nothing else assigns that local, so loops terminate. The counters
+ * are assignments too and count toward the size of the body.
+ *
+ * <p>The output depends only on the settings and the seed. The text is
+ * built in one pass with no tree, so methods of 100k statements and
+ * classes of thousands of methods are cheap to make.
+ */
+public class ProgramGenerator {
+  private long seed = 0;
+  private int methods = 1;
+  private int statements = 100;
+  private int branchingFactor = 4;
+  private int maxDepth = 4;
+  private int loopNesting = 2;
+  private double literalDensity = 0.3;
+  private int definitionsPerVariable = 4;
+
+  private Random random = null;
+  private StringBuilder builder = null;
+  private int intCount = 0;
+  private int booleanCount = 0;
+
+  /**
+   * Sets the seed.
+   *
+   * @param seed the seed of the choices.
+   * @return this generator.
+   */
+  public ProgramGenerator seed(final long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Sets the number of methods in the class.
+   *
+   * @requires methods > 0
+   *
+   * @param methods the number of methods.
+   * @return this generator.
+   */
+  public ProgramGenerator methods(final int methods) {
+    requirePositive(methods, "methods");
+    this.methods = methods;
+    return this;
+  }
+
+  /**
+   * Sets the size of each method.
+   *
+   * @requires statements > 0
+   *
+   * @param statements the number of statements in each method body, counting
+   *     the statements nested in if and while statements and the final return.
+   * @return this generator.
+   */
+  public ProgramGenerator statements(final int statements) {
+    requirePositive(statements, "statements");
+    this.statements = statements;
+    return this;
+  }
+
+  /**
+   * Sets how many statements a nested block holds on average.
+   *
+   * <p>A statement opens an if or while with probability
+   * 1 / branchingFactor, so the factor is also about the number of
+   * statements between the branches of one block.
+   *
+   * @requires branchingFactor > 0
+   *
+   * @param branchingFactor the mean number of statements in a nested block.
+   * @return this generator.
+   */
+  public ProgramGenerator branchingFactor(final int branchingFactor) {
+    requirePositive(branchingFactor, "branchingFactor");
+    this.branchingFactor = branchingFactor;
+    return this;
+  }
+
+  /**
+   * Sets the deepest nesting of if and while statements.
+   *
+   * @requires maxDepth >= 0
+   *
+   * @param maxDepth the most if and while statements around any statement.
+   * @return this generator.
+   */
+  public ProgramGenerator maxDepth(final int maxDepth) {
+    requirePositive(maxDepth + 1, "maxDepth + 1");
+    this.maxDepth = maxDepth;
+    return this;
+  }
+
+  /**
+   * Sets the deepest nesting of while statements.
+   *
+   * @requires loopNesting >= 0
+   *
+   * @param loopNesting the most while statements around any statement.
+   * @return this generator.
+   */
+  public ProgramGenerator loopNesting(final int loopNesting) {
+    requirePositive(loopNesting + 1, "loopNesting + 1");
+    this.loopNesting = loopNesting;
+    return this;
+  }
+
+  /**
+   * Sets how often an operand is a literal.
+   *
+   * @requires 0 <= literalDensity <= 1
+   *
+   * @param literalDensity the probability that an operand is a literal rather
+   *     than a local.
+   * @return this generator.
+   */
+  public ProgramGenerator literalDensity(final double literalDensity) {
+    if (!(literalDensity >= 0 && literalDensity <= 1)) {
+      ExceptionUtils.throwRuntimeException("literalDensity not in [0, 1]: " + literalDensity);
+    }
+    this.literalDensity = literalDensity;
+    return this;
+  }
+
+  /**
+   * Sets how many times each local is assigned on average.
+   *
+   * @requires definitionsPerVariable > 0
+   *
+   * @param definitionsPerVariable the mean number of assignments per local,
+   *     which fixes the number of locals for the size of the method.
+   * @return this generator.
+   */
+  public ProgramGenerator definitionsPerVariable(final int definitionsPerVariable) {
+    requirePositive(definitionsPerVariable, "definitionsPerVariable");
+    this.definitionsPerVariable = definitionsPerVariable;
+    return this;
+  }
+
+  /**
+   * Generates the class.
+   *
+   * @return the source of a class named Program with methods method0, method1, ...
+   */
+  public String generate() {
+    random = new Random(seed);
+    builder = new StringBuilder(64 * methods * (statements + 8));
+    int definitions = statements + definitionsPerVariable - 1;
+    int variables = Math.max(2, definitions / definitionsPerVariable);
+    booleanCount = Math.max(1, variables / 4);
+    intCount = Math.max(1, variables - booleanCount);
+    builder.append("public class Program {\n");
+    for (int m = 0; m < methods; ++m) {
+      if (m > 0) {
+        builder.append('\n');
+      }
+      method(m);
+    }
+    builder.append("}\n");
+    String source = builder.toString();
+    builder = null;
+    return source;
+  }
+
+  private void method(int index) {
+    builder.append("  int method").append(index).append("(int input) {\n");
+    for (int v = 0; v < intCount; ++v) {
+      indent(0).append("int v").append(v).append(" = ").append(literal()).append(";\n");
+    }
+    for (int b = 0; b < booleanCount; ++b) {
+      indent(0).append("boolean b").append(b).append(" = ").append(random.nextBoolean())
+          .append(";\n");
+    }
+    for (int i = 0; i < loopNesting; ++i) {
+      indent(0).append("int i").append(i).append(" = 0;\n");
+    }
+    block(statements - 1, 0, 0);
+    indent(0).append("return ").append(intOperand()).append(";\n");
+    builder.append("  }\n");
+  }
+
+  private void block(int budget, int depth, int loops) {
+    int left = budget;
+    while (left > 0) {
+      if (left > 1 && depth < maxDepth && random.nextInt(branchingFactor) == 0) {
+        int body = Math.min(left - 1, 1 + random.nextInt(2 * branchingFactor));
+        compound(body, depth, loops);
+        left -= body + 1;
+      } else {
+        assignment(depth);
+        --left;
+      }
+    }
+  }
+
+  private void compound(int body, int depth, int loops) {
+    int kind = random.nextInt(3);
+    if (kind == 0 && loops < loopNesting && body >= 2) {
+      String counter = "i" + loops;
+      indent(depth).append(counter).append(" = 0;\n");
+      indent(depth).append("while (").append(counter).append(" < input) {\n");
+      block(body - 2, depth + 1, loops + 1);
+      indent(depth + 1).append(counter).append(" = ").append(counter).append(" + 1;\n");
+      indent(depth).append("}\n");
+    } else if (kind == 1 && body >= 2) {
+      int thenSize = 1 + random.nextInt(body - 1);
+      indent(depth).append("if (").append(condition()).append(") {\n");
+      block(thenSize, depth + 1, loops);
+      indent(depth).append("} else {\n");
+      block(body - thenSize, depth + 1, loops);
+      indent(depth).append("}\n");
+    } else {
+      indent(depth).append("if (").append(condition()).append(") {\n");
+      block(body, depth + 1, loops);
+      indent(depth).append("}\n");
+    }
+  }
+
+  private void assignment(int depth) {
+    if (random.nextInt(4) == 0) {
+      indent(depth).append("b").append(random.nextInt(booleanCount)).append(" = ")
+          .append(condition()).append(";\n");
+      return;
+    }
+    indent(depth).append("v").append(random.nextInt(intCount)).append(" = ");
+    switch (random.nextInt(3)) {
+      case 0:
+        builder.append(intOperand());
+        break;
+      case 1:
+        builder.append(intOperand()).append(" + ").append(intOperand());
+        break;
+      default:
+        builder.append('(').append(intOperand()).append(" + ").append(intOperand())
+            .append(") + ").append(intOperand());
+        break;
+    }
+    builder.append(";\n");
+  }
+
+  private String condition() {
+    switch (random.nextInt(4)) {
+      case 0:
+        return booleanOperand();
+      case 1:
+        return "!" + booleanOperand();
+      case 2:
+        return intOperand() + " < " + intOperand();
+      default:
+        return "!(" + intOperand() + " < " + intOperand() + ")";
+    }
+  }
+
+  private String intOperand() {
+    if (random.nextDouble() < literalDensity) {
+      return literal();
+    }
+    return "v" + random.nextInt(intCount);
+  }
+
+  private String booleanOperand() {
+    if (random.nextDouble() < literalDensity) {
+      return Boolean.toString(random.nextBoolean());
+    }
+    return "b" + random.nextInt(booleanCount);
+  }
+
+  private String literal() {
+    return Integer.toString(random.nextInt(100));
+  }
+
+  private StringBuilder indent(int depth) {
+    for (int i = 0; i < depth + 2; ++i) {
+      builder.append("  ");
+    }
+    return builder;
+  }
+
+  private static void requirePositive(int value, String name) {
+    if (value <= 0) {
+      ExceptionUtils.throwRuntimeException(name + " must be positive: " + value);
+    }
+  }
+
+  /**
+   * Writes a generated program to a file.
+   *
+   * @param args args[0] is the output file, args[1] the seed, args[2] the
+   *             number of methods and args[3] the statements per method.
+   */
+  public static void main(String[] args) {
+    if (args.length != 4) {
+      System.out.println(
+          "usage: java ProgramGenerator <output file> <seed> <methods> <statements>");
+      System.exit(1);
+    }
+    String source = new ProgramGenerator()
+        .seed(Long.parseLong(args[1]))
+        .methods(Integer.parseInt(args[2]))
+        .statements(Integer.parseInt(args[3]))
+        .generate();
+    try {
+      Files.write(Path.of(args[0]), source.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      e.printStackTrace();
+      System.exit(1);
+    }
+  }
+}
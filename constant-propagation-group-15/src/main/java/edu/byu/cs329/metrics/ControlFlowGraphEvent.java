@@ -0,0 +1,29 @@
+package edu.byu.cs329.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The build of the control flow graph of one method.
+ */
+@Name("edu.byu.cs329.ControlFlowGraph")
+@Label("Control Flow Graph")
+@Category(Events.CATEGORY)
+@Description("Building the control flow graph of one method")
+@StackTrace(false)
+public final class ControlFlowGraphEvent extends jdk.jfr.Event {
+  @Label("File")
+  public String file;
+
+  @Label("Method")
+  public String method;
+
+  @Label("Statements")
+  public int statements;
+
+  @Label("Edges")
+  public int edges;
+}
@@ -0,0 +1,29 @@
+package edu.byu.cs329.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that many threads add to without contending on one variable.
+ */
+public final class Counter {
+  private final LongAdder adder = new LongAdder();
+
+  Counter() {
+  }
+
+  public void increment() {
+    adder.increment();
+  }
+
+  public void add(final long amount) {
+    adder.add(amount);
+  }
+
+  public long get() {
+    return adder.sum();
+  }
+
+  void reset() {
+    adder.reset();
+  }
+}
@@ -0,0 +1,75 @@
+package edu.byu.cs329.metrics;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+/**
+ * Names the file and method of a node for the JFR events.
+ *
+ * <p>The events are {@link ParseEvent}, {@link FoldEvent},
+ * {@link ControlFlowGraphEvent}, {@link ReachingDefinitionsEvent} and
+ * {@link PropagationRoundEvent}, all in the category
+ * {@value #CATEGORY}. They are enabled by default, so any recording that
+ * does not turn them off, such as one started with
+ * <code>-XX:StartFlightRecording</code> and the default settings, has them.
+ * Hooks begin an event only if {@link jdk.jfr.Event#isEnabled()} and set
+ * its fields and commit it only if {@link jdk.jfr.Event#shouldCommit()}, so
+ * a JVM that is not recording pays the allocation of the event and two
+ * checks.
+ *
+ * <p>The file is kept as a property of the compilation unit, set when it
+ * is parsed from a file, so every thread working on the tree can find it.
+ */
+public final class Events {
+  public static final String CATEGORY = "CS 329";
+
+  static final String FILE_PROPERTY = "edu.byu.cs329.file";
+
+  private Events() {
+  }
+
+  /**
+   * Records the file a tree was parsed from.
+   *
+   * @param root the root of the tree.
+   * @param file the name of the file.
+   */
+  public static void setFile(final ASTNode root, final String file) {
+    root.setProperty(FILE_PROPERTY, file);
+  }
+
+  /**
+   * Gets the file a node was parsed from.
+   *
+   * @param node a node.
+   * @return the file of the root of the tree, or "" if it was not parsed from a file.
+   */
+  public static String fileOf(final ASTNode node) {
+    Object file = node.getRoot().getProperty(FILE_PROPERTY);
+    return (file == null) ? "" : file.toString();
+  }
+
+  /**
+   * Gets the method that encloses a node.
+   *
+   * @param node a node.
+   * @return Type.method for the innermost enclosing method, or "" if there is none.
+   */
+  public static String methodOf(final ASTNode node) {
+    ASTNode current = node;
+    while (current != null && !(current instanceof MethodDeclaration)) {
+      current = current.getParent();
+    }
+    if (current == null) {
+      return "";
+    }
+    String method = ((MethodDeclaration) current).getName().getIdentifier();
+    for (ASTNode n = current.getParent(); n != null; n = n.getParent()) {
+      if (n instanceof AbstractTypeDeclaration) {
+        return ((AbstractTypeDeclaration) n).getName().getIdentifier() + "." + method;
+      }
+    }
+    return method;
+  }
+}
@@ -0,0 +1,34 @@
+package edu.byu.cs329.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call of a folding on a tree.
+ */
+@Name("edu.byu.cs329.Fold")
+@Label("Fold")
+@Category(Events.CATEGORY)
+@Description("One traversal of a folding over a subtree")
+@StackTrace(false)
+public final class FoldEvent extends jdk.jfr.Event {
+  @Label("File")
+  public String file;
+
+  @Label("Method")
+  @Description("The method enclosing the root of the fold, empty for a whole file")
+  public String method;
+
+  @Label("Folding")
+  public String folding;
+
+  @Label("Nodes Visited")
+  public int nodesVisited;
+
+  @Label("Folded")
+  @Description("True if some node was rewritten")
+  public boolean folded;
+}
@@ -0,0 +1,273 @@
+package edu.byu.cs329.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The counters and timers of the folding rules and the analysis phases.
+ *
+ * <p>Metrics are off by default and every hook checks {@link #isEnabled()}
+ * first, so a disabled run pays one volatile read per hook. Counters and
+ * timers are striped with {@link java.util.concurrent.atomic.LongAdder},
+ * so the parallel phases do not contend on them. They are created once by
+ * name and never removed, and {@link #reset()} zeroes them in place, so
+ * callers may keep them in static fields.
+ *
+ * <p>The names in use are
+ * <ul>
+ * <li><code>fold.rule.R</code>, <code>fold.rule.R.nodes</code> and
+ *     <code>fold.rule.R.folds</code>: the time rule R spent on the nodes it
+ *     was tried on, the number of those nodes and how many it rewrote,
+ * <li><code>fold.nodesVisited</code>: the nodes the folding traversals visited,
+ * <li><code>fold.fixpoint</code>, <code>fold.fixpoint.rounds</code> and
+ *     <code>fold.fixpoint.regions</code>: each folding fixpoint and the
+ *     rounds and regions it took,
+ * <li><code>cfg.build</code>, <code>cfg.nodes</code> and <code>cfg.edges</code>:
+ *     each control flow graph built and its size,
+ * <li><code>rd.solve</code> and <code>rd.iterations</code>: each reaching
+ *     definitions solve and the worklist items it processed,
+ * <li><code>propagation</code>, <code>propagation.passes</code>,
+ *     <code>propagation.rounds</code> and <code>propagation.replacements</code>:
+ *     each constant propagation and its passes, method rounds and rewrites.
+ * </ul>
+ *
+ * <p>Setting the system property {@value #ENABLED_PROPERTY} to true, or
+ * {@value #REPORT_PROPERTY} to a file, before a command line tool starts
+ * enables the metrics and publishes them over JMX as {@value #OBJECT_NAME}.
+ * With the report property the JSON of {@link #toJson()} is written to the
+ * file when the JVM exits.
+ */
+public final class Metrics {
+  public static final String ENABLED_PROPERTY = "cs329.metrics";
+  public static final String REPORT_PROPERTY = "cs329.metrics.report";
+  public static final String OBJECT_NAME = "edu.byu.cs329:type=Metrics";
+
+  private static final ConcurrentMap<String, Counter> counters =
+      new ConcurrentHashMap<String, Counter>();
+  private static final ConcurrentMap<String, Timer> timers =
+      new ConcurrentHashMap<String, Timer>();
+  private static volatile boolean enabled = false;
+  private static boolean registered = false;
+
+  private Metrics() {
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setEnabled(final boolean enabled) {
+    Metrics.enabled = enabled;
+  }
+
+  /**
+   * Gets the counter with a name, creating it if needed.
+   *
+   * @param name the name of the counter.
+   * @return the one counter with that name.
+   */
+  public static Counter counter(final String name) {
+    return counters.computeIfAbsent(name, n -> new Counter());
+  }
+
+  /**
+   * Gets the timer with a name, creating it if needed.
+   *
+   * @param name the name of the timer.
+   * @return the one timer with that name.
+   */
+  public static Timer timer(final String name) {
+    return timers.computeIfAbsent(name, n -> new Timer());
+  }
+
+  /**
+   * Zeroes every counter and timer.
+   */
+  public static void reset() {
+    for (Counter counter : counters.values()) {
+      counter.reset();
+    }
+    for (Timer timer : timers.values()) {
+      timer.reset();
+    }
+  }
+
+  /**
+   * Gets the value of every counter.
+   *
+   * @return the values by name in name order.
+   */
+  public static SortedMap<String, Long> getCounters() {
+    SortedMap<String, Long> values = new TreeMap<String, Long>();
+    for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+      values.put(entry.getKey(), entry.getValue().get());
+    }
+    return values;
+  }
+
+  /**
+   * Gets one value of every timer.
+   *
+   * @param value the value to get from a timer.
+   * @return the values by name in name order.
+   */
+  public static SortedMap<String, Long> getTimers(final ToLongFunction<Timer> value) {
+    SortedMap<String, Long> values = new TreeMap<String, Long>();
+    for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+      values.put(entry.getKey(), value.applyAsLong(entry.getValue()));
+    }
+    return values;
+  }
+
+  /**
+   * Writes every counter and timer as JSON.
+   *
+   * <p>The report is an object with a <code>counters</code> object of
+   * values by name and a <code>timers</code> object of
+   * <code>{"count", "totalNanos", "maxNanos"}</code> objects by name.
+   *
+   * @return the report.
+   */
+  public static String toJson() {
+    StringBuilder builder = new StringBuilder("{\n  \"counters\": {");
+    String separator = "\n";
+    for (Map.Entry<String, Long> entry : getCounters().entrySet()) {
+      builder.append(separator).append("    ");
+      appendString(builder, entry.getKey());
+      builder.append(": ").append(entry.getValue());
+      separator = ",\n";
+    }
+    builder.append("\n  },\n  \"timers\": {");
+    separator = "\n";
+    for (Map.Entry<String, Timer> entry : new TreeMap<String, Timer>(timers).entrySet()) {
+      Timer timer = entry.getValue();
+      builder.append(separator).append("    ");
+      appendString(builder, entry.getKey());
+      builder.append(": {\"count\": ").append(timer.getCount())
+          .append(", \"totalNanos\": ").append(timer.getTotalNanos())
+          .append(", \"maxNanos\": ").append(timer.getMaxNanos()).append('}');
+      separator = ",\n";
+    }
+    return builder.append("\n  }\n}\n").toString();
+  }
+
+  private static void appendString(StringBuilder builder, String value) {
+    builder.append('"');
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        builder.append('\\');
+      }
+      builder.append(c);
+    }
+    builder.append('"');
+  }
+
+  /**
+   * Writes the report of {@link #toJson()} to a file.
+   *
+   * @param file the file to write.
+   * @throws IOException if the file cannot be written.
+   */
+  public static void writeReport(final Path file) throws IOException {
+    Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Publishes the metrics on the platform MBean server once.
+   *
+   * @throws JMException if the MBean cannot be registered.
+   */
+  public static synchronized void registerMBean() throws JMException {
+    if (registered) {
+      return;
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    server.registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+    registered = true;
+  }
+
+  /**
+   * Enables the metrics as the system properties ask.
+   *
+   * <p>Does nothing unless {@value #ENABLED_PROPERTY} is true or
+   * {@value #REPORT_PROPERTY} names a file. Otherwise enables the metrics,
+   * publishes them over JMX and, for a report, writes it when the JVM exits.
+   */
+  public static void configureFromSystemProperties() {
+    String report = System.getProperty(REPORT_PROPERTY);
+    if (!Boolean.getBoolean(ENABLED_PROPERTY) && report == null) {
+      return;
+    }
+    setEnabled(true);
+    try {
+      registerMBean();
+    } catch (JMException e) {
+      e.printStackTrace();
+    }
+    if (report != null) {
+      Path file = Path.of(report);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          writeReport(file);
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }, "metrics-report"));
+    }
+  }
+
+  static final class Bean implements MetricsMxBean {
+    @Override
+    public boolean isEnabled() {
+      return Metrics.isEnabled();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+      Metrics.setEnabled(enabled);
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+      return Metrics.getCounters();
+    }
+
+    @Override
+    public Map<String, Long> getTimerCounts() {
+      return Metrics.getTimers(Timer::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getTimerTotalNanos() {
+      return Metrics.getTimers(Timer::getTotalNanos);
+    }
+
+    @Override
+    public Map<String, Long> getTimerMaxNanos() {
+      return Metrics.getTimers(Timer::getMaxNanos);
+    }
+
+    @Override
+    public String getReport() {
+      return Metrics.toJson();
+    }
+
+    @Override
+    public void reset() {
+      Metrics.reset();
+    }
+  }
+}
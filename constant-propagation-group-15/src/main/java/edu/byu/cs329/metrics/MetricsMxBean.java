@@ -0,0 +1,31 @@
+package edu.byu.cs329.metrics;
+
+import java.util.Map;
+import javax.management.MXBean;
+
+/**
+ * The view of {@link Metrics} published over JMX.
+ */
+@MXBean
+public interface MetricsMxBean {
+  public boolean isEnabled();
+
+  public void setEnabled(boolean enabled);
+
+  public Map<String, Long> getCounters();
+
+  public Map<String, Long> getTimerCounts();
+
+  public Map<String, Long> getTimerTotalNanos();
+
+  public Map<String, Long> getTimerMaxNanos();
+
+  /**
+   * Gets the report that {@link Metrics#writeReport} writes.
+   *
+   * @return every counter and timer as JSON.
+   */
+  public String getReport();
+
+  public void reset();
+}
@@ -0,0 +1,30 @@
+package edu.byu.cs329.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The parse of one source into a compilation unit.
+ */
+@Name("edu.byu.cs329.Parse")
+@Label("Parse")
+@Category(Events.CATEGORY)
+@Description("Parsing of one source file into a JDT compilation unit")
+public final class ParseEvent extends jdk.jfr.Event {
+  @Label("File")
+  public String file;
+
+  @Label("Source Size")
+  @DataAmount
+  public long bytes;
+
+  @Label("Types")
+  public int types;
+
+  @Label("Problems")
+  @Description("Syntax errors the parser recovered from")
+  public int problems;
+}
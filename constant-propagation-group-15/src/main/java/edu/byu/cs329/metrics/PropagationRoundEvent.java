@@ -0,0 +1,32 @@
+package edu.byu.cs329.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One pass of constant propagation over the methods still on its worklist.
+ */
+@Name("edu.byu.cs329.PropagationRound")
+@Label("Propagation Round")
+@Category(Events.CATEGORY)
+@Description("Analyzing, rewriting and folding every method still on the worklist once")
+public final class PropagationRoundEvent extends jdk.jfr.Event {
+  @Label("File")
+  public String file;
+
+  @Label("Pass")
+  public int pass;
+
+  @Label("Methods")
+  @Description("Methods analyzed in this pass")
+  public int methods;
+
+  @Label("Replacements")
+  public int replacements;
+
+  @Label("Changed Methods")
+  @Description("Methods left on the worklist for the next pass")
+  public int changedMethods;
+}
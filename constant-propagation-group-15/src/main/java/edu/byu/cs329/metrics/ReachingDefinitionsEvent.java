@@ -0,0 +1,37 @@
+package edu.byu.cs329.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One solve of reaching definitions for a method.
+ */
+@Name("edu.byu.cs329.ReachingDefinitions")
+@Label("Reaching Definitions")
+@Category(Events.CATEGORY)
+@Description("Solving or re-solving reaching definitions for one method")
+@StackTrace(false)
+public final class ReachingDefinitionsEvent extends jdk.jfr.Event {
+  @Label("File")
+  public String file;
+
+  @Label("Method")
+  public String method;
+
+  @Label("Statements")
+  public int statements;
+
+  @Label("Definitions")
+  public int definitions;
+
+  @Label("Iterations")
+  @Description("Worklist items processed, statements or basic blocks")
+  public int iterations;
+
+  @Label("By Block")
+  @Description("True if solved over basic blocks rather than statements")
+  public boolean byBlock;
+}
@@ -0,0 +1,50 @@
+package edu.byu.cs329.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The number, total and longest of the durations of some piece of work.
+ *
+ * <p>Callers measure with {@link System#nanoTime()} and record the
+ * difference, so nothing is allocated per measurement.
+ */
+public final class Timer {
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+  Timer() {
+  }
+
+  /**
+   * Records one duration.
+   *
+   * @requires nanos >= 0
+   *
+   * @param nanos the duration in nanoseconds.
+   */
+  public void record(final long nanos) {
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  void reset() {
+    count.reset();
+    totalNanos.reset();
+    maxNanos.reset();
+  }
+}
@@ -0,0 +1,47 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.constantfolding.FoldingListener;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Collects the statements a folding rewrites in place.
+ *
+ * <p>Each replaced or removed child is mapped to the nearest statement that
+ * encloses it, which is the statement whose definitions may have changed.
+ * The set is the input to {@link IncrementalReachingDefinitions#update}.
+ */
+public final class ChangedStatements implements FoldingListener {
+  private final Set<Statement> statements =
+      Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+
+  @Override
+  public void didReplace(final ASTNode parent) {
+    ASTNode node = parent;
+    while (node != null && !(node instanceof Statement)) {
+      node = node.getParent();
+    }
+    if (node != null) {
+      statements.add((Statement) node);
+    }
+  }
+
+  /**
+   * Gets the statements collected so far.
+   *
+   * @return the statements, compared by identity.
+   */
+  public Set<Statement> getStatements() {
+    return Collections.unmodifiableSet(statements);
+  }
+
+  /**
+   * Forgets the statements collected so far.
+   */
+  public void clear() {
+    statements.clear();
+  }
+}
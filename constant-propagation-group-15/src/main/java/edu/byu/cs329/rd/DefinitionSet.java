@@ -0,0 +1,56 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only view of a shared bit set as definitions in id order.
+ */
+final class DefinitionSet extends AbstractSet<Definition> {
+  private final DefinitionTable table;
+  private final SharedBitSet bits;
+
+  DefinitionSet(DefinitionTable table, SharedBitSet bits) {
+    this.table = table;
+    this.bits = bits;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof Definition)) {
+      return false;
+    }
+    Definition definition = (Definition) o;
+    Definition canonical = table.get(definition.statement, definition.name.getIdentifier());
+    return canonical != null && bits.get(canonical.id);
+  }
+
+  @Override
+  public Iterator<Definition> iterator() {
+    return new Iterator<Definition>() {
+      int next = bits.nextSetBit(0);
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public Definition next() {
+        if (next < 0) {
+          throw new NoSuchElementException();
+        }
+        Definition definition = table.get(next);
+        next = bits.nextSetBit(next + 1);
+        return definition;
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return bits.cardinality();
+  }
+}
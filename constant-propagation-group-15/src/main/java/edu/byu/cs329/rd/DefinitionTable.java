@@ -0,0 +1,94 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * The canonical definitions of one method, numbered densely from 0.
+ *
+ * <p>A definition is keyed by its identifier and defining statement, with
+ * a null statement for a parameter. Interning the same key again returns
+ * the same instance, so definitions can be compared by reference and
+ * their ids used as bit positions. Ids are never reused: a definition
+ * removed by an incremental update keeps its id but can no longer be
+ * found by key.
+ */
+public final class DefinitionTable {
+  private final List<Definition> definitionList = new ArrayList<Definition>();
+  private final Map<Statement, Map<String, Definition>> definitions =
+      new IdentityHashMap<Statement, Map<String, Definition>>();
+
+  /**
+   * Gets the definition for a key, creating it on first use.
+   *
+   * @param name the defined name; its identifier is part of the key.
+   * @param statement the defining statement, or null for a parameter.
+   * @return the canonical definition, with the name it was first interned with.
+   */
+  Definition intern(final SimpleName name, final Statement statement) {
+    Map<String, Definition> statementDefinitions =
+        definitions.computeIfAbsent(statement, s -> new HashMap<String, Definition>());
+    Definition definition = statementDefinitions.get(name.getIdentifier());
+    if (definition == null) {
+      definition = new Definition(definitionList.size(), name, statement);
+      definitionList.add(definition);
+      statementDefinitions.put(name.getIdentifier(), definition);
+    }
+    return definition;
+  }
+
+  /**
+   * Removes the definition for a key.
+   *
+   * @param statement the defining statement.
+   * @param identifier the variable.
+   */
+  void remove(final Statement statement, final String identifier) {
+    Map<String, Definition> statementDefinitions = definitions.get(statement);
+    if (statementDefinitions != null) {
+      statementDefinitions.remove(identifier);
+    }
+  }
+
+  /**
+   * Gets the number of definitions.
+   *
+   * @return the number of ids given out, 0..size()-1.
+   */
+  public int size() {
+    return definitionList.size();
+  }
+
+  /**
+   * Gets a definition by id.
+   *
+   * @requires 0 <= id < size()
+   *
+   * @param id the id.
+   * @return the definition.
+   */
+  public Definition get(final int id) {
+    return definitionList.get(id);
+  }
+
+  /**
+   * Gets a definition by key.
+   *
+   * @param statement the defining statement, or null for a parameter.
+   * @param identifier the variable.
+   * @return the canonical definition, or null if there is none.
+   */
+  public Definition get(final Statement statement, final String identifier) {
+    Map<String, Definition> statementDefinitions = definitions.get(statement);
+    if (statementDefinitions == null) {
+      return null;
+    }
+    return statementDefinitions.get(identifier);
+  }
+}
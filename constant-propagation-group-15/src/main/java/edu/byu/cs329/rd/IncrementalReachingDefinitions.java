@@ -0,0 +1,73 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.Collection;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Reaching definitions that follow rewrites of their method.
+ *
+ * <p>After the method is rewritten, {@link #update} is given the new
+ * control flow graph and the statements that were rewritten in place, for
+ * example from a {@link ChangedStatements} listener on the folding. Deleted
+ * statements and branches need not be listed: they show up as statements
+ * whose predecessors changed. Only the affected region is re-solved, and the
+ * result is the same as a {@link ReachingDefinitionsBuilder#build} of the
+ * new graph. Definition ids stay stable across updates.
+ */
+public final class IncrementalReachingDefinitions implements ReachingDefinitions {
+  private final ReachingDefinitionsSolver solver;
+  private ReachingDefinitions current;
+
+  IncrementalReachingDefinitions(ReachingDefinitionsSolver solver, ControlFlowGraph cfg) {
+    this.solver = solver;
+    this.current = solver.solve(cfg);
+  }
+
+  /**
+   * Updates the definitions after a rewrite of the method.
+   *
+   * @requires cfg was built for the rewritten method
+   * @requires every statement still in the method whose definitions may have
+   *     changed is in changedStatements
+   *
+   * @param cfg the control flow graph of the rewritten method.
+   * @param changedStatements the statements rewritten in place.
+   */
+  public void update(final ControlFlowGraph cfg, final Collection<Statement> changedStatements) {
+    ExceptionUtils.requiresNonNull(changedStatements,
+        "Null changed statements passed to IncrementalReachingDefinitions");
+    current = solver.update(cfg, changedStatements);
+  }
+
+  /**
+   * Gets the number of statements re-solved.
+   *
+   * @return the number of statements solved by the last update, or by the
+   *     first solve if there was no update.
+   */
+  public int getStatementsSolved() {
+    return solver.getStatementsSolved();
+  }
+
+  /**
+   * Gets the number of statements in the method.
+   *
+   * @return the number of statements in the graph last solved.
+   */
+  public int getStatementCount() {
+    return solver.getStatementCount();
+  }
+
+  @Override
+  public Set<Definition> getReachingDefinitions(final Statement s) {
+    return current.getReachingDefinitions(s);
+  }
+
+  @Override
+  public DefinitionTable getDefinitionTable() {
+    return current.getDefinitionTable();
+  }
+}
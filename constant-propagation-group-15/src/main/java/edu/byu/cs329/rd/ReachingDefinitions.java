@@ -6,11 +6,61 @@ import org.eclipse.jdt.core.dom.Statement;
 
 public interface ReachingDefinitions {
   
-  public static class Definition { 
-    public SimpleName name;
-    public Statement statement;
+  /**
+   * A definition of a variable at a statement, or at entry when the
+   * statement is null.
+   * 
+   * <p>Definitions are interned by a {@link DefinitionTable}, so within one
+   * method there is one instance for each identifier and statement, and
+   * its id is the bit that stands for it in the entry sets. Two
+   * definitions are equal if they define the same identifier at the same
+   * statement.
+   */
+  public static final class Definition { 
+    public final SimpleName name;
+    public final Statement statement;
+    public final int id;
+
+    Definition(int id, SimpleName name, Statement statement) {
+      this.id = id;
+      this.name = name;
+      this.statement = statement;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Definition)) {
+        return false;
+      }
+      Definition other = (Definition) o;
+      return statement == other.statement
+          && name.getIdentifier().equals(other.name.getIdentifier());
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(statement) + name.getIdentifier().hashCode();
+    }
   }
   
+  /**
+   * Gets the definitions that reach the entry of a statement.
+   * 
+   * <p>Statements with the same entry set share one immutable set.
+   * 
+   * @param s the statement.
+   * @return the definitions, or null if s is not in the graph.
+   */
   public Set<Definition> getReachingDefinitions(final Statement s);
+
+  /**
+   * Gets the interned definitions of the method.
+   * 
+   * @return the table that numbers every definition in the entry sets.
+   */
+  public DefinitionTable getDefinitionTable();
 }
 
@@ -1,86 +1,63 @@
 package edu.byu.cs329.rd;
 
 import edu.byu.cs329.cfg.ControlFlowGraph;
-import edu.byu.cs329.rd.ReachingDefinitions.Definition;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import org.eclipse.jdt.core.dom.MethodDeclaration;
+import java.util.stream.Collectors;
 import org.eclipse.jdt.core.dom.SimpleName;
-import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
 
 
 public class ReachingDefinitionsBuilder {
-  private List<ReachingDefinitions> rdList = null;
-  private Map<Statement, Set<Definition>> entrySetMap = null;
 
   /**
    * Computes the reaching definitions for each control flow graph.
    * 
+   * <p>The builder keeps no state between graphs, so the graphs are solved
+   * in parallel and one builder may be shared between threads.
+   * 
    * @param cfgList the list of control flow graphs.
    * @return the coresponding reaching definitions for each graph.
    */
   public List<ReachingDefinitions> build(List<ControlFlowGraph> cfgList) {
-    rdList = new ArrayList<ReachingDefinitions>();
-    for (ControlFlowGraph cfg : cfgList) {
-      ReachingDefinitions rd = computeReachingDefinitions(cfg);
-      rdList.add(rd);
-    }
-    return rdList;
-  }
-
-  private ReachingDefinitions computeReachingDefinitions(ControlFlowGraph cfg) {
-    Set<Definition> parameterDefinitions = createParameterDefinitions(cfg.getMethodDeclaration());
-    entrySetMap = new HashMap<Statement, Set<Definition>>();
-    
-    Statement start = cfg.getStart();
-    entrySetMap.put(start, parameterDefinitions);
-    // TODO: implement reaching definitions
-    
-    return new ReachingDefinitions() {
-      final Map<Statement, Set<Definition>> reachingDefinitions = 
-          Collections.unmodifiableMap(entrySetMap);
-
-      @Override 
-      public Set<Definition> getReachingDefinitions(final Statement s) {
-        Set<Definition> returnValue = null;
-        if (reachingDefinitions.containsKey(s)) {
-          returnValue = reachingDefinitions.get(s);
-        }
-        return returnValue;
-      }
-    };
+    return cfgList.parallelStream()
+        .map(this::build)
+        .collect(Collectors.toList());
   }
 
-  private Set<Definition> createParameterDefinitions(MethodDeclaration methodDeclaration) {
-    List<VariableDeclaration> parameterList = 
-        getParameterList(methodDeclaration.parameters());
-    Set<Definition> set = new HashSet<Definition>();
-
-    for (VariableDeclaration parameter : parameterList) {
-      Definition definition = createDefinition(parameter.getName(), null);
-      set.add(definition);  
-    }
-
-    return set;
+  /**
+   * Computes the reaching definitions for one control flow graph.
+   * 
+   * <p>A definition is a parameter or a definition found by
+   * {@link VariableAccess#collect}. The equations are solved over basic
+   * blocks, and the sets of the statements in a block are computed when
+   * one of them is first asked for.
+   * 
+   * @param cfg the control flow graph.
+   * @return the reaching definitions for the graph.
+   */
+  public ReachingDefinitions build(ControlFlowGraph cfg) {
+    return newSolver(cfg).solveByBlock(cfg);
   }
 
-  private Definition createDefinition(SimpleName name, Statement statement) {
-    Definition definition = new Definition();
-    definition.name = name;
-    definition.statement = statement;
-    return definition;
+  /**
+   * Computes the reaching definitions for one control flow graph and keeps
+   * the solver state for later updates.
+   * 
+   * @param cfg the control flow graph.
+   * @return the reaching definitions for the graph, which can be updated
+   *     after the method is rewritten.
+   */
+  public IncrementalReachingDefinitions buildIncremental(ControlFlowGraph cfg) {
+    return new IncrementalReachingDefinitions(newSolver(cfg), cfg);
   }
 
-  private List<VariableDeclaration> getParameterList(Object list) {
-    @SuppressWarnings("unchecked")
-    List<VariableDeclaration> statementList = (List<VariableDeclaration>)(list);
-    return statementList;
+  private static ReachingDefinitionsSolver newSolver(ControlFlowGraph cfg) {
+    List<SimpleName> parameterNames = new ArrayList<SimpleName>();
+    for (Object parameter : cfg.getMethodDeclaration().parameters()) {
+      parameterNames.add(((VariableDeclaration) parameter).getName());
+    }
+    return new ReachingDefinitionsSolver(parameterNames);
   }
 }
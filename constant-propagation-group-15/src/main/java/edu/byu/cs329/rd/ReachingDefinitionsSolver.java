@@ -0,0 +1,500 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.cfg.BasicBlockGraph;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.IndexedControlFlowGraph;
+import edu.byu.cs329.metrics.Counter;
+import edu.byu.cs329.metrics.Events;
+import edu.byu.cs329.metrics.Metrics;
+import edu.byu.cs329.metrics.ReachingDefinitionsEvent;
+import edu.byu.cs329.metrics.Timer;
+import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Solves reaching definitions for one control flow graph with shared bit sets.
+ *
+ * <p>Every definition in the method is interned in a
+ * {@link DefinitionTable}, parameters first. A statement generates the
+ * last definition it makes of each variable and kills every definition of
+ * the variables it defines. The kill mask of a variable is stored sparsely
+ * as the words that hold its definitions, so the masks take space in
+ * proportion to the definitions, not to definitions times variables.
+ *
+ * <p>Entry and exit sets are {@link SharedBitSet}s: a statement with one
+ * predecessor reuses that predecessor's exit set, and a statement that
+ * defines nothing reuses its entry set, so straight-line code shares all
+ * but the chunks that change. The equations are solved with a worklist
+ * that always takes the lowest statement id, which is reverse postorder.
+ *
+ * <p>The solver keeps its state, keyed by statement identity, so that
+ * {@link #update} can re-solve only the statements a rewrite affects: the
+ * changed statements whose definitions differ, statements new to the graph,
+ * statements whose predecessors differ, and everything reachable from
+ * those. Every other statement keeps its sets, since nothing that flows
+ * into it changed. The region's exits are reset to empty before solving,
+ * so the update reaches the same least solution as solving from scratch.
+ *
+ * <p>{@link #solveByBlock} instead solves over the {@link BasicBlockGraph}
+ * of the method. The gen and kill of a block are those of its statements
+ * composed in order: the block kills every variable one of them defines
+ * and generates the last definition of each. The entry sets of the
+ * statements of a block are recovered by a forward scan the first time one
+ * of them is asked for.
+ */
+final class ReachingDefinitionsSolver {
+  static final Timer SOLVE_TIME = Metrics.timer("rd.solve");
+  static final Counter ITERATIONS = Metrics.counter("rd.iterations");
+
+  private final DefinitionTable table = new DefinitionTable();
+  private final Map<String, Integer> variableIds = new HashMap<String, Integer>();
+  private final List<String> variables = new ArrayList<String>();
+  private final List<KillMask> killMasks = new ArrayList<KillMask>();
+  private final SharedBitSet parameterBits;
+  private IndexedControlFlowGraph cfg = null;
+  private int[][] genDefinitions;
+  private int[][] killVariables;
+  private SharedBitSet[] entries;
+  private SharedBitSet[] exits;
+  private int statementsSolved = 0;
+
+  /**
+   * The definitions of one variable as sparse words of a bit set.
+   */
+  private static final class KillMask {
+    private int[] words = new int[1];
+    private long[] bits = new long[1];
+    private int size = 0;
+
+    void add(int definition) {
+      int word = definition >>> 6;
+      if (size == 0 || words[size - 1] != word) {
+        if (size == words.length) {
+          words = Arrays.copyOf(words, size * 2);
+          bits = Arrays.copyOf(bits, size * 2);
+        }
+        words[size++] = word;
+      }
+      bits[size - 1] |= 1L << definition;
+    }
+  }
+
+  /**
+   * Interns the parameter definitions.
+   *
+   * @param parameterNames the names of the parameters, which are defined at the start.
+   */
+  ReachingDefinitionsSolver(List<SimpleName> parameterNames) {
+    for (SimpleName name : parameterNames) {
+      intern(name, null);
+    }
+    SharedBitSet.Editor editor = SharedBitSet.empty(table.size()).edit();
+    for (int d = 0; d < table.size(); ++d) {
+      editor.set(d);
+    }
+    parameterBits = editor.build();
+  }
+
+  /**
+   * Solves the dataflow equations for every statement of a graph.
+   *
+   * @param cfg the control flow graph.
+   * @return the reaching definitions at entry to each statement.
+   */
+  ReachingDefinitions solve(ControlFlowGraph cfg) {
+    return update(cfg, null);
+  }
+
+  /**
+   * Re-solves the dataflow equations after a rewrite of the method.
+   *
+   * @requires every statement whose definitions may differ from the last
+   *     solve is in changedStatements or is new to cfg
+   *
+   * @param cfg the control flow graph of the rewritten method.
+   * @param changedStatements the statements rewritten in place, or null
+   *     to rescan every statement.
+   * @return the reaching definitions at entry to each statement of cfg.
+   */
+  ReachingDefinitions update(ControlFlowGraph cfg, Collection<Statement> changedStatements) {
+    ReachingDefinitionsEvent event = new ReachingDefinitionsEvent();
+    if (event.isEnabled()) {
+      event.begin();
+    }
+    final long start = System.nanoTime();
+    IndexedControlFlowGraph next = IndexedControlFlowGraph.of(cfg);
+    Set<Statement> changed = null;
+    if (changedStatements != null) {
+      changed = Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+      changed.addAll(changedStatements);
+    }
+    int size = next.size();
+    int[][] nextGen = new int[size][];
+    int[][] nextKill = new int[size][];
+    SharedBitSet[] nextEntries = new SharedBitSet[size];
+    SharedBitSet[] nextExits = new SharedBitSet[size];
+    BitSet seeds = new BitSet(size);
+    for (int s = 0; s < size; ++s) {
+      Statement statement = next.statement(s);
+      int old = (this.cfg == null) ? -1 : this.cfg.id(statement);
+      if (old < 0 || changed == null || changed.contains(statement)) {
+        int[] oldKill = (old < 0) ? null : killVariables[old];
+        scan(statement, s, oldKill, nextGen, nextKill);
+        if (old < 0 || !Arrays.equals(nextGen[s], genDefinitions[old])) {
+          seeds.set(s);
+        }
+      } else {
+        nextGen[s] = genDefinitions[old];
+        nextKill[s] = killVariables[old];
+      }
+      if (old < 0 || (s == 0) != (old == 0) || !hasSamePredecessors(next, s, old)) {
+        seeds.set(s);
+      }
+      if (old >= 0) {
+        nextEntries[s] = entries[old];
+        nextExits[s] = exits[old];
+      }
+    }
+
+    BitSet region = reachableFrom(next, seeds);
+    SharedBitSet empty = SharedBitSet.empty(table.size());
+    for (int s = region.nextSetBit(0); s >= 0; s = region.nextSetBit(s + 1)) {
+      nextExits[s] = empty;
+    }
+    this.cfg = next;
+    genDefinitions = nextGen;
+    killVariables = nextKill;
+    entries = nextEntries;
+    exits = nextExits;
+    statementsSolved = region.cardinality();
+
+    BitSet worklist = region;
+    int iterations = 0;
+    for (int s = worklist.nextSetBit(0); s >= 0; s = worklist.nextSetBit(0)) {
+      worklist.clear(s);
+      ++iterations;
+      SharedBitSet entry = computeEntry(s, empty);
+      entries[s] = entry;
+      SharedBitSet exit = transfer(s, entry);
+      if (!exit.sameBits(exits[s])) {
+        exits[s] = exit;
+        for (int k = 0; k < next.succCount(s); ++k) {
+          worklist.set(next.succId(s, k));
+        }
+      }
+    }
+    record(event, start, next, iterations, false);
+    return newReachingDefinitions();
+  }
+
+  /**
+   * Solves the dataflow equations over the basic blocks of a graph.
+   *
+   * <p>The result cannot be updated: a solver is used either for this or
+   * for {@link #solve} and {@link #update}.
+   *
+   * @param cfg the control flow graph.
+   * @return the reaching definitions at entry to each statement.
+   */
+  ReachingDefinitions solveByBlock(ControlFlowGraph cfg) {
+    ReachingDefinitionsEvent event = new ReachingDefinitionsEvent();
+    if (event.isEnabled()) {
+      event.begin();
+    }
+    final long start = System.nanoTime();
+    BasicBlockGraph blocks = BasicBlockGraph.of(cfg);
+    IndexedControlFlowGraph graph = blocks.getGraph();
+    int size = graph.size();
+    int[][] gen = new int[size][];
+    int[][] kill = new int[size][];
+    for (int s = 0; s < size; ++s) {
+      scan(graph.statement(s), s, null, gen, kill);
+    }
+
+    int blockCount = blocks.size();
+    int[][] blockGen = new int[blockCount][];
+    int[][] blockKill = new int[blockCount][];
+    for (int b = 0; b < blockCount; ++b) {
+      Map<Integer, Integer> lastDefinitions = new LinkedHashMap<Integer, Integer>();
+      for (int k = 0; k < blocks.statementCount(b); ++k) {
+        int s = blocks.statementId(b, k);
+        for (int i = 0; i < kill[s].length; ++i) {
+          lastDefinitions.put(kill[s][i], gen[s][i]);
+        }
+      }
+      blockKill[b] = toArray(lastDefinitions.keySet());
+      blockGen[b] = toArray(lastDefinitions.values());
+    }
+
+    SharedBitSet empty = SharedBitSet.empty(table.size());
+    SharedBitSet[] blockEntries = new SharedBitSet[blockCount];
+    SharedBitSet[] blockExits = new SharedBitSet[blockCount];
+    Arrays.fill(blockExits, empty);
+    BitSet worklist = new BitSet(blockCount);
+    worklist.set(0, blockCount);
+    int iterations = 0;
+    for (int b = worklist.nextSetBit(0); b >= 0; b = worklist.nextSetBit(0)) {
+      worklist.clear(b);
+      ++iterations;
+      SharedBitSet entry = (b == 0) ? parameterBits : null;
+      for (int k = 0; k < blocks.predCount(b); ++k) {
+        SharedBitSet exit = blockExits[blocks.predId(b, k)];
+        entry = (entry == null) ? exit : entry.union(exit);
+      }
+      entry = (entry == null) ? empty : entry;
+      blockEntries[b] = entry;
+      SharedBitSet exit = transfer(blockGen[b], blockKill[b], entry);
+      if (!exit.sameBits(blockExits[b])) {
+        blockExits[b] = exit;
+        for (int k = 0; k < blocks.succCount(b); ++k) {
+          worklist.set(blocks.succId(b, k));
+        }
+      }
+    }
+    record(event, start, graph, iterations, true);
+    return new BlockReachingDefinitions(blocks, blockEntries, gen, kill);
+  }
+
+  private void record(ReachingDefinitionsEvent event, long start,
+      IndexedControlFlowGraph graph, int iterations, boolean byBlock) {
+    if (Metrics.isEnabled()) {
+      SOLVE_TIME.record(System.nanoTime() - start);
+      ITERATIONS.add(iterations);
+    }
+    if (event.shouldCommit()) {
+      event.file = Events.fileOf(graph.getMethodDeclaration());
+      event.method = Events.methodOf(graph.getMethodDeclaration());
+      event.statements = graph.size();
+      event.definitions = table.size();
+      event.iterations = iterations;
+      event.byBlock = byBlock;
+      event.commit();
+    }
+  }
+
+  /**
+   * The entry sets of the statements of a block, scanned on demand.
+   */
+  private final class BlockReachingDefinitions implements ReachingDefinitions {
+    private final BasicBlockGraph blocks;
+    private final SharedBitSet[] blockEntries;
+    private final int[][] gen;
+    private final int[][] kill;
+    private final List<List<Set<Definition>>> scanned;
+    private final Map<SharedBitSet, Set<Definition>> views =
+        new IdentityHashMap<SharedBitSet, Set<Definition>>();
+
+    BlockReachingDefinitions(BasicBlockGraph blocks, SharedBitSet[] blockEntries,
+        int[][] gen, int[][] kill) {
+      this.blocks = blocks;
+      this.blockEntries = blockEntries;
+      this.gen = gen;
+      this.kill = kill;
+      scanned = new ArrayList<List<Set<Definition>>>(
+          Collections.nCopies(blocks.size(), (List<Set<Definition>>) null));
+    }
+
+    @Override
+    public synchronized Set<Definition> getReachingDefinitions(final Statement s) {
+      int id = blocks.getGraph().id(s);
+      if (id < 0) {
+        return null;
+      }
+      int b = blocks.blockOf(id);
+      List<Set<Definition>> entrySets = scanned.get(b);
+      if (entrySets == null) {
+        entrySets = new ArrayList<Set<Definition>>(blocks.statementCount(b));
+        SharedBitSet entry = blockEntries[b];
+        for (int k = 0; k < blocks.statementCount(b); ++k) {
+          entrySets.add(views.computeIfAbsent(entry, bits -> new DefinitionSet(table, bits)));
+          int statement = blocks.statementId(b, k);
+          entry = transfer(gen[statement], kill[statement], entry);
+        }
+        scanned.set(b, entrySets);
+      }
+      return entrySets.get(blocks.position(id));
+    }
+
+    @Override
+    public DefinitionTable getDefinitionTable() {
+      return table;
+    }
+  }
+
+  /**
+   * Gets the size of the last solve.
+   *
+   * @return the number of statements solved by the last call to solve or update.
+   */
+  int getStatementsSolved() {
+    return statementsSolved;
+  }
+
+  /**
+   * Gets the size of the graph.
+   *
+   * @return the number of statements in the graph last solved.
+   */
+  int getStatementCount() {
+    return (cfg == null) ? 0 : cfg.size();
+  }
+
+  private void scan(Statement statement, int s, int[] oldKill, int[][] gen, int[][] kill) {
+    Map<Integer, SimpleName> lastNames = new LinkedHashMap<Integer, SimpleName>();
+    for (SimpleName name : VariableAccess.collectDefinedNames(statement)) {
+      lastNames.put(getVariableId(name.getIdentifier()), name);
+    }
+    if (oldKill != null) {
+      for (int v : oldKill) {
+        if (!lastNames.containsKey(v)) {
+          table.remove(statement, variables.get(v));
+        }
+      }
+    }
+    List<Integer> definitions = new ArrayList<Integer>();
+    for (SimpleName name : lastNames.values()) {
+      Definition definition = table.get(statement, name.getIdentifier());
+      if (definition == null || definition.name != name) {
+        table.remove(statement, name.getIdentifier());
+        definition = intern(name, statement);
+      }
+      definitions.add(definition.id);
+    }
+    kill[s] = toArray(lastNames.keySet());
+    gen[s] = toArray(definitions);
+  }
+
+  private Definition intern(SimpleName name, Statement statement) {
+    int size = table.size();
+    Definition definition = table.intern(name, statement);
+    if (definition.id == size) {
+      killMasks.get(getVariableId(name.getIdentifier())).add(definition.id);
+    }
+    return definition;
+  }
+
+  private boolean hasSamePredecessors(IndexedControlFlowGraph next, int s, int old) {
+    int count = next.predCount(s);
+    if (count != cfg.predCount(old)) {
+      return false;
+    }
+    for (int k = 0; k < count; ++k) {
+      int pred = cfg.id(next.statement(next.predId(s, k)));
+      boolean found = false;
+      for (int j = 0; !found && j < count; ++j) {
+        found = cfg.predId(old, j) == pred;
+      }
+      if (!found) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static BitSet reachableFrom(IndexedControlFlowGraph graph, BitSet seeds) {
+    BitSet reached = (BitSet) seeds.clone();
+    int[] stack = new int[graph.size()];
+    int top = 0;
+    for (int s = seeds.nextSetBit(0); s >= 0; s = seeds.nextSetBit(s + 1)) {
+      stack[top++] = s;
+    }
+    while (top > 0) {
+      int s = stack[--top];
+      for (int k = 0; k < graph.succCount(s); ++k) {
+        int succ = graph.succId(s, k);
+        if (!reached.get(succ)) {
+          reached.set(succ);
+          stack[top++] = succ;
+        }
+      }
+    }
+    return reached;
+  }
+
+  private ReachingDefinitions newReachingDefinitions() {
+    final IndexedControlFlowGraph graph = cfg;
+    Map<SharedBitSet, Set<Definition>> views =
+        new IdentityHashMap<SharedBitSet, Set<Definition>>();
+    List<Set<Definition>> entrySets = new ArrayList<Set<Definition>>(entries.length);
+    for (SharedBitSet entry : entries) {
+      entrySets.add(views.computeIfAbsent(entry, bits -> new DefinitionSet(table, bits)));
+    }
+    return new ReachingDefinitions() {
+      @Override
+      public Set<Definition> getReachingDefinitions(final Statement s) {
+        int id = graph.id(s);
+        if (id < 0) {
+          return null;
+        }
+        return entrySets.get(id);
+      }
+
+      @Override
+      public DefinitionTable getDefinitionTable() {
+        return table;
+      }
+    };
+  }
+
+  private SharedBitSet computeEntry(int s, SharedBitSet empty) {
+    SharedBitSet entry = (s == 0) ? parameterBits : null;
+    for (int k = 0; k < cfg.predCount(s); ++k) {
+      SharedBitSet exit = exits[cfg.predId(s, k)];
+      entry = (entry == null) ? exit : entry.union(exit);
+    }
+    return (entry == null) ? empty : entry;
+  }
+
+  private SharedBitSet transfer(int s, SharedBitSet entry) {
+    return transfer(genDefinitions[s], killVariables[s], entry);
+  }
+
+  private SharedBitSet transfer(int[] gen, int[] kill, SharedBitSet entry) {
+    if (gen.length == 0) {
+      return entry;
+    }
+    SharedBitSet.Editor editor = entry.edit();
+    for (int v : kill) {
+      KillMask mask = killMasks.get(v);
+      for (int i = 0; i < mask.size; ++i) {
+        editor.clear(mask.words[i], mask.bits[i]);
+      }
+    }
+    for (int d : gen) {
+      editor.set(d);
+    }
+    return editor.build();
+  }
+
+  private int getVariableId(String identifier) {
+    Integer id = variableIds.get(identifier);
+    if (id == null) {
+      id = variableIds.size();
+      variableIds.put(identifier, id);
+      variables.add(identifier);
+      killMasks.add(new KillMask());
+    }
+    return id;
+  }
+
+  private static int[] toArray(Collection<Integer> values) {
+    int[] array = new int[values.size()];
+    int i = 0;
+    for (int value : values) {
+      array[i++] = value;
+    }
+    return array;
+  }
+}
@@ -0,0 +1,241 @@
+package edu.byu.cs329.rd;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of definition ids that shares storage with the sets it
+ * was derived from.
+ *
+ * <p>The bits are split into chunks of {@link #CHUNK_WORDS} words, and a
+ * set is an array of references to immutable chunks, with null for an
+ * empty chunk. An operation copies only the chunks it changes and returns
+ * its input when nothing changes, so a statement that defines one
+ * variable costs one chunk and one array of references, and a statement
+ * that defines nothing shares its predecessor's set.
+ *
+ * <p>Sets of different capacities can be combined; missing chunks are
+ * empty. This lets the definition table grow when an incremental update
+ * adds definitions.
+ */
+final class SharedBitSet {
+  static final int CHUNK_WORDS = 8;
+  static final int CHUNK_BITS = CHUNK_WORDS * 64;
+
+  private final long[][] chunks;
+  private int cardinality = -1;
+
+  private SharedBitSet(long[][] chunks) {
+    this.chunks = chunks;
+  }
+
+  /**
+   * Creates an empty set.
+   *
+   * @param bits the number of bits the set can hold.
+   * @return the empty set.
+   */
+  static SharedBitSet empty(int bits) {
+    return new SharedBitSet(new long[(bits + CHUNK_BITS - 1) / CHUNK_BITS][]);
+  }
+
+  boolean get(int bit) {
+    long[] chunk = getChunk(bit / CHUNK_BITS);
+    return chunk != null && (chunk[(bit % CHUNK_BITS) >>> 6] & (1L << bit)) != 0;
+  }
+
+  /**
+   * Gets the next bit in the set.
+   *
+   * @param from the first bit to check.
+   * @return the lowest bit at least from, or -1 if there is none.
+   */
+  int nextSetBit(int from) {
+    int bitCount = chunks.length * CHUNK_BITS;
+    int bit = from;
+    while (bit < bitCount) {
+      long[] chunk = chunks[bit / CHUNK_BITS];
+      if (chunk == null) {
+        bit = (bit / CHUNK_BITS + 1) * CHUNK_BITS;
+        continue;
+      }
+      int word = (bit % CHUNK_BITS) >>> 6;
+      long bits = chunk[word] & (-1L << bit);
+      if (bits != 0) {
+        return bit - (bit & 63) + Long.numberOfTrailingZeros(bits);
+      }
+      bit = bit - (bit & 63) + 64;
+    }
+    return -1;
+  }
+
+  int cardinality() {
+    if (cardinality < 0) {
+      int count = 0;
+      for (long[] chunk : chunks) {
+        if (chunk != null) {
+          for (long word : chunk) {
+            count += Long.bitCount(word);
+          }
+        }
+      }
+      cardinality = count;
+    }
+    return cardinality;
+  }
+
+  /**
+   * Checks for the same bits.
+   *
+   * @param other a set of the same capacity.
+   * @return true if both sets hold the same bits.
+   */
+  boolean sameBits(SharedBitSet other) {
+    if (this == other) {
+      return true;
+    }
+    int chunkCount = Math.max(chunks.length, other.chunks.length);
+    for (int c = 0; c < chunkCount; ++c) {
+      long[] chunk = getChunk(c);
+      long[] otherChunk = other.getChunk(c);
+      if (chunk != otherChunk && !Arrays.equals(orEmpty(chunk), orEmpty(otherChunk))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes the union of two sets.
+   *
+   * @param other a set of the same capacity.
+   * @return the union, which is this or other when one contains the other.
+   */
+  SharedBitSet union(SharedBitSet other) {
+    if (this == other) {
+      return this;
+    }
+    int chunkCount = Math.max(chunks.length, other.chunks.length);
+    long[][] result = null;
+    boolean isOther = other.chunks.length == chunkCount;
+    for (int c = 0; c < chunkCount; ++c) {
+      long[] chunk = getChunk(c);
+      long[] otherChunk = other.getChunk(c);
+      long[] union = union(chunk, otherChunk);
+      if (union != chunk && result == null) {
+        result = Arrays.copyOf(chunks, chunkCount);
+      }
+      if (result != null) {
+        result[c] = union;
+      }
+      isOther &= union == otherChunk;
+    }
+    if (result == null) {
+      return this;
+    }
+    return isOther ? other : new SharedBitSet(result);
+  }
+
+  private static long[] union(long[] chunk, long[] otherChunk) {
+    if (chunk == otherChunk || otherChunk == null) {
+      return chunk;
+    }
+    if (chunk == null) {
+      return otherChunk;
+    }
+    long[] union = null;
+    for (int w = 0; w < CHUNK_WORDS; ++w) {
+      long word = chunk[w] | otherChunk[w];
+      if (word != chunk[w] && union == null) {
+        union = Arrays.copyOf(chunk, CHUNK_WORDS);
+      }
+      if (union != null) {
+        union[w] = word;
+      }
+    }
+    if (union == null) {
+      return chunk;
+    }
+    return Arrays.equals(union, otherChunk) ? otherChunk : union;
+  }
+
+  private long[] getChunk(int c) {
+    return (c < chunks.length) ? chunks[c] : null;
+  }
+
+  private static long[] orEmpty(long[] chunk) {
+    return (chunk == null) ? new long[CHUNK_WORDS] : chunk;
+  }
+
+  /**
+   * Starts an edit of the set.
+   *
+   * @return an editor that copies chunks on first write.
+   */
+  Editor edit() {
+    return new Editor(this);
+  }
+
+  /**
+   * Clears and sets bits of a set, copying each chunk at most once.
+   */
+  static final class Editor {
+    private final SharedBitSet original;
+    private long[][] chunks = null;
+    private boolean[] owned = null;
+
+    Editor(SharedBitSet original) {
+      this.original = original;
+    }
+
+    /**
+     * Clears the bits of a mask in one word.
+     *
+     * @param word the index of the word.
+     * @param mask the bits to clear.
+     */
+    void clear(int word, long mask) {
+      int c = word / CHUNK_WORDS;
+      long[][] current = current();
+      long[] chunk = (c < current.length) ? current[c] : null;
+      if (chunk == null || (chunk[word % CHUNK_WORDS] & mask) == 0) {
+        return;
+      }
+      writable(c)[word % CHUNK_WORDS] &= ~mask;
+    }
+
+    void set(int bit) {
+      int c = bit / CHUNK_BITS;
+      int word = (bit % CHUNK_BITS) >>> 6;
+      long[][] current = current();
+      long[] chunk = (c < current.length) ? current[c] : null;
+      if (chunk != null && (chunk[word] & (1L << bit)) != 0) {
+        return;
+      }
+      writable(c)[word] |= 1L << bit;
+    }
+
+    SharedBitSet build() {
+      return (chunks == null) ? original : new SharedBitSet(chunks);
+    }
+
+    private long[][] current() {
+      return (chunks == null) ? original.chunks : chunks;
+    }
+
+    private long[] writable(int c) {
+      if (chunks == null) {
+        chunks = Arrays.copyOf(original.chunks, Math.max(original.chunks.length, c + 1));
+        owned = new boolean[chunks.length];
+      } else if (c >= chunks.length) {
+        chunks = Arrays.copyOf(chunks, c + 1);
+        owned = Arrays.copyOf(owned, c + 1);
+      }
+      if (!owned[c]) {
+        chunks[c] = (chunks[c] == null)
+            ? new long[CHUNK_WORDS] : Arrays.copyOf(chunks[c], CHUNK_WORDS);
+        owned[c] = true;
+      }
+      return chunks[c];
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.IndexedControlFlowGraph;
+import edu.byu.cs329.constantfolding.ConstantEvaluator;
+import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+
+/**
+ * The definitions that reach each read of a variable.
+ *
+ * <p>The entry set of each statement is grouped by identifier once, when
+ * the index is built, and every read in the statement is linked to its
+ * group. A read that follows a definition of the same variable earlier in
+ * its own statement, as in <code>int a = 1, b = a;</code>, is linked to
+ * that definition alone: the interned one when it is the statement's last
+ * definition of the variable, otherwise a definition with id -1 that is
+ * not in the table. Lookups are then a map access instead of a scan of
+ * the entry set. Statements that share an entry set also share its groups.
+ */
+public final class UseDefIndex {
+  private final IndexedControlFlowGraph cfg;
+  private final List<Map<String, Set<Definition>>> entryDefinitions;
+  private final Map<SimpleName, Set<Definition>> useDefinitions =
+      new IdentityHashMap<SimpleName, Set<Definition>>();
+
+  /**
+   * Builds the index for one method.
+   *
+   * @requires rd was computed for cfg
+   *
+   * @param cfg the control flow graph of the method.
+   * @param rd the reaching definitions of the method.
+   */
+  public UseDefIndex(final ControlFlowGraph cfg, final ReachingDefinitions rd) {
+    ExceptionUtils.requiresNonNull(rd, "Null reaching definitions passed to UseDefIndex");
+    this.cfg = IndexedControlFlowGraph.of(cfg);
+    DefinitionTable table = rd.getDefinitionTable();
+    int size = this.cfg.size();
+    entryDefinitions = new ArrayList<Map<String, Set<Definition>>>(size);
+    Map<Set<Definition>, Map<String, Set<Definition>>> sharedGroups =
+        new IdentityHashMap<Set<Definition>, Map<String, Set<Definition>>>();
+    for (int s = 0; s < size; ++s) {
+      Statement statement = this.cfg.statement(s);
+      Set<Definition> entrySet = rd.getReachingDefinitions(statement);
+      Map<String, Set<Definition>> groups = (entrySet == null)
+          ? groupByIdentifier(entrySet)
+          : sharedGroups.computeIfAbsent(entrySet, UseDefIndex::groupByIdentifier);
+      entryDefinitions.add(groups);
+      Map<String, Set<Definition>> local = new HashMap<String, Set<Definition>>();
+      for (VariableAccess access : VariableAccess.collect(statement)) {
+        String identifier = access.name.getIdentifier();
+        if (access.isDefinition()) {
+          Definition definition = table.get(statement, identifier);
+          if (definition == null || definition.name != access.name) {
+            definition = new Definition(-1, access.name, statement);
+          }
+          local.put(identifier, Collections.singleton(definition));
+          continue;
+        }
+        Set<Definition> definitions = local.get(identifier);
+        if (definitions == null) {
+          definitions = groups.getOrDefault(identifier, Collections.emptySet());
+        }
+        useDefinitions.put(access.name, definitions);
+      }
+    }
+  }
+
+  /**
+   * Gets the definitions that reach a read.
+   *
+   * @param use a simple name read in a statement of the graph.
+   * @return the definitions of the variable that reach use, or null if use
+   *     is not a read in the graph.
+   */
+  public Set<Definition> getDefinitions(final SimpleName use) {
+    return useDefinitions.get(use);
+  }
+
+  /**
+   * Gets the definitions of a variable that reach the entry of a statement.
+   *
+   * @param s the statement.
+   * @param identifier the variable.
+   * @return the definitions, or null if s is not in the graph.
+   */
+  public Set<Definition> getDefinitions(final Statement s, final String identifier) {
+    int id = cfg.id(s);
+    if (id < 0) {
+      return null;
+    }
+    return entryDefinitions.get(id).getOrDefault(identifier, Collections.emptySet());
+  }
+
+  /**
+   * Gets the only definition that reaches a read.
+   *
+   * @param use a simple name read in a statement of the graph.
+   * @return the definition, or null if zero or several definitions reach use.
+   */
+  public Definition getUniqueDefinition(final SimpleName use) {
+    return getUnique(getDefinitions(use));
+  }
+
+  /**
+   * Gets the only definition of a variable that reaches a statement.
+   *
+   * @param s the statement.
+   * @param identifier the variable.
+   * @return the definition, or null if zero or several definitions reach s.
+   */
+  public Definition getUniqueDefinition(final Statement s, final String identifier) {
+    return getUnique(getDefinitions(s, identifier));
+  }
+
+  /**
+   * Gets the literal a read always sees.
+   *
+   * @param use a simple name read in a statement of the graph.
+   * @return the literal assigned by the only definition that reaches use,
+   *     or null if there is no such definition or it does not assign a literal.
+   */
+  public Expression getLiteral(final SimpleName use) {
+    return getLiteral(getUniqueDefinition(use));
+  }
+
+  /**
+   * Gets the literal a variable always holds at the entry of a statement.
+   *
+   * @param s the statement.
+   * @param identifier the variable.
+   * @return the literal assigned by the only definition that reaches s,
+   *     or null if there is no such definition or it does not assign a literal.
+   */
+  public Expression getLiteral(final Statement s, final String identifier) {
+    return getLiteral(getUniqueDefinition(s, identifier));
+  }
+
+  /**
+   * Gets the literal a definition assigns.
+   *
+   * @param definition the definition.
+   * @return the number, boolean or character literal, or the negated number
+   *     literal, that initializes or is assigned with <code>=</code> to
+   *     the variable, otherwise null.
+   */
+  public static Expression getLiteral(final Definition definition) {
+    if (definition == null || definition.statement == null) {
+      return null;
+    }
+    SimpleName name = definition.name;
+    StructuralPropertyDescriptor location = name.getLocationInParent();
+    Expression value = null;
+    if (location == VariableDeclarationFragment.NAME_PROPERTY) {
+      value = ((VariableDeclarationFragment) name.getParent()).getInitializer();
+    } else if (location == Assignment.LEFT_HAND_SIDE_PROPERTY) {
+      Assignment assignment = (Assignment) name.getParent();
+      if (assignment.getOperator() == Assignment.Operator.ASSIGN) {
+        value = assignment.getRightHandSide();
+      }
+    }
+    if (ConstantEvaluator.isNumber(value)
+        || value instanceof BooleanLiteral
+        || value instanceof CharacterLiteral) {
+      return value;
+    }
+    return null;
+  }
+
+  private static Definition getUnique(Set<Definition> definitions) {
+    if (definitions == null || definitions.size() != 1) {
+      return null;
+    }
+    return definitions.iterator().next();
+  }
+
+  private static Map<String, Set<Definition>> groupByIdentifier(Set<Definition> definitions) {
+    Map<String, Set<Definition>> groups = new HashMap<String, Set<Definition>>();
+    if (definitions == null) {
+      return groups;
+    }
+    for (Definition definition : definitions) {
+      groups.computeIfAbsent(definition.name.getIdentifier(),
+          identifier -> new LinkedHashSet<Definition>()).add(definition);
+    }
+    for (Map.Entry<String, Set<Definition>> entry : groups.entrySet()) {
+      entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+    }
+    return groups;
+  }
+}
@@ -0,0 +1,154 @@
+package edu.byu.cs329.rd;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.FieldAccess;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+import org.eclipse.jdt.core.dom.SuperFieldAccess;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+
+/**
+ * A read or write of a variable by its simple name.
+ *
+ * <p>A definition is a variable declaration fragment, or an assignment,
+ * increment or decrement of a simple name. A compound assignment,
+ * increment or decrement also reads the variable first.
+ */
+public final class VariableAccess {
+  public final SimpleName name;
+  public final ASTNode definingNode;
+
+  private VariableAccess(SimpleName name, ASTNode definingNode) {
+    this.name = name;
+    this.definingNode = definingNode;
+  }
+
+  /**
+   * Checks if the access writes the variable.
+   *
+   * @return true if the access is a definition.
+   */
+  public boolean isDefinition() {
+    return definingNode != null;
+  }
+
+  /**
+   * Collects the accesses made by the expressions of one statement.
+   *
+   * <p>Statements nested in the statement and classes declared in it are
+   * not visited, since they are separate nodes of the control flow graph.
+   * Every simple name in a variable position is reported as a read, so a
+   * caller that only wants locals must filter by identifier.
+   *
+   * @param statement the statement.
+   * @return the accesses in evaluation order.
+   */
+  public static List<VariableAccess> collect(final Statement statement) {
+    Collector collector = new Collector(statement);
+    statement.accept(collector);
+    return collector.accessList;
+  }
+
+  /**
+   * Collects the definitions made by the expressions of one statement.
+   *
+   * @param statement the statement.
+   * @return the names defined in evaluation order.
+   */
+  public static List<SimpleName> collectDefinedNames(final Statement statement) {
+    List<SimpleName> nameList = new ArrayList<SimpleName>();
+    for (VariableAccess access : collect(statement)) {
+      if (access.isDefinition()) {
+        nameList.add(access.name);
+      }
+    }
+    return nameList;
+  }
+
+  static class Collector extends ASTVisitor {
+    final Statement root;
+    final List<VariableAccess> accessList = new ArrayList<VariableAccess>();
+
+    Collector(Statement root) {
+      this.root = root;
+    }
+
+    @Override
+    public boolean preVisit2(ASTNode node) {
+      if (node == root) {
+        return true;
+      }
+      return !(node instanceof Statement)
+          && !(node instanceof AnonymousClassDeclaration)
+          && !(node instanceof Type)
+          && !(node instanceof Annotation);
+    }
+
+    @Override
+    public boolean visit(SimpleName node) {
+      if (isVariableRead(node)) {
+        accessList.add(new VariableAccess(node, null));
+      }
+      return false;
+    }
+
+    @Override
+    public void endVisit(VariableDeclarationFragment node) {
+      accessList.add(new VariableAccess(node.getName(), node));
+    }
+
+    @Override
+    public void endVisit(Assignment node) {
+      addDefinition(node.getLeftHandSide(), node);
+    }
+
+    @Override
+    public void endVisit(PostfixExpression node) {
+      addDefinition(node.getOperand(), node);
+    }
+
+    @Override
+    public void endVisit(PrefixExpression node) {
+      PrefixExpression.Operator operator = node.getOperator();
+      if (operator == PrefixExpression.Operator.INCREMENT
+          || operator == PrefixExpression.Operator.DECREMENT) {
+        addDefinition(node.getOperand(), node);
+      }
+    }
+
+    private void addDefinition(Expression expression, ASTNode definingNode) {
+      if (expression instanceof SimpleName) {
+        accessList.add(new VariableAccess((SimpleName) expression, definingNode));
+      }
+    }
+
+    private boolean isVariableRead(SimpleName node) {
+      StructuralPropertyDescriptor location = node.getLocationInParent();
+      if (location == Assignment.LEFT_HAND_SIDE_PROPERTY) {
+        return ((Assignment) node.getParent()).getOperator() != Assignment.Operator.ASSIGN;
+      }
+      return location != VariableDeclarationFragment.NAME_PROPERTY
+          && location != SingleVariableDeclaration.NAME_PROPERTY
+          && location != MethodInvocation.NAME_PROPERTY
+          && location != SuperMethodInvocation.NAME_PROPERTY
+          && location != FieldAccess.NAME_PROPERTY
+          && location != SuperFieldAccess.NAME_PROPERTY
+          && location != QualifiedName.NAME_PROPERTY;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package edu.byu.cs329.server;
+
+import edu.byu.cs329.batch.SourceFile;
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Sends requests to an {@link OptimizeServer} on the loopback address.
+ */
+public class OptimizeClient {
+
+  /**
+   * The answer to one request.
+   */
+  public static class Response {
+    private final byte status;
+    private final byte[] output;
+    private final String message;
+
+    Response(final byte status, final byte[] output, final String message) {
+      this.status = status;
+      this.output = output;
+      this.message = message;
+    }
+
+    public boolean isOk() {
+      return status == Protocol.OK;
+    }
+
+    public boolean isBusy() {
+      return status == Protocol.BUSY;
+    }
+
+    /**
+     * Gets the optimized source.
+     *
+     * @return the output encoded as UTF-8, or null if the request failed.
+     */
+    public byte[] getOutput() {
+      return output;
+    }
+
+    /**
+     * Gets the statistics or the reason for the failure.
+     *
+     * @return the statistics if isOk(), else the error message.
+     */
+    public String getMessage() {
+      return message;
+    }
+  }
+
+  private final int port;
+
+  /**
+   * Creates a client for a server on the loopback address.
+   *
+   * @param port the port of the server.
+   */
+  public OptimizeClient(final int port) {
+    this.port = port;
+  }
+
+  /**
+   * Folds a source.
+   *
+   * @requires source != null
+   *
+   * @param source the source encoded as UTF-8.
+   * @return the folded source and the statistics of the fold.
+   * @throws IOException if the server cannot be reached.
+   */
+  public Response fold(final byte[] source) throws IOException {
+    return send(Protocol.FOLD, source);
+  }
+
+  /**
+   * Propagates constants in a source.
+   *
+   * @requires source != null
+   *
+   * @param source the source encoded as UTF-8.
+   * @return the propagated source and the statistics of the propagation.
+   * @throws IOException if the server cannot be reached.
+   */
+  public Response propagate(final byte[] source) throws IOException {
+    return send(Protocol.PROPAGATE, source);
+  }
+
+  /**
+   * Asks the server to shut down once the accepted requests are done.
+   *
+   * @return the acknowledgement.
+   * @throws IOException if the server cannot be reached.
+   */
+  public Response shutdown() throws IOException {
+    return send(Protocol.SHUTDOWN, null);
+  }
+
+  Response send(String command, byte[] source) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      socket.setTcpNoDelay(true);
+      DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      out.writeUTF(command);
+      if (source != null) {
+        Protocol.writeBytes(out, source);
+      }
+      out.flush();
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      byte status = in.readByte();
+      if (status != Protocol.OK) {
+        return new Response(status, null, in.readUTF());
+      }
+      byte[] output = Protocol.readBytes(in);
+      return new Response(status, output, in.readUTF());
+    }
+  }
+
+  /**
+   * Sends one file to a running server.
+   *
+   * @param args args[0] is the port, args[1] is fold, propagate or shutdown, and
+   *             for fold and propagate args[2] is the input file and args[3] the output file.
+   */
+  public static void main(String[] args) {
+    boolean isShutdown = args.length == 2 && Protocol.SHUTDOWN.equals(args[1]);
+    if (args.length != 4 && !isShutdown) {
+      System.out.println("usage: java OptimizeClient <port> fold|propagate <input file> "
+          + "<output file>");
+      System.out.println("       java OptimizeClient <port> shutdown");
+      System.exit(1);
+    }
+    try {
+      OptimizeClient client = new OptimizeClient(Integer.parseInt(args[0]));
+      Response response = isShutdown ? client.shutdown()
+          : client.send(args[1], Files.readAllBytes(Path.of(args[2])));
+      if (!response.isOk()) {
+        ExceptionUtils.throwRuntimeException("Server refused request: " + response.getMessage());
+      }
+      if (!isShutdown) {
+        SourceFile.writeIfChanged(Path.of(args[3]), response.getOutput());
+      }
+      System.out.println(response.getMessage());
+    } catch (Exception e) {
+      e.printStackTrace();
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,257 @@
+package edu.byu.cs329.server;
+
+import edu.byu.cs329.batch.SourceFile;
+import edu.byu.cs329.constantfolding.ConstantFolding;
+import edu.byu.cs329.constantpropagation.ConstantPropagation;
+import edu.byu.cs329.metrics.Metrics;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A resident server that folds or propagates sources sent over a loopback socket.
+ *
+ * <p>Running the command line tools once per file pays for starting the
+ * JVM, loading JDT and a cold JIT every time. The server pays for them once
+ * and then answers requests from {@link OptimizeClient}, whose format is in
+ * {@link Protocol}. It listens only on the loopback address.
+ *
+ * <p>Each connection is one request, handled by a fixed pool of workers.
+ * Connections wait in a bounded queue when all workers are busy, and a
+ * connection that finds the queue full is answered {@link Protocol#BUSY}
+ * at once. {@link #close} and the shutdown request stop accepting, let the
+ * queued and running requests finish, and then stop the workers.
+ */
+public class OptimizeServer implements Closeable {
+  static final Logger log = LoggerFactory.getLogger(OptimizeServer.class);
+
+  static final int SOCKET_TIMEOUT_MILLIS = 30000;
+  static final int SHUTDOWN_SECONDS = 30;
+  static final int WARM_UP_ROUNDS = 20;
+  static final String WARM_UP_SOURCE = "class WarmUp {\n"
+      + "  int warmUp(int y) {\n"
+      + "    int x = 1 + 2;\n"
+      + "    if (!(x < 2)) {\n"
+      + "      y = x;\n"
+      + "    }\n"
+      + "    return y;\n"
+      + "  }\n"
+      + "}\n";
+
+  private final ServerSocket serverSocket;
+  private final ThreadPoolExecutor workers;
+  private final Thread acceptor;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final AtomicInteger workerNumber = new AtomicInteger();
+  private final CountDownLatch terminated = new CountDownLatch(1);
+  private final LongAdder served = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * Binds a server to a loopback port.
+   *
+   * @requires 0 <= port <= 65535 /\ workerCount > 0 /\ queueCapacity > 0
+   *
+   * @param port the port to listen on, 0 for any free port.
+   * @param workerCount the number of requests handled at once.
+   * @param queueCapacity the number of connections that may wait for a worker.
+   * @throws IOException if the port cannot be bound.
+   */
+  public OptimizeServer(final int port, final int workerCount, final int queueCapacity)
+      throws IOException {
+    serverSocket = new ServerSocket(port, queueCapacity, InetAddress.getLoopbackAddress());
+    workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<Runnable>(queueCapacity), this::newWorker);
+    acceptor = new Thread(this::accept, "optimize-acceptor");
+  }
+
+  /**
+   * Warms up the engine and starts accepting requests.
+   */
+  public void start() {
+    byte[] source = WARM_UP_SOURCE.getBytes(StandardCharsets.UTF_8);
+    for (int i = 0; i < WARM_UP_ROUNDS; ++i) {
+      optimize(Protocol.FOLD, source);
+      optimize(Protocol.PROPAGATE, source);
+    }
+    acceptor.start();
+    log.info("Listening on " + serverSocket.getLocalSocketAddress());
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  public long getServed() {
+    return served.sum();
+  }
+
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * Stops accepting requests and waits for the accepted ones to finish.
+   */
+  @Override
+  public void close() {
+    if (closed.getAndSet(true)) {
+      awaitTermination();
+      return;
+    }
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      log.warn("Failed to close server socket", e);
+    }
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+        workers.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      workers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    log.info("Stopped after " + getServed() + " requests, " + getRejected() + " rejected");
+    terminated.countDown();
+  }
+
+  /**
+   * Blocks until the server has shut down.
+   */
+  public void awaitTermination() {
+    try {
+      terminated.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Thread newWorker(Runnable runnable) {
+    Thread thread = new Thread(runnable, "optimize-worker-" + workerNumber.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private void accept() {
+    while (!closed.get()) {
+      Socket socket;
+      try {
+        socket = serverSocket.accept();
+      } catch (SocketException e) {
+        break;
+      } catch (IOException e) {
+        log.warn("Failed to accept a connection", e);
+        continue;
+      }
+      try {
+        workers.execute(() -> handle(socket));
+      } catch (RejectedExecutionException e) {
+        rejected.increment();
+        try (Socket busy = socket) {
+          DataOutputStream out = new DataOutputStream(busy.getOutputStream());
+          Protocol.writeFailure(out, Protocol.BUSY, closed.get() ? "shutting down" : "busy");
+        } catch (IOException ignored) {
+          // The client gave up first.
+        }
+      }
+    }
+  }
+
+  private void handle(Socket socket) {
+    try (Socket connection = socket) {
+      connection.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+      DataInputStream in =
+          new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+      DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+      String command = in.readUTF();
+      if (Protocol.SHUTDOWN.equals(command)) {
+        Protocol.writeOk(out, new byte[0], "shutting down");
+        new Thread(this::close, "optimize-shutdown").start();
+        return;
+      }
+      byte[] source = Protocol.readBytes(in);
+      byte[] output;
+      String statistics;
+      long start = System.nanoTime();
+      try {
+        Result result = optimize(command, source);
+        output = result.output;
+        statistics = result.statistics + " nanos=" + (System.nanoTime() - start);
+      } catch (RuntimeException e) {
+        Protocol.writeFailure(out, Protocol.ERROR, String.valueOf(e.getMessage()));
+        return;
+      }
+      Protocol.writeOk(out, output, statistics);
+      served.increment();
+    } catch (IOException e) {
+      log.warn("Failed to handle a request", e);
+    }
+  }
+
+  static class Result {
+    final byte[] output;
+    final String statistics;
+
+    Result(final byte[] output, final String statistics) {
+      this.output = output;
+      this.statistics = statistics;
+    }
+  }
+
+  static Result optimize(String command, byte[] source) {
+    SourceFile file = SourceFile.parse(source);
+    String statistics;
+    if (Protocol.FOLD.equals(command)) {
+      statistics = ConstantFolding.foldWithStatistics(file.getRoot()).toString();
+    } else if (Protocol.PROPAGATE.equals(command)) {
+      statistics = ConstantPropagation.propagate(file.getRoot()).toString();
+    } else {
+      throw new IllegalArgumentException("Unknown command " + command);
+    }
+    return new Result(file.getOutput(), statistics);
+  }
+
+  /**
+   * Runs the server until it is sent the shutdown request or the JVM exits.
+   *
+   * @param args the optional args[0] is the port, any free port if omitted, and
+   *             the optional args[1] is the number of workers.
+   */
+  public static void main(String[] args) {
+    Metrics.configureFromSystemProperties();
+    try {
+      int port = (args.length > 0) ? Integer.parseInt(args[0]) : 0;
+      int workerCount = (args.length > 1) ? Integer.parseInt(args[1])
+          : Runtime.getRuntime().availableProcessors();
+      OptimizeServer server = new OptimizeServer(port, workerCount, 4 * workerCount);
+      Runtime.getRuntime().addShutdownHook(new Thread(server::close, "optimize-hook"));
+      server.start();
+      System.out.println(server.getPort());
+      server.awaitTermination();
+    } catch (Exception e) {
+      e.printStackTrace();
+      System.exit(1);
+    }
+  }
+}
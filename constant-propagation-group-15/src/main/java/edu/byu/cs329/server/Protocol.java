@@ -0,0 +1,60 @@
+package edu.byu.cs329.server;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The wire format shared by {@link OptimizeServer} and {@link OptimizeClient}.
+ *
+ * <p>A connection carries one request and one response. The request is
+ * the command as a modified UTF-8 string and, for {@link #FOLD} and
+ * {@link #PROPAGATE}, the length of the source and its UTF-8 bytes. The
+ * response is a status byte, then for {@link #OK} the length and bytes of
+ * the output and the statistics as a string, and for any other status a
+ * message string.
+ */
+final class Protocol {
+  static final String FOLD = "fold";
+  static final String PROPAGATE = "propagate";
+  static final String SHUTDOWN = "shutdown";
+
+  static final byte OK = 0;
+  static final byte ERROR = 1;
+  static final byte BUSY = 2;
+
+  static final int MAX_SOURCE_BYTES = 64 << 20;
+
+  private Protocol() {
+  }
+
+  static byte[] readBytes(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > MAX_SOURCE_BYTES) {
+      throw new IOException("Bad length " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  static void writeOk(DataOutputStream out, byte[] output, String statistics)
+      throws IOException {
+    out.writeByte(OK);
+    writeBytes(out, output);
+    out.writeUTF(statistics);
+    out.flush();
+  }
+
+  static void writeFailure(DataOutputStream out, byte status, String message)
+      throws IOException {
+    out.writeByte(status);
+    out.writeUTF(message);
+    out.flush();
+  }
+}
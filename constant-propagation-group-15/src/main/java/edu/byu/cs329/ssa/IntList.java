@@ -0,0 +1,49 @@
+package edu.byu.cs329.ssa;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of ints, used as a stack by the SSA passes.
+ */
+public final class IntList {
+  private int[] elements = new int[4];
+  private int size = 0;
+
+  /**
+   * Appends an element.
+   */
+  public void add(int element) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, size * 2);
+    }
+    elements[size++] = element;
+  }
+
+  /**
+   * Gets an element.
+   */
+  public int get(int index) {
+    return elements[index];
+  }
+
+  /**
+   * Gets the number of elements.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes the last element.
+   */
+  public int removeLast() {
+    return elements[--size];
+  }
+
+  /**
+   * Copies the elements.
+   */
+  public int[] toArray() {
+    return Arrays.copyOf(elements, size);
+  }
+}
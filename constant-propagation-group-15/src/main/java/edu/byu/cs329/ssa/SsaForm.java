@@ -0,0 +1,474 @@
+package edu.byu.cs329.ssa;
+
+import edu.byu.cs329.cfg.DominatorTree;
+import edu.byu.cs329.cfg.IndexedControlFlowGraph;
+import edu.byu.cs329.rd.VariableAccess;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclaration;
+
+/**
+ * The static single assignment form of one method.
+ *
+ * <p>Every definition of a local variable or parameter is a value with an
+ * int id, and every read of a variable is linked to the one value that
+ * reaches it. Where definitions of a variable merge, at the dominance
+ * frontier of its definitions, a phi value is placed at the entry of the
+ * statement with one operand per predecessor. The start has one more
+ * operand, last, for the method entry.
+ *
+ * <p>A variable is its declaration, found by {@link VariableScopes}, so
+ * locals with one identifier in different blocks are different variables
+ * and a name with no local declaration, as a field, is not tracked.
+ *
+ * <p>The def-use edges run from each value to the statements that read it
+ * and to the phis that use it, so a sparse analysis only revisits what a
+ * changed value can affect.
+ */
+public final class SsaForm {
+  public static final int UNDEFINED = -1;
+
+  private static final int[] EMPTY = new int[0];
+
+  private final DominatorTree tree;
+  private final IndexedControlFlowGraph cfg;
+  private final VariableScopes scopes;
+  private final Map<VariableDeclaration, Integer> variableIds =
+      new IdentityHashMap<VariableDeclaration, Integer>();
+  private final List<VariableDeclaration> variableList = new ArrayList<VariableDeclaration>();
+  private final IntList valueVariables = new IntList();
+  private final IntList valueStatements = new IntList();
+  private final List<ASTNode> valueNodes = new ArrayList<ASTNode>();
+  private final List<int[]> phiOperands = new ArrayList<int[]>();
+  private final List<IntList> statementUsers = new ArrayList<IntList>();
+  private final List<IntList> phiUsers = new ArrayList<IntList>();
+  private final Map<SimpleName, Integer> useValues = new IdentityHashMap<SimpleName, Integer>();
+  private final List<List<VariableAccess>> accessLists;
+  private final int[][] phis;
+  private final int[][] definitions;
+  private int defUseEdgeCount = 0;
+
+  /**
+   * Builds the SSA form of the method of a dominator tree.
+   *
+   * @param tree the dominator tree of the method's graph.
+   */
+  public SsaForm(final DominatorTree tree) {
+    this.tree = tree;
+    this.cfg = tree.getGraph();
+    int size = cfg.size();
+
+    MethodDeclaration methodDeclaration = cfg.getMethodDeclaration();
+    scopes = VariableScopes.of(methodDeclaration);
+    List<?> parameters = methodDeclaration.parameters();
+    for (Object parameter : parameters) {
+      SingleVariableDeclaration declaration = (SingleVariableDeclaration) parameter;
+      int variable = getVariableId(declaration);
+      newValue(variable, -1, declaration, null);
+    }
+
+    accessLists = new ArrayList<List<VariableAccess>>(size);
+    List<IntList> definitionSites = new ArrayList<IntList>();
+    for (int s = 0; s < size; ++s) {
+      List<VariableAccess> accessList = VariableAccess.collect(cfg.statement(s));
+      accessLists.add(accessList);
+      for (VariableAccess access : accessList) {
+        VariableDeclaration declaration = scopes.getDeclaration(access.name);
+        if (!access.isDefinition() || declaration == null) {
+          continue;
+        }
+        int variable = getVariableId(declaration);
+        while (definitionSites.size() <= variable) {
+          definitionSites.add(new IntList());
+        }
+        IntList sites = definitionSites.get(variable);
+        if (sites.size() == 0 || sites.get(sites.size() - 1) != s) {
+          sites.add(s);
+        }
+      }
+    }
+
+    phis = placePhis(definitionSites);
+    definitions = new int[size][];
+    rename();
+  }
+
+  /**
+   * Gets the graph.
+   *
+   * @return the graph of the method.
+   */
+  public IndexedControlFlowGraph getGraph() {
+    return cfg;
+  }
+
+  /**
+   * Gets the dominator tree.
+   *
+   * @return the dominator tree of the graph.
+   */
+  public DominatorTree getDominatorTree() {
+    return tree;
+  }
+
+  /**
+   * Gets the number of values.
+   *
+   * @return the number of values, numbered 0..valueCount()-1.
+   */
+  public int valueCount() {
+    return valueVariables.size();
+  }
+
+  /**
+   * Gets the number of def-use edges.
+   *
+   * @return the number of (value, reading statement) and (value, phi) pairs.
+   */
+  public int defUseEdgeCount() {
+    return defUseEdgeCount;
+  }
+
+  /**
+   * Gets the variable a value defines.
+   *
+   * @param value the value.
+   * @return the identifier of the variable.
+   */
+  public String getVariable(final int value) {
+    return getDeclaration(value).getName().getIdentifier();
+  }
+
+  /**
+   * Gets the declaration of the variable a value defines.
+   *
+   * @param value the value.
+   * @return the SingleVariableDeclaration of a parameter or the
+   *     VariableDeclarationFragment of a local.
+   */
+  public VariableDeclaration getDeclaration(final int value) {
+    return variableList.get(valueVariables.get(value));
+  }
+
+  /**
+   * Gets the declaration a name refers to.
+   *
+   * @param name a simple name in the method.
+   * @return the parameter or local declaration in scope, or null if there
+   *     is none.
+   */
+  public VariableDeclaration getDeclaration(final SimpleName name) {
+    return scopes.getDeclaration(name);
+  }
+
+  /**
+   * Gets the statement that defines a value.
+   *
+   * @param value the value.
+   * @return the id of the statement, or -1 for a parameter.
+   */
+  public int getStatement(final int value) {
+    return valueStatements.get(value);
+  }
+
+  /**
+   * Gets the node that defines a value.
+   *
+   * @param value the value.
+   * @return the SingleVariableDeclaration of a parameter, the
+   *     VariableDeclarationFragment, Assignment, PrefixExpression or
+   *     PostfixExpression of a definition, or null for a phi.
+   */
+  public ASTNode getDefiningNode(final int value) {
+    return valueNodes.get(value);
+  }
+
+  /**
+   * Checks for a phi.
+   *
+   * @param value the value.
+   * @return true if the value is a phi.
+   */
+  public boolean isPhi(final int value) {
+    return phiOperands.get(value) != null;
+  }
+
+  /**
+   * Gets the operands of a phi.
+   *
+   * @requires isPhi(value)
+   *
+   * @param value the phi.
+   * @return the value from each predecessor of its statement, in predecessor
+   *     order, then the value at method entry if the statement is the start;
+   *     UNDEFINED where the variable has no definition on that path.
+   */
+  public int[] getPhiOperands(final int value) {
+    return phiOperands.get(value);
+  }
+
+  /**
+   * Gets the phis at the entry of a statement.
+   *
+   * @param id the id of the statement.
+   * @return the phi values.
+   */
+  public int[] getPhis(final int id) {
+    return phis[id];
+  }
+
+  /**
+   * Gets the values a statement defines.
+   *
+   * @param id the id of the statement.
+   * @return the values in evaluation order.
+   */
+  public int[] getDefinitions(final int id) {
+    return definitions[id];
+  }
+
+  /**
+   * Gets the variable accesses of a statement.
+   *
+   * @param id the id of the statement.
+   * @return the accesses in evaluation order.
+   */
+  public List<VariableAccess> getAccesses(final int id) {
+    return accessLists.get(id);
+  }
+
+  /**
+   * Gets the value a read refers to.
+   *
+   * @param use a simple name read in a statement of the graph.
+   * @return the value, or UNDEFINED if use is not a read of a local
+   *     variable or no definition reaches it.
+   */
+  public int getValue(final SimpleName use) {
+    Integer value = useValues.get(use);
+    if (value == null) {
+      return UNDEFINED;
+    }
+    return value;
+  }
+
+  /**
+   * Gets the statements that read a value.
+   *
+   * @param value the value.
+   * @return the ids of the statements.
+   */
+  public int[] getStatementUsers(final int value) {
+    IntList users = statementUsers.get(value);
+    return (users == null) ? EMPTY : users.toArray();
+  }
+
+  /**
+   * Gets the phis that use a value as an operand.
+   *
+   * @param value the value.
+   * @return the phi values.
+   */
+  public int[] getPhiUsers(final int value) {
+    IntList users = phiUsers.get(value);
+    return (users == null) ? EMPTY : users.toArray();
+  }
+
+  private int[][] placePhis(List<IntList> definitionSites) {
+    int size = cfg.size();
+    IntList[] phiLists = new IntList[size];
+    int[] hasPhi = new int[size];
+    int[] inWorklist = new int[size];
+    IntList worklist = new IntList();
+    for (int variable = 0; variable < definitionSites.size(); ++variable) {
+      int stamp = variable + 1;
+      IntList sites = definitionSites.get(variable);
+      for (int i = 0; i < sites.size(); ++i) {
+        inWorklist[sites.get(i)] = stamp;
+        worklist.add(sites.get(i));
+      }
+      while (worklist.size() > 0) {
+        int s = worklist.removeLast();
+        for (int f : tree.frontier(s)) {
+          if (hasPhi[f] == stamp) {
+            continue;
+          }
+          hasPhi[f] = stamp;
+          int operandCount = cfg.predCount(f) + ((f == 0) ? 1 : 0);
+          int[] operands = new int[operandCount];
+          Arrays.fill(operands, UNDEFINED);
+          int phi = newValue(variable, f, null, operands);
+          if (phiLists[f] == null) {
+            phiLists[f] = new IntList();
+          }
+          phiLists[f].add(phi);
+          if (inWorklist[f] != stamp) {
+            inWorklist[f] = stamp;
+            worklist.add(f);
+          }
+        }
+      }
+    }
+    int[][] result = new int[size][];
+    for (int s = 0; s < size; ++s) {
+      result[s] = (phiLists[s] == null) ? EMPTY : phiLists[s].toArray();
+    }
+    return result;
+  }
+
+  private void rename() {
+    int size = cfg.size();
+    IntList[] versions = new IntList[variableList.size()];
+    for (int variable = 0; variable < versions.length; ++variable) {
+      versions[variable] = new IntList();
+    }
+    for (int value = 0; value < valueCount(); ++value) {
+      if (valueStatements.get(value) < 0) {
+        versions[valueVariables.get(value)].add(value);
+      }
+    }
+    if (size == 0) {
+      return;
+    }
+    for (int phi : phis[0]) {
+      int[] operands = phiOperands.get(phi);
+      setPhiOperand(phi, operands.length - 1, top(versions[valueVariables.get(phi)]));
+    }
+
+    IntList pushed = new IntList();
+    IntList nodeStack = new IntList();
+    IntList childStack = new IntList();
+    IntList markStack = new IntList();
+    nodeStack.add(0);
+    childStack.add(0);
+    markStack.add(pushed.size());
+    enter(0, versions, pushed);
+    while (nodeStack.size() > 0) {
+      int top = nodeStack.size() - 1;
+      int s = nodeStack.get(top);
+      int[] children = tree.children(s);
+      int child = childStack.get(top);
+      if (child < children.length) {
+        childStack.removeLast();
+        childStack.add(child + 1);
+        int next = children[child];
+        nodeStack.add(next);
+        childStack.add(0);
+        markStack.add(pushed.size());
+        enter(next, versions, pushed);
+        continue;
+      }
+      int mark = markStack.removeLast();
+      while (pushed.size() > mark) {
+        versions[pushed.removeLast()].removeLast();
+      }
+      nodeStack.removeLast();
+      childStack.removeLast();
+    }
+  }
+
+  private void enter(int s, IntList[] versions, IntList pushed) {
+    for (int phi : phis[s]) {
+      int variable = valueVariables.get(phi);
+      versions[variable].add(phi);
+      pushed.add(variable);
+    }
+
+    IntList definitionList = null;
+    for (VariableAccess access : accessLists.get(s)) {
+      Integer variable = variableIds.get(scopes.getDeclaration(access.name));
+      if (variable == null) {
+        continue;
+      }
+      if (!access.isDefinition()) {
+        int value = top(versions[variable]);
+        if (value != UNDEFINED) {
+          useValues.put(access.name, value);
+          addUser(statementUsers, value, s);
+        }
+        continue;
+      }
+      int value = newValue(variable, s, access.definingNode, null);
+      versions[variable].add(value);
+      pushed.add(variable);
+      if (definitionList == null) {
+        definitionList = new IntList();
+      }
+      definitionList.add(value);
+    }
+    definitions[s] = (definitionList == null) ? EMPTY : definitionList.toArray();
+
+    for (int k = 0; k < cfg.succCount(s); ++k) {
+      int t = cfg.succId(s, k);
+      if (phis[t].length == 0) {
+        continue;
+      }
+      int operand = getPredIndex(t, s);
+      for (int phi : phis[t]) {
+        setPhiOperand(phi, operand, top(versions[valueVariables.get(phi)]));
+      }
+    }
+  }
+
+  private void setPhiOperand(int phi, int operand, int value) {
+    phiOperands.get(phi)[operand] = value;
+    if (value != UNDEFINED) {
+      addUser(phiUsers, value, phi);
+    }
+  }
+
+  private void addUser(List<IntList> users, int value, int user) {
+    IntList list = users.get(value);
+    if (list == null) {
+      list = new IntList();
+      users.set(value, list);
+    }
+    if (list.size() == 0 || list.get(list.size() - 1) != user) {
+      list.add(user);
+      ++defUseEdgeCount;
+    }
+  }
+
+  private int getPredIndex(int t, int s) {
+    for (int k = 0; k < cfg.predCount(t); ++k) {
+      if (cfg.predId(t, k) == s) {
+        return k;
+      }
+    }
+    return -1;
+  }
+
+  private static int top(IntList versions) {
+    if (versions.size() == 0) {
+      return UNDEFINED;
+    }
+    return versions.get(versions.size() - 1);
+  }
+
+  private int newValue(int variable, int statement, ASTNode node, int[] operands) {
+    valueVariables.add(variable);
+    valueStatements.add(statement);
+    valueNodes.add(node);
+    phiOperands.add(operands);
+    statementUsers.add(null);
+    phiUsers.add(null);
+    return valueVariables.size() - 1;
+  }
+
+  private int getVariableId(VariableDeclaration declaration) {
+    Integer id = variableIds.get(declaration);
+    if (id == null) {
+      id = variableList.size();
+      variableIds.put(declaration, id);
+      variableList.add(declaration);
+    }
+    return id;
+  }
+}
@@ -0,0 +1,147 @@
+package edu.byu.cs329.ssa;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CatchClause;
+import org.eclipse.jdt.core.dom.EnhancedForStatement;
+import org.eclipse.jdt.core.dom.ForStatement;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.SwitchStatement;
+import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.jdt.core.dom.VariableDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+
+/**
+ * The local variable or parameter each simple name of a method refers to.
+ *
+ * <p>The parser does not resolve bindings, so two locals with one
+ * identifier in sibling blocks, or a local and a field, cannot be told
+ * apart by name. The scopes are resolved here in one pass over the method
+ * with the Java rules: a declaration is in scope from its own name to the
+ * end of the enclosing block, <code>switch</code>, <code>for</code> or
+ * <code>catch</code>. Classes declared in the method are not visited.
+ */
+public final class VariableScopes {
+  private final Map<SimpleName, VariableDeclaration> declarations =
+      new IdentityHashMap<SimpleName, VariableDeclaration>();
+
+  private VariableScopes() {
+  }
+
+  /**
+   * Resolves the names of a method.
+   *
+   * @param method the method.
+   * @return the scopes of its parameters and locals.
+   */
+  public static VariableScopes of(final MethodDeclaration method) {
+    VariableScopes scopes = new VariableScopes();
+    Resolver resolver = new Resolver(scopes.declarations);
+    resolver.open();
+    for (Object parameter : method.parameters()) {
+      resolver.declare((SingleVariableDeclaration) parameter);
+    }
+    if (method.getBody() != null) {
+      method.getBody().accept(resolver);
+    }
+    return scopes;
+  }
+
+  /**
+   * Gets the declaration a name refers to.
+   *
+   * @param name a simple name in the method.
+   * @return the parameter or local declaration in scope with the identifier
+   *     of name, or null if there is none, as for a field.
+   */
+  public VariableDeclaration getDeclaration(final SimpleName name) {
+    return declarations.get(name);
+  }
+
+  private static final class Resolver extends ASTVisitor {
+    private final Map<SimpleName, VariableDeclaration> declarations;
+    private final Map<String, ArrayDeque<VariableDeclaration>> visible =
+        new HashMap<String, ArrayDeque<VariableDeclaration>>();
+    private final List<String> declared = new ArrayList<String>();
+    private final ArrayDeque<Integer> marks = new ArrayDeque<Integer>();
+
+    Resolver(Map<SimpleName, VariableDeclaration> declarations) {
+      this.declarations = declarations;
+    }
+
+    void open() {
+      marks.push(declared.size());
+    }
+
+    void close() {
+      int mark = marks.pop();
+      while (declared.size() > mark) {
+        visible.get(declared.remove(declared.size() - 1)).pop();
+      }
+    }
+
+    void declare(VariableDeclaration declaration) {
+      String identifier = declaration.getName().getIdentifier();
+      visible.computeIfAbsent(identifier, i -> new ArrayDeque<VariableDeclaration>())
+          .push(declaration);
+      declared.add(identifier);
+    }
+
+    @Override
+    public boolean preVisit2(ASTNode node) {
+      if (node instanceof TypeDeclarationStatement || node instanceof AnonymousClassDeclaration) {
+        return false;
+      }
+      if (opensScope(node)) {
+        open();
+      }
+      return true;
+    }
+
+    @Override
+    public void postVisit(ASTNode node) {
+      if (opensScope(node)) {
+        close();
+      }
+    }
+
+    @Override
+    public boolean visit(VariableDeclarationFragment node) {
+      declare(node);
+      return true;
+    }
+
+    @Override
+    public boolean visit(SingleVariableDeclaration node) {
+      declare(node);
+      return true;
+    }
+
+    @Override
+    public boolean visit(SimpleName node) {
+      ArrayDeque<VariableDeclaration> stack = visible.get(node.getIdentifier());
+      if (stack != null && !stack.isEmpty()) {
+        declarations.put(node, stack.peek());
+      }
+      return false;
+    }
+
+    private static boolean opensScope(ASTNode node) {
+      return node instanceof Block
+          || node instanceof SwitchStatement
+          || node instanceof ForStatement
+          || node instanceof EnhancedForStatement
+          || node instanceof CatchClause;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package edu.byu.cs329.batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.constantfolding.ConstantFolding;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.jdt.core.dom.ASTMatcher;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Tests for BatchRunner")
+public class BatchRunnerTests {
+  static final String SYSTEM = "foldingInputs/system/"
+      + "should_FoldAllConstants_when_GivenMultipleTypes";
+  static final String IF = "foldingInputs/ifStatements/"
+      + "should_OnlyFoldIfStatementsWithBooleanPredicates_when_GivenMultipleTypes";
+  static final String THROWS = "foldingInputs/infixExpressionsPlus/"
+      + "should_ThrowRuntimeException_when_AnOperandIsNotOfTypeInt.java";
+
+  @TempDir
+  Path temp;
+
+  @Test
+  @DisplayName("Should fold every file under the input when given nested directories")
+  void should_FoldEveryFile_when_GivenNestedDirectories() throws IOException {
+    Path input = temp.resolve("in");
+    Path output = temp.resolve("out");
+    copyResource(SYSTEM + "-root.java", input.resolve("System.java"));
+    copyResource(SYSTEM + "-root.java", input.resolve("nested/deeper/System.java"));
+    Files.writeString(input.resolve("nested/README.txt"), "not java");
+
+    BatchRunner.Summary summary = new BatchRunner(ConstantFolding::fold).run(input, output);
+
+    assertEquals(2, summary.getFiles());
+    assertTrue(summary.getFailures().isEmpty());
+    assertTrue(summary.getCpuNanos() >= 0);
+    assertMatches(SYSTEM + ".java", output.resolve("System.java"));
+    assertMatches(SYSTEM + ".java", output.resolve("nested/deeper/System.java"));
+    assertFalse(Files.exists(output.resolve("nested/README.txt")));
+  }
+
+  @Test
+  @DisplayName("Should write identical output when the number of workers differs")
+  void should_WriteIdenticalOutput_when_NumberOfWorkersDiffers() throws IOException {
+    Path input = temp.resolve("in");
+    for (int i = 0; i < 12; ++i) {
+      String name = (i % 2 == 0) ? SYSTEM : IF;
+      copyResource(name + "-root.java", input.resolve("p" + (i % 3) + "/F" + i + ".java"));
+    }
+
+    new BatchRunner(ConstantFolding::fold, 1).run(input, temp.resolve("serial"));
+    new BatchRunner(ConstantFolding::fold, 4).run(input, temp.resolve("parallel"));
+
+    List<Path> serial = BatchRunner.listJavaFiles(temp.resolve("serial"));
+    List<Path> parallel = BatchRunner.listJavaFiles(temp.resolve("parallel"));
+    assertEquals(12, serial.size());
+    assertEquals(serial.size(), parallel.size());
+    for (int i = 0; i < serial.size(); ++i) {
+      assertEquals(temp.resolve("serial").relativize(serial.get(i)),
+          temp.resolve("parallel").relativize(parallel.get(i)));
+      assertArrayEquals(Files.readAllBytes(serial.get(i)), Files.readAllBytes(parallel.get(i)));
+    }
+  }
+
+  @Test
+  @DisplayName("Should report the file and keep going when one file fails")
+  void should_ReportFileAndKeepGoing_when_OneFileFails() throws IOException {
+    Path input = temp.resolve("in");
+    Path output = temp.resolve("out");
+    copyResource(THROWS, input.resolve("Bad.java"));
+    copyResource(SYSTEM + "-root.java", input.resolve("Good.java"));
+
+    BatchRunner.Summary summary = new BatchRunner(ConstantFolding::fold).run(input, output);
+
+    assertEquals(List.of(input.resolve("Bad.java")), summary.getFailures());
+    Exception cause = summary.getFailureCauses().get(input.resolve("Bad.java"));
+    assertTrue(summary.toString().contains("failed " + input.resolve("Bad.java") + ": " + cause));
+    assertFalse(Files.exists(output.resolve("Bad.java")));
+    assertMatches(SYSTEM + ".java", output.resolve("Good.java"));
+  }
+
+  @Test
+  @DisplayName("Should throw RuntimeException when input is not a directory")
+  void should_ThrowRuntimeException_when_InputIsNotDirectory() {
+    BatchRunner runner = new BatchRunner(ConstantFolding::fold);
+    assertThrows(RuntimeException.class, () -> {
+      runner.run(temp.resolve("missing"), temp.resolve("out"));
+    });
+  }
+
+  private void copyResource(String name, Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    Files.copy(Path.of(JavaSourceUtils.getUri(this, name)), target);
+  }
+
+  private void assertMatches(String expectedName, Path actualFile) {
+    ASTNode expected = TestUtils.getASTNodeFor(this, expectedName);
+    ASTNode actual = JavaSourceUtils.getCompilationUnit(actualFile.toUri());
+    assertTrue(expected.subtreeMatch(new ASTMatcher(), actual));
+  }
+}
@@ -0,0 +1,125 @@
+package edu.byu.cs329.batch;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.constantfolding.ConstantFolding;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Tests for OutputCache")
+public class OutputCacheTests {
+  static final String SYSTEM = "foldingInputs/system/"
+      + "should_FoldAllConstants_when_GivenMultipleTypes";
+  static final String IF = "foldingInputs/ifStatements/"
+      + "should_OnlyFoldIfStatementsWithBooleanPredicates_when_GivenMultipleTypes";
+
+  @TempDir
+  Path temp;
+
+  @Test
+  @DisplayName("Should serve every file from the cache when the input is unchanged")
+  void should_ServeFromCache_when_InputIsUnchanged() throws IOException {
+    Path input = temp.resolve("in");
+    Files.createDirectories(input);
+    Files.copy(Path.of(JavaSourceUtils.getUri(this, SYSTEM + "-root.java")),
+        input.resolve("F0.java"));
+    Files.copy(Path.of(JavaSourceUtils.getUri(this, IF + "-root.java")),
+        input.resolve("F1.java"));
+    Path cacheDirectory = temp.resolve("cache");
+    String configuration = ConstantFolding.getConfiguration();
+
+    OutputCache first = OutputCache.open(cacheDirectory, configuration, 1 << 20);
+    BatchRunner.Summary cold =
+        new BatchRunner(ConstantFolding::fold, 2, first).run(input, temp.resolve("cold"));
+    OutputCache second = OutputCache.open(cacheDirectory, configuration, 1 << 20);
+    BatchRunner.Summary warm =
+        new BatchRunner(ConstantFolding::fold, 2, second).run(input, temp.resolve("warm"));
+
+    assertAll("Cold and warm runs",
+        () -> assertEquals(0, cold.getCacheHits()),
+        () -> assertEquals(2, cold.getCacheMisses()),
+        () -> assertEquals(2, warm.getCacheHits()),
+        () -> assertEquals(0, warm.getCacheMisses()),
+        () -> assertEquals(2, second.size()),
+        () -> assertArrayEquals(Files.readAllBytes(temp.resolve("cold/F1.java")),
+            Files.readAllBytes(temp.resolve("warm/F1.java")))
+    );
+  }
+
+  @Test
+  @DisplayName("Should evict the least recently used output when the cache is full")
+  void should_EvictLeastRecentlyUsed_when_CacheIsFull() throws IOException {
+    Path cacheDirectory = temp.resolve("cache");
+    OutputCache cache = OutputCache.open(cacheDirectory, "rules", 10);
+    String a = cache.keyOf(new byte[] {'a'});
+    String b = cache.keyOf(new byte[] {'b'});
+    String c = cache.keyOf(new byte[] {'c'});
+    cache.put(a, new byte[4]);
+    cache.put(b, new byte[4]);
+    cache.get(a);
+    cache.put(c, new byte[4]);
+    cache.save();
+
+    OutputCache reopened = OutputCache.open(cacheDirectory, "rules", 10);
+    assertAll("Evicted b and kept the rest in use order",
+        () -> assertEquals(1, cache.getEvictions()),
+        () -> assertNull(reopened.get(b)),
+        () -> assertEquals(4, reopened.get(a).length),
+        () -> assertEquals(4, reopened.get(c).length),
+        () -> assertEquals(8, reopened.getTotalBytes()),
+        () -> assertTrue(Files.notExists(cacheDirectory.resolve(b))),
+        () -> assertNotEquals(a, OutputCache.open(cacheDirectory, "other", 10).keyOf(
+            new byte[] {'a'}))
+    );
+  }
+
+  @Test
+  @DisplayName("Should miss the cache when the tool version changes")
+  void should_Miss_when_ToolVersionChanges() throws IOException {
+    Path cacheDirectory = temp.resolve("cache");
+    byte[] input = {'a'};
+    OutputCache before = OutputCache.open(cacheDirectory, "1", "rules", 1 << 10);
+    String key = before.keyOf(input);
+    before.put(key, new byte[4]);
+    before.save();
+
+    OutputCache same = OutputCache.open(cacheDirectory, "1", "rules", 1 << 10);
+    OutputCache after = OutputCache.open(cacheDirectory, "2", "rules", 1 << 10);
+    assertAll("Version 1 output is only served to version 1",
+        () -> assertEquals(4, same.get(same.keyOf(input)).length),
+        () -> assertNotEquals(key, after.keyOf(input)),
+        () -> assertNull(after.get(after.keyOf(input)))
+    );
+  }
+
+  @Test
+  @DisplayName("Should change the tool version when a class of the tool changes")
+  void should_ChangeToolVersion_when_ClassChanges() throws IOException {
+    Path classes = temp.resolve("classes");
+    Path rule = classes.resolve("edu/byu/cs329/Rule.class");
+    Files.createDirectories(rule.getParent());
+    Files.write(rule, new byte[] {1, 2, 3});
+    Files.write(classes.resolve("notes.txt"), new byte[] {1});
+    String original = OutputCache.hashClasses(classes);
+    Files.write(classes.resolve("notes.txt"), new byte[] {2});
+    String unrelated = OutputCache.hashClasses(classes);
+    Files.write(rule, new byte[] {1, 2, 4});
+    String changed = OutputCache.hashClasses(classes);
+
+    assertAll("Only class files are hashed",
+        () -> assertEquals(original, unrelated),
+        () -> assertNotEquals(original, changed),
+        () -> assertNotEquals("development", OutputCache.getToolVersion())
+    );
+  }
+}
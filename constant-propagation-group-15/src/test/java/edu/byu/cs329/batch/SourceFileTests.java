@@ -0,0 +1,120 @@
+package edu.byu.cs329.batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.constantfolding.ConstantFolding;
+import edu.byu.cs329.constantpropagation.ConstantPropagation;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Tests for SourceFile")
+public class SourceFileTests {
+  static final String FOLDED = "batchInputs/should_KeepFormatting_when_IfIsFolded";
+  static final String NEGATIVE = "batchInputs/should_SeparateTokens_when_NegativeIsPropagated";
+  static final String NON_ASCII = "batchInputs/should_KeepOffsets_when_SourceHasNonAscii";
+
+  @TempDir
+  Path temp;
+
+  @Test
+  @DisplayName("Should keep formatting and comments outside the edits when an if is folded")
+  void should_KeepFormatting_when_IfIsFolded() throws IOException {
+    Path input = resource(FOLDED + "-root.java");
+    Path output = temp.resolve("out/Name.java");
+
+    SourceFile file = SourceFile.read(input);
+    ConstantFolding.fold(file.getRoot());
+
+    assertTrue(file.write(output));
+    assertEquals(Files.readString(resource(FOLDED + ".java")), Files.readString(output));
+  }
+
+  @Test
+  @DisplayName("Should keep edit offsets when the source has non-ASCII characters")
+  void should_KeepOffsets_when_SourceHasNonAscii() throws IOException {
+    Path input = resource(NON_ASCII + "-root.java");
+    Path output = temp.resolve("out/Name.java");
+
+    SourceFile file = SourceFile.read(input);
+    ConstantFolding.fold(file.getRoot());
+
+    assertTrue(file.write(output));
+    assertArrayEquals(Files.readAllBytes(resource(NON_ASCII + ".java")), Files.readAllBytes(output));
+  }
+
+  @Test
+  @DisplayName("Should skip the write when the file has no edits")
+  void should_SkipWrite_when_FileHasNoEdits() throws IOException {
+    Path file = temp.resolve("Name.java");
+    Files.copy(resource(FOLDED + ".java"), file);
+    FileTime modified = FileTime.fromMillis(0);
+    Files.setLastModifiedTime(file, modified);
+
+    SourceFile sourceFile = SourceFile.read(file);
+    ConstantFolding.fold(sourceFile.getRoot());
+
+    assertTrue(sourceFile.getEdits().isEmpty());
+    assertFalse(sourceFile.write(file));
+    assertEquals(modified, Files.getLastModifiedTime(file));
+  }
+
+  @Test
+  @DisplayName("Should keep tokens apart when a negative literal replaces a name after a minus")
+  void should_SeparateTokens_when_NegativeIsPropagated() throws IOException {
+    SourceFile file = SourceFile.read(resource(NEGATIVE + ".java"));
+    ConstantPropagation.propagate(file.getRoot());
+
+    String output = new String(file.getOutput(), StandardCharsets.UTF_8);
+    assertTrue(output.contains("return a- -5;"), output);
+    assertParses(file.getOutput());
+  }
+
+  @Test
+  @DisplayName("Should parenthesize when the replacement binds less tightly than its parent")
+  void should_Parenthesize_when_ReplacementHasLowerPrecedence() {
+    SourceFile file = SourceFile.parse(
+        "class A {\n  int m(int a, int b) {\n    return a*b;\n  }\n}\n"
+            .getBytes(StandardCharsets.UTF_8));
+    CompilationUnit unit = (CompilationUnit) file.getRoot();
+    TypeDeclaration type = (TypeDeclaration) unit.types().get(0);
+    ReturnStatement statement =
+        (ReturnStatement) type.getMethods()[0].getBody().statements().get(0);
+    InfixExpression product = (InfixExpression) statement.getExpression();
+    AST ast = unit.getAST();
+    InfixExpression sum = ast.newInfixExpression();
+    sum.setLeftOperand((SimpleName) ASTNode.copySubtree(ast, product.getRightOperand()));
+    sum.setOperator(InfixExpression.Operator.PLUS);
+    sum.setRightOperand(ast.newNumberLiteral("1"));
+    product.setRightOperand(sum);
+
+    String output = new String(file.getOutput(), StandardCharsets.UTF_8);
+    assertTrue(output.contains("return a*(b + 1);"), output);
+    assertParses(file.getOutput());
+  }
+
+  private static void assertParses(byte[] output) {
+    CompilationUnit unit = (CompilationUnit) SourceFile.parse(output).getRoot();
+    assertEquals(0, unit.getProblems().length, new String(output, StandardCharsets.UTF_8));
+  }
+
+  private Path resource(String name) {
+    return Path.of(JavaSourceUtils.getUri(this, name));
+  }
+}
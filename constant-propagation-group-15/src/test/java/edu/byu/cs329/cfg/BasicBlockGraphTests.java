@@ -0,0 +1,61 @@
+package edu.byu.cs329.cfg;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.byu.cs329.TestUtils;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for BasicBlockGraph")
+public class BasicBlockGraphTests {
+
+  @Test
+  @DisplayName("Should split blocks at the branch and the join when if has no else")
+  void should_SplitAtBranchAndJoin_when_IfHasNoElse() {
+    String fileName = "cfgInputs/should_LinkToNext_when_IfHasNoElse.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    BasicBlockGraph blocks = BasicBlockGraph.of(new ControlFlowGraphBuilder().build(node).get(0));
+    IndexedControlFlowGraph cfg = blocks.getGraph();
+    StatementTracker statementTracker = new StatementTracker(node);
+    int declaration = cfg.id(statementTracker.getVariableDeclarationStatement(0));
+    int ifStatement = cfg.id(statementTracker.getIfStatement(0));
+    int assignment = cfg.id(statementTracker.getExpressionStatement(0));
+    int returnStatement = cfg.id(statementTracker.getReturnStatement(0));
+    int end = cfg.id(cfg.getEnd());
+
+    assertAll("Blocks",
+        () -> assertEquals(3, blocks.size()),
+        () -> assertEquals(0, blocks.blockOf(declaration)),
+        () -> assertEquals(0, blocks.blockOf(ifStatement)),
+        () -> assertEquals(1, blocks.position(ifStatement)),
+        () -> assertEquals(blocks.blockOf(returnStatement), blocks.blockOf(end)),
+        () -> assertEquals(2, blocks.succCount(0)),
+        () -> assertEquals(2, blocks.predCount(blocks.blockOf(returnStatement))),
+        () -> assertEquals(assignment, blocks.statementId(blocks.blockOf(assignment), 0))
+    );
+  }
+
+  @Test
+  @DisplayName("Should have one block when code is straight line")
+  void should_HaveOneBlock_when_CodeIsStraightLine() {
+    StringBuilder builder = new StringBuilder("public class Name {\n  int name(int x) {\n");
+    for (int i = 0; i < 1000; ++i) {
+      builder.append("    x = x + ").append(i).append(";\n");
+    }
+    builder.append("    return x;\n  }\n}\n");
+    ASTParser parser = ASTParser.newParser(AST.JLS3);
+    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+    parser.setSource(builder.toString().toCharArray());
+    ASTNode node = parser.createAST(null);
+    BasicBlockGraph blocks = BasicBlockGraph.of(new ControlFlowGraphBuilder().build(node).get(0));
+
+    assertAll("Straight line",
+        () -> assertEquals(1002, blocks.getGraph().size()),
+        () -> assertEquals(1, blocks.size())
+    );
+  }
+}
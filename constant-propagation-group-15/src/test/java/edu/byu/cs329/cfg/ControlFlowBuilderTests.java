@@ -5,21 +5,38 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.Statement;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.generator.ProgramGenerator;
 
 @DisplayName("Tests for ControlFlowBuilder")
 public class ControlFlowBuilderTests {
+  static Logger log = LoggerFactory.getLogger(ControlFlowBuilderTests.class);
+
+  static final int STRAIGHT_LINE_STATEMENTS = 200000;
+  static final int LONG_METHOD_STATEMENTS = 10000;
+  static final long SEED = 329;
+  static final long SMALL_STACK_BYTES = 256 * 1024;
+  static final long TIME_BUDGET_MILLIS = 10000;
+  static final long HEAP_BUDGET_BYTES = 64L * 1024 * 1024;
+
   ControlFlowGraphBuilder unitUnderTest = null;
   ControlFlowGraph controlFlowGraph = null;
   StatementTracker statementTracker = null;
@@ -92,6 +109,120 @@ public class ControlFlowBuilderTests {
     );
   }
 
+  @Test
+  @Tag("IfStatement")
+  @DisplayName("Should link to next when if has no else")
+  void should_LinkToNext_when_IfHasNoElse() {
+    String fileName = "cfgInputs/should_LinkToNext_when_IfHasNoElse.java";
+    init(fileName);
+    Statement ifStatement = statementTracker.getIfStatement(0);
+    Statement expressionStatement = statementTracker.getExpressionStatement(0);
+    Statement returnStatement = statementTracker.getReturnStatement(0);
+    assertAll("If without else",
+        () -> assertTrue(hasEdge(ifStatement, expressionStatement)),
+        () -> assertTrue(hasEdge(ifStatement, returnStatement)),
+        () -> assertTrue(hasEdge(expressionStatement, returnStatement))
+    );
+  }
+
+  @Test
+  @Tag("MethodDeclaration")
+  @DisplayName("Should build separate graphs when method declares an anonymous class")
+  void should_BuildSeparateGraphs_when_MethodDeclaresAnonymousClass() {
+    String fileName = "cfgInputs/should_BuildSeparateGraphs_when_MethodDeclaresAnonymousClass.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    List<ControlFlowGraph> cfgList = unitUnderTest.build(node);
+    assertEquals(2, cfgList.size());
+    controlFlowGraph = cfgList.get(0);
+    statementTracker = new StatementTracker(node);
+    Statement variableDeclaration = statementTracker.getVariableDeclarationStatement(0);
+    Statement returnStatement = statementTracker.getReturnStatement(1);
+    assertAll("Outer method graph",
+        () -> assertEquals("outer", 
+            controlFlowGraph.getMethodDeclaration().getName().getIdentifier()),
+        () -> assertTrue(variableDeclaration == controlFlowGraph.getStart()),
+        () -> assertTrue(hasEdge(variableDeclaration, returnStatement)),
+        () -> assertEquals("run", 
+            cfgList.get(1).getMethodDeclaration().getName().getIdentifier())
+    );
+  }
+
+  @Test
+  @Tag("MethodDeclaration")
+  @DisplayName("Should build on a small stack when method is long")
+  void should_BuildOnSmallStack_when_MethodIsLong() throws Exception {
+    ASTNode node = parse(newStraightLineSource(LONG_METHOD_STATEMENTS));
+    List<ControlFlowGraph> cfgList = new ArrayList<ControlFlowGraph>();
+    assertNull(buildOnSmallStack(node, cfgList));
+    IndexedControlFlowGraph cfg = (IndexedControlFlowGraph) cfgList.get(0);
+    int statementCount = getStatementCount(cfg);
+    assertEquals(statementCount + 1, cfg.size());
+    assertEquals(statementCount, cfg.id(cfg.getEnd()));
+  }
+
+  @Test
+  @Tag("Benchmark")
+  @DisplayName("Should build within budget when method has 200k statements")
+  void should_BuildWithinBudget_when_MethodHas200kStatements() throws Exception {
+    ASTNode node = parse(newStraightLineSource(STRAIGHT_LINE_STATEMENTS));
+    Runtime runtime = Runtime.getRuntime();
+    long heapBefore = getUsedHeap(runtime);
+    List<ControlFlowGraph> cfgList = new ArrayList<ControlFlowGraph>();
+    long startNanos = System.nanoTime();
+    Throwable failure = buildOnSmallStack(node, cfgList);
+    long elapsedMillis = (System.nanoTime() - startNanos) / 1000000;
+    long retainedBytes = getUsedHeap(runtime) - heapBefore;
+
+    log.info("Built CFG for " + STRAIGHT_LINE_STATEMENTS + " statements in " + elapsedMillis
+        + " ms retaining " + retainedBytes + " bytes");
+    assertNull(failure);
+    IndexedControlFlowGraph cfg = (IndexedControlFlowGraph) cfgList.get(0);
+    int statementCount = getStatementCount(cfg);
+    assertAll("Straight-line method",
+        () -> assertTrue(statementCount > STRAIGHT_LINE_STATEMENTS),
+        () -> assertEquals(statementCount + 1, cfg.size()),
+        () -> assertEquals(statementCount, cfg.id(cfg.getEnd())),
+        () -> assertTrue(elapsedMillis < TIME_BUDGET_MILLIS),
+        () -> assertTrue(retainedBytes < HEAP_BUDGET_BYTES)
+    );
+  }
+
+  private Throwable buildOnSmallStack(ASTNode node, List<ControlFlowGraph> cfgList)
+      throws InterruptedException {
+    AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    Thread thread = new Thread(null, () -> {
+      try {
+        cfgList.addAll(unitUnderTest.build(node));
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    }, "small-stack", SMALL_STACK_BYTES);
+    thread.start();
+    thread.join();
+    return failure.get();
+  }
+
+  private static long getUsedHeap(Runtime runtime) {
+    System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static String newStraightLineSource(int statements) {
+    return new ProgramGenerator().seed(SEED).statements(statements).maxDepth(0).loopNesting(0)
+        .definitionsPerVariable(statements).generate();
+  }
+
+  private static int getStatementCount(ControlFlowGraph cfg) {
+    return cfg.getMethodDeclaration().getBody().statements().size();
+  }
+
+  private static ASTNode parse(String source) {
+    ASTParser parser = ASTParser.newParser(AST.JLS3);
+    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+    parser.setSource(source.toCharArray());
+    return parser.createAST(null);
+  }
+
   private boolean hasEdge(Statement source, Statement dest) {
     Set<Statement> successors = controlFlowGraph.getSuccs(source);
     Set<Statement> predecessors = controlFlowGraph.getPreds(dest);
@@ -0,0 +1,49 @@
+package edu.byu.cs329.cfg;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.TestUtils;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for ControlFlowInfo")
+public class ControlFlowInfoTests {
+
+  @Test
+  @DisplayName("Should nest loop depths when while contains while")
+  void should_NestLoops_when_WhileContainsWhile() {
+    String fileName = "cfgInputs/should_NestLoops_when_WhileContainsWhile.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    IndexedControlFlowGraph cfg =
+        IndexedControlFlowGraph.of(new ControlFlowGraphBuilder().build(node).get(0));
+    ControlFlowInfo info = cfg.getInfo();
+    StatementTracker statementTracker = new StatementTracker(node);
+    int outer = cfg.id(statementTracker.getWhileStatement(0));
+    int inner = cfg.id(statementTracker.getWhileStatement(1));
+    int innerBody = cfg.id(statementTracker.getExpressionStatement(0));
+    int outerTail = cfg.id(statementTracker.getExpressionStatement(1));
+    int returnStatement = cfg.id(statementTracker.getReturnStatement(0));
+
+    assertAll("Loops",
+        () -> assertSame(info, cfg.getInfo()),
+        () -> assertSame(info.getDominatorTree(), cfg.getInfo().getDominatorTree()),
+        () -> assertEquals(2, info.backEdgeCount()),
+        () -> assertTrue(info.isBackEdge(cfg.succEdge(innerBody, 0))),
+        () -> assertFalse(info.isBackEdge(cfg.succEdge(outer, 0))),
+        () -> assertTrue(info.isLoopHeader(outer)),
+        () -> assertTrue(info.isLoopHeader(inner)),
+        () -> assertFalse(info.isLoopHeader(innerBody)),
+        () -> assertEquals(0, info.loopDepth(0)),
+        () -> assertEquals(1, info.loopDepth(outer)),
+        () -> assertEquals(2, info.loopDepth(inner)),
+        () -> assertEquals(2, info.loopDepth(innerBody)),
+        () -> assertEquals(1, info.loopDepth(outerTail)),
+        () -> assertEquals(0, info.loopDepth(returnStatement))
+    );
+  }
+}
@@ -0,0 +1,74 @@
+package edu.byu.cs329.cfg;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import edu.byu.cs329.TestUtils;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for IndexedControlFlowGraph")
+public class IndexedControlFlowGraphTests {
+
+  @Test
+  @DisplayName("Should number only reachable statements when block has return")
+  void should_NumberOnlyReachableStatements_when_BlockHasReturn() {
+    String fileName = "cfgInputs/should_LinkToReturn_when_BlockHasReturn.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    List<ControlFlowGraph> cfgList = new ControlFlowGraphBuilder().build(node);
+    IndexedControlFlowGraph cfg = (IndexedControlFlowGraph) cfgList.get(0);
+    StatementTracker statementTracker = new StatementTracker(node);
+    Statement declaration = statementTracker.getVariableDeclarationStatement(0);
+    Statement returnStatement = statementTracker.getReturnStatement(0);
+    Statement unreachable = statementTracker.getExpressionStatement(0);
+    Statement end = cfg.getEnd();
+
+    assertAll("Indexed graph",
+        () -> assertEquals(3, cfg.size()),
+        () -> assertEquals(0, cfg.id(cfg.getStart())),
+        () -> assertEquals(-1, cfg.id(unreachable)),
+        () -> assertSame(returnStatement, cfg.statement(cfg.id(returnStatement))),
+        () -> assertArrayEquals(new int[] {cfg.id(returnStatement)},
+            cfg.succIds(cfg.id(declaration))),
+        () -> assertArrayEquals(new int[] {cfg.id(returnStatement)}, cfg.predIds(cfg.id(end))),
+        () -> assertEquals(cfg.id(end), cfg.succId(cfg.id(returnStatement), 0)),
+        () -> assertTrue(cfg.getSuccs(declaration).contains(returnStatement)),
+        () -> assertNull(cfg.getSuccs(end)),
+        () -> assertNull(cfg.getPreds(declaration)),
+        () -> assertNull(cfg.getSuccs(unreachable))
+    );
+  }
+
+  @Test
+  @DisplayName("Should copy reachable edges when given another implementation")
+  void should_CopyReachableEdges_when_GivenAnotherImplementation() {
+    Statement first = mock(Statement.class);
+    Statement second = mock(Statement.class);
+    Statement third = mock(Statement.class);
+    ControlFlowGraph graph = mock(ControlFlowGraph.class);
+    when(graph.getStart()).thenReturn(first);
+    when(graph.getEnd()).thenReturn(third);
+    when(graph.getSuccs(first)).thenReturn(Set.of(second, third));
+    when(graph.getSuccs(second)).thenReturn(Set.of(second, third));
+
+    IndexedControlFlowGraph cfg = IndexedControlFlowGraph.of(graph);
+
+    assertAll("Indexed copy",
+        () -> assertEquals(3, cfg.size()),
+        () -> assertEquals(2, cfg.predCount(cfg.id(third))),
+        () -> assertEquals(2, cfg.predCount(cfg.id(second))),
+        () -> assertEquals(Set.of(first, second), cfg.getPreds(third)),
+        () -> assertSame(cfg, IndexedControlFlowGraph.of(cfg))
+    );
+  }
+}
@@ -0,0 +1,79 @@
+package edu.byu.cs329.cfg;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.constantfolding.FoldingListener;
+import edu.byu.cs329.constantfolding.IfStatementFolding;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for MutableControlFlowGraph")
+public class MutableControlFlowGraphTests {
+
+  @Test
+  @DisplayName("Should match a rebuilt graph when if statements are folded")
+  void should_MatchRebuild_when_IfStatementsAreFolded() {
+    String fileName = "cfgInputs/should_MatchRebuild_when_IfStatementsAreFolded.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    ControlFlowGraphBuilder builder = new ControlFlowGraphBuilder();
+    List<MutableControlFlowGraph> graphs = new ArrayList<MutableControlFlowGraph>();
+    for (ControlFlowGraph cfg : builder.build(node)) {
+      graphs.add(new MutableControlFlowGraph(cfg));
+    }
+
+    FoldingListener listener = new FoldingListener() {
+      @Override
+      public void didReplaceStatement(Statement original, Statement replacement) {
+        graphs.forEach(graph -> graph.didReplaceStatement(original, replacement));
+      }
+
+      @Override
+      public void didSpliceBlock(Block block, List<Statement> statements) {
+        graphs.forEach(graph -> graph.didSpliceBlock(block, statements));
+      }
+    };
+    assertTrue(new IfStatementFolding().fold(node, listener));
+
+    List<ControlFlowGraph> rebuilt = builder.build(node);
+    for (int i = 0; i < graphs.size(); ++i) {
+      assertSameGraph(rebuilt.get(i), graphs.get(i));
+    }
+    assertAll("Patched in place",
+        () -> assertEquals(4, graphs.get(0).getPatchCount()),
+        () -> assertEquals(1, graphs.get(1).getPatchCount()),
+        () -> assertEquals(0, graphs.get(0).getRebuildCount())
+    );
+  }
+
+  private static void assertSameGraph(ControlFlowGraph expected, MutableControlFlowGraph actual) {
+    IndexedControlFlowGraph graph = IndexedControlFlowGraph.of(expected);
+    assertSame(expected.getStart(), actual.getStart());
+    assertEquals(graph.size(), actual.size());
+    for (int s = 0; s < graph.size(); ++s) {
+      Statement statement = graph.statement(s);
+      assertEquals(toList(expected.getSuccs(statement)), toList(actual.getSuccs(statement)),
+          statement.toString());
+      assertEquals(toList(expected.getPreds(statement)), toList(actual.getPreds(statement)),
+          statement.toString());
+    }
+  }
+
+  private static List<Statement> toList(Set<Statement> statements) {
+    List<Statement> list = new ArrayList<Statement>();
+    if (statements != null) {
+      list.addAll(statements);
+      list.sort((a, b) -> Integer.compare(a.getStartPosition(), b.getStartPosition()));
+    }
+    return list;
+  }
+}
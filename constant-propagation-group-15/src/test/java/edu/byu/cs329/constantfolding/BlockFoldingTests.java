@@ -0,0 +1,97 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.StatementTracker;
+import java.net.URI;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for folding Block types")
+public class BlockFoldingTests {
+  BlockFolding folderUnderTest = null;
+
+  @BeforeEach
+  void beforeEach() {
+    folderUnderTest = new BlockFolding();
+  }
+
+  @Test
+  @DisplayName("Should throw RuntimeException when root is null")
+  void should_ThrowRuntimeException_when_RootIsNull() {
+    assertThrows(RuntimeException.class, () -> {
+      folderUnderTest.fold(null);
+    });
+  }
+
+  @Test
+  @DisplayName("Should throw RuntimeException when root is not a CompilationUnit and has no parent")
+  void should_ThrowRuntimeException_when_RootIsNotACompilationUnitAndHasNoParent() {
+    assertThrows(RuntimeException.class, () -> {
+      URI uri = TestUtils.getUri(this, "");
+      ASTNode compilationUnit = TestUtils.getCompilationUnit(uri);
+      ASTNode root = compilationUnit.getAST().newNullLiteral();
+      folderUnderTest.fold(root);
+    });
+  }
+
+  @Test
+  @DisplayName("Should not fold anything when there are no nested blocks")
+  void should_NotFoldAnything_when_ThereAreNoNestedBlocks() {
+    String rootName = "foldingInputs/blocks/should_NotFoldAnything_when_ThereAreNoNestedBlocks.java";
+    String expectedName = "foldingInputs/blocks/should_NotFoldAnything_when_ThereAreNoNestedBlocks.java";
+    TestUtils.assertDidNotFold(this, rootName, expectedName, folderUnderTest);
+  }
+
+  @Test
+  @DisplayName("Should leave blocks in place when there are no nested blocks")
+  void should_LeaveBlocksInPlace_when_ThereAreNoNestedBlocks() {
+    String rootName = "foldingInputs/blocks/should_NotFoldAnything_when_ThereAreNoNestedBlocks.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    StatementTracker before = new StatementTracker(root);
+    folderUnderTest.fold(root);
+    StatementTracker after = new StatementTracker(root);
+    assertAll("Blocks are not copied",
+        () -> assertSame(before.getBlock(0), after.getBlock(0)),
+        () -> assertSame(before.getBlock(1), after.getBlock(1)),
+        () -> assertSame(before.getBlock(2), after.getBlock(2))
+    );
+  }
+
+  @Test
+  @DisplayName("Should move nested statements when block contains blocks")
+  void should_MoveNestedStatements_when_BlockContainsBlocks() {
+    String rootName = "foldingInputs/blocks/should_MoveNestedStatements_when_BlockContainsBlocks-root.java";
+    String expectedName = "foldingInputs/blocks/should_MoveNestedStatements_when_BlockContainsBlocks.java";
+    TestUtils.assertDidFold(this, rootName, expectedName, folderUnderTest);
+  }
+
+  @Test
+  @DisplayName("Should keep the same statement nodes when block contains blocks")
+  void should_KeepSameStatementNodes_when_BlockContainsBlocks() {
+    String rootName = "foldingInputs/blocks/should_MoveNestedStatements_when_BlockContainsBlocks-root.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    StatementTracker before = new StatementTracker(root);
+    folderUnderTest.fold(root);
+    for (int i = 0; i < 4; ++i) {
+      Statement statement = before.getExpressionStatement(i);
+      assertTrue(isAttached(statement, root));
+    }
+  }
+
+  private boolean isAttached(ASTNode node, ASTNode root) {
+    for (ASTNode n = node; n != null; n = n.getParent()) {
+      if (n == root) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,165 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for ConstantEvaluator")
+public class ConstantEvaluatorTests {
+  AST ast = null;
+
+  @BeforeEach
+  void beforeEach() {
+    ast = AST.newAST(AST.JLS3);
+  }
+
+  @Test
+  @DisplayName("Should parse each radix and suffix when given integer literals")
+  void should_ParseEachRadixAndSuffix_when_GivenIntegerLiterals() {
+    assertAll("Integer literal tokens",
+        () -> assertEquals(42, ConstantEvaluator.getValue(ast.newNumberLiteral("42"))),
+        () -> assertEquals(42, ConstantEvaluator.getValue(ast.newNumberLiteral("0x2A"))),
+        () -> assertEquals(42, ConstantEvaluator.getValue(ast.newNumberLiteral("052"))),
+        () -> assertEquals(-1, ConstantEvaluator.getValue(ast.newNumberLiteral("0xFFFFFFFF"))),
+        () -> assertEquals(0xFFFFFFFFL,
+            ConstantEvaluator.getValue(ast.newNumberLiteral("0xFFFFFFFFL"))),
+        () -> assertEquals(ConstantEvaluator.LONG,
+            ConstantEvaluator.getKind(ast.newNumberLiteral("7L"))),
+        () -> assertEquals(Integer.MIN_VALUE,
+            ConstantEvaluator.getValue(negate(ast.newNumberLiteral("2147483648")))),
+        () -> assertEquals(Long.MIN_VALUE,
+            ConstantEvaluator.getValue(negate(ast.newNumberLiteral("9223372036854775808L"))))
+    );
+  }
+
+  @Test
+  @DisplayName("Should throw RuntimeException when literal is out of range without a minus")
+  void should_ThrowRuntimeException_when_LiteralIsOutOfRangeWithoutMinus() {
+    assertThrows(RuntimeException.class, () -> {
+      ConstantEvaluator.getValue(ast.newNumberLiteral("2147483648"));
+    });
+  }
+
+  @Test
+  @DisplayName("Should throw RuntimeException when literal is not integral")
+  void should_ThrowRuntimeException_when_LiteralIsNotIntegral() {
+    assertThrows(RuntimeException.class, () -> {
+      ConstantEvaluator.getKind(ast.newNumberLiteral("10.0"));
+    });
+  }
+
+  @Test
+  @DisplayName("Should not modify the literal when the literal is evaluated")
+  void should_NotModifyLiteral_when_LiteralIsEvaluated() {
+    NumberLiteral literal = ast.newNumberLiteral("17");
+    ConstantEvaluator.getKind(literal);
+    ConstantEvaluator.getValue(literal);
+    assertTrue(literal.properties().isEmpty());
+    assertEquals(17, ConstantEvaluator.getValue(literal));
+  }
+
+  @Test
+  @DisplayName("Should wrap like Java when int addition overflows")
+  void should_WrapLikeJava_when_IntAdditionOverflows() {
+    InfixExpression node = newInfix(InfixExpression.Operator.PLUS, "2147483647", "1");
+    int kind = ConstantEvaluator.getOperandKind(node);
+    assertEquals(ConstantEvaluator.INT, kind);
+    assertEquals(Integer.MAX_VALUE + 1, ConstantEvaluator.evaluate(node, kind));
+  }
+
+  @Test
+  @DisplayName("Should promote to long when one operand is long")
+  void should_PromoteToLong_when_OneOperandIsLong() {
+    InfixExpression node = newInfix(InfixExpression.Operator.PLUS, "2147483647", "1L", "1");
+    int kind = ConstantEvaluator.getOperandKind(node);
+    assertEquals(ConstantEvaluator.LONG, kind);
+    assertEquals(2147483649L, ConstantEvaluator.evaluate(node, kind));
+  }
+
+  @Test
+  @DisplayName("Should promote each step on its own when the long operand is last")
+  void should_PromoteEachStep_when_LongOperandIsLast() {
+    InfixExpression node = newInfix(InfixExpression.Operator.PLUS, "2147483647", "1", "1L");
+    int kind = ConstantEvaluator.getOperandKind(node);
+    assertEquals(ConstantEvaluator.LONG, kind);
+    assertEquals(2147483647 + 1 + 1L, ConstantEvaluator.evaluate(node, kind));
+  }
+
+  @Test
+  @DisplayName("Should wrap like Java when long multiplication overflows")
+  void should_WrapLikeJava_when_LongMultiplicationOverflows() {
+    InfixExpression node = newInfix(InfixExpression.Operator.TIMES, "4611686018427387904L", "4");
+    int kind = ConstantEvaluator.getOperandKind(node);
+    assertEquals(4611686018427387904L * 4, ConstantEvaluator.evaluate(node, kind));
+  }
+
+  @Test
+  @DisplayName("Should promote char to int when compared with a number")
+  void should_PromoteCharToInt_when_ComparedWithNumber() {
+    InfixExpression node = ast.newInfixExpression();
+    node.setOperator(InfixExpression.Operator.LESS);
+    CharacterLiteral character = ast.newCharacterLiteral();
+    character.setCharValue('a');
+    node.setLeftOperand(character);
+    node.setRightOperand(ast.newNumberLiteral("98"));
+    int kind = ConstantEvaluator.getOperandKind(node);
+    assertEquals(ConstantEvaluator.INT, kind);
+    assertEquals(1, ConstantEvaluator.evaluate(node, kind));
+  }
+
+  @Test
+  @DisplayName("Should not be numeric when an operand is boolean")
+  void should_NotBeNumeric_when_OperandIsBoolean() {
+    InfixExpression node = ast.newInfixExpression();
+    node.setOperator(InfixExpression.Operator.PLUS);
+    node.setLeftOperand(ast.newBooleanLiteral(true));
+    node.setRightOperand(ast.newNumberLiteral("1"));
+    assertEquals(ConstantEvaluator.NONE, ConstantEvaluator.getOperandKind(node));
+  }
+
+  @Test
+  @DisplayName("Should create a negated literal when the value is negative")
+  void should_CreateNegatedLiteral_when_ValueIsNegative() {
+    Expression literal = ConstantEvaluator.newLiteral(ast, ConstantEvaluator.INT, Integer.MIN_VALUE);
+    assertTrue(literal instanceof PrefixExpression);
+    assertEquals("-2147483648", literal.toString());
+    assertEquals(Integer.MIN_VALUE, ConstantEvaluator.getValue(literal));
+  }
+
+  private PrefixExpression negate(Expression operand) {
+    PrefixExpression prefix = ast.newPrefixExpression();
+    prefix.setOperator(PrefixExpression.Operator.MINUS);
+    prefix.setOperand(operand);
+    return prefix;
+  }
+
+  private InfixExpression newInfix(InfixExpression.Operator operator, String... tokens) {
+    InfixExpression node = ast.newInfixExpression();
+    node.setOperator(operator);
+    node.setLeftOperand(ast.newNumberLiteral(tokens[0]));
+    node.setRightOperand(ast.newNumberLiteral(tokens[1]));
+    List<Expression> extendedOperands = getExpressionList(node.extendedOperands());
+    for (int i = 2; i < tokens.length; ++i) {
+      extendedOperands.add(ast.newNumberLiteral(tokens[i]));
+    }
+    return node;
+  }
+
+  private List<Expression> getExpressionList(Object list) {
+    @SuppressWarnings("unchecked")
+    List<Expression> expressionList = (List<Expression>)(list);
+    return expressionList;
+  }
+}
@@ -0,0 +1,103 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.TestUtils;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.jdt.core.dom.ASTMatcher;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for FoldingFixpoint")
+public class FoldingFixpointTests {
+  FoldingFixpoint unitUnderTest = null;
+
+  @BeforeEach
+  void beforeEach() {
+    unitUnderTest = new FoldingFixpoint(List.of(
+        new BlockFolding(),
+        new ParenthesizedExpressionFolding(),
+        new LogicalNotPrefixExpressionFolding(),
+        new InfixExpressionPlusFolding(),
+        new InfixExpressionLessThanFolding(),
+        new IfStatementFolding()
+    ));
+  }
+
+  @Test
+  @DisplayName("Should throw RuntimeException when root is null")
+  void should_ThrowRuntimeException_when_RootIsNull() {
+    assertThrows(RuntimeException.class, () -> {
+      unitUnderTest.run(null);
+    });
+  }
+
+  @Test
+  @DisplayName("Should fold all constants when given multiple types")
+  void should_FoldAllConstants_when_GivenMultipleTypes() {
+    String rootName = "foldingInputs/system/should_FoldAllConstants_when_GivenMultipleTypes-root.java";
+    String expectedName = "foldingInputs/system/should_FoldAllConstants_when_GivenMultipleTypes.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    unitUnderTest.run(root);
+    ASTNode expected = TestUtils.getASTNodeFor(this, expectedName);
+    assertTrue(expected.subtreeMatch(new ASTMatcher(), root));
+  }
+
+  @Test
+  @DisplayName("Should take one round when nothing folds")
+  void should_TakeOneRound_when_NothingFolds() {
+    String rootName = "foldingInputs/system/should_FoldAllConstants_when_GivenMultipleTypes.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    FoldingFixpoint.Statistics statistics = unitUnderTest.run(root);
+    assertEquals(1, statistics.getRounds());
+    assertEquals(0, statistics.getRewrites());
+  }
+
+  @Test
+  @DisplayName("Should revisit only changed regions when one method folds")
+  void should_RevisitOnlyChangedRegions_when_OneMethodFolds() {
+    String rootName = "foldingInputs/fixpoint/should_RevisitOnlyChangedRegions_when_OneMethodFolds-root.java";
+    String expectedName = "foldingInputs/fixpoint/should_RevisitOnlyChangedRegions_when_OneMethodFolds.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    List<String> regions = new ArrayList<String>();
+    Folding recording = region -> {
+      regions.add(getEnclosingMethodName(region));
+      return false;
+    };
+    FoldingFixpoint fixpoint = new FoldingFixpoint(List.of(
+        recording,
+        new BlockFolding(),
+        new ParenthesizedExpressionFolding(),
+        new LogicalNotPrefixExpressionFolding(),
+        new InfixExpressionPlusFolding(),
+        new InfixExpressionLessThanFolding(),
+        new IfStatementFolding()));
+    FoldingFixpoint.Statistics statistics = fixpoint.run(root);
+    ASTNode expected = TestUtils.getASTNodeFor(this, expectedName);
+    assertTrue(expected.subtreeMatch(new ASTMatcher(), root));
+
+    assertTrue(statistics.getRounds() > 1);
+    assertEquals(statistics.getRegionsVisited(), regions.size());
+    assertNull(regions.get(0));
+    assertTrue(regions.size() > 1);
+    for (String method : regions.subList(1, regions.size())) {
+      assertEquals("second", method);
+    }
+  }
+
+  private static String getEnclosingMethodName(ASTNode node) {
+    for (ASTNode n = node; n != null; n = n.getParent()) {
+      if (n instanceof MethodDeclaration) {
+        return ((MethodDeclaration) n).getName().getIdentifier();
+      }
+    }
+    return null;
+  }
+}
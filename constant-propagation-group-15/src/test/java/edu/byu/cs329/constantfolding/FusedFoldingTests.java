@@ -0,0 +1,70 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.TestUtils;
+import java.net.URI;
+import java.util.List;
+import org.eclipse.jdt.core.dom.ASTMatcher;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for FusedFolding")
+public class FusedFoldingTests {
+  FusedFolding folderUnderTest = null;
+
+  @BeforeEach
+  void beforeEach() {
+    folderUnderTest = new FusedFolding(List.of(
+        new BlockFolding(),
+        new ParenthesizedExpressionFolding(),
+        new LogicalNotPrefixExpressionFolding(),
+        new InfixExpressionPlusFolding(),
+        new InfixExpressionLessThanFolding(),
+        new IfStatementFolding()
+    ));
+  }
+
+  @Test
+  @DisplayName("Should throw RuntimeException when root is null")
+  void should_ThrowRuntimeException_when_RootIsNull() {
+    assertThrows(RuntimeException.class, () -> {
+      folderUnderTest.fold(null);
+    });
+  }
+
+  @Test
+  @DisplayName("Should throw RuntimeException when root is not a CompilationUnit and has no parent")
+  void should_ThrowRuntimeException_when_RootIsNotACompilationUnitAndHasNoParent() {
+    assertThrows(RuntimeException.class, () -> {
+      URI uri = TestUtils.getUri(this, "");
+      ASTNode compilationUnit = TestUtils.getCompilationUnit(uri);
+      ASTNode root = compilationUnit.getAST().newNullLiteral();
+      folderUnderTest.fold(root);
+    });
+  }
+
+  @Test
+  @DisplayName("Should fold nested expression in one pass when all operands are literals")
+  void should_FoldNestedExpressionInOnePass_when_AllOperandsAreLiterals() {
+    String rootName = "foldingInputs/fused/should_FoldNestedExpressionInOnePass_when_AllOperandsAreLiterals-root.java";
+    String expectedName = "foldingInputs/fused/should_FoldNestedExpressionInOnePass_when_AllOperandsAreLiterals.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    assertTrue(folderUnderTest.fold(root));
+    ASTNode expected = TestUtils.getASTNodeFor(this, expectedName);
+    assertTrue(expected.subtreeMatch(new ASTMatcher(), root));
+    assertFalse(folderUnderTest.fold(root));
+  }
+
+  @Test
+  @DisplayName("Should fold all constants in one pass when given multiple types")
+  void should_FoldAllConstantsInOnePass_when_GivenMultipleTypes() {
+    String rootName = "foldingInputs/system/should_FoldAllConstants_when_GivenMultipleTypes-root.java";
+    String expectedName = "foldingInputs/system/should_FoldAllConstants_when_GivenMultipleTypes.java";
+    TestUtils.assertDidFold(this, rootName, expectedName, folderUnderTest);
+  }
+}
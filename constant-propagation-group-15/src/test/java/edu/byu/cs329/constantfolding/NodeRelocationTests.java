@@ -0,0 +1,161 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import edu.byu.cs329.generator.ProgramGenerator;
+import edu.byu.cs329.utils.TreeModificationUtils;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.EmptyStatement;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@DisplayName("Tests for NodeRelocation")
+public class NodeRelocationTests {
+  static Logger log = LoggerFactory.getLogger(NodeRelocationTests.class);
+
+  static final int THEN_STATEMENTS = 2000;
+  static final long SEED = 329;
+
+  @Test
+  @DisplayName("Should throw RuntimeException when node has no parent")
+  void should_ThrowRuntimeException_when_NodeHasNoParent() {
+    AST ast = AST.newAST(AST.JLS3);
+    assertThrows(RuntimeException.class, () -> {
+      NodeRelocation.detach(ast.newNullLiteral());
+    });
+  }
+
+  @Test
+  @DisplayName("Should move the same node when replacing with a descendant")
+  void should_MoveSameNode_when_ReplacingWithDescendant() {
+    IfStatement ifStatement = getIfStatement(parse(newSource(3)));
+    Block body = (Block) ifStatement.getParent();
+    int index = body.statements().indexOf(ifStatement);
+    Statement thenStatement = ifStatement.getThenStatement();
+    NodeRelocation.replaceWithDescendant(ifStatement, thenStatement);
+    assertSame(body, thenStatement.getParent());
+    assertSame(thenStatement, body.statements().get(index));
+    assertNull(ifStatement.getParent());
+  }
+
+  @Test
+  @DisplayName("Should leave a placeholder when detaching a mandatory child")
+  void should_LeavePlaceholder_when_DetachingMandatoryChild() {
+    IfStatement ifStatement = getIfStatement(parse(newSource(3)));
+    Statement thenStatement = ifStatement.getThenStatement();
+    NodeRelocation.detach(thenStatement);
+    assertNull(thenStatement.getParent());
+    assertTrue(ifStatement.getThenStatement() instanceof EmptyStatement);
+  }
+
+  @Test
+  @DisplayName("Should remove from the list when detaching a list element")
+  void should_RemoveFromList_when_DetachingListElement() {
+    IfStatement ifStatement = getIfStatement(parse(newSource(3)));
+    Block body = (Block) ifStatement.getParent();
+    int size = body.statements().size();
+    NodeRelocation.detach(ifStatement);
+    assertEquals(size - 1, body.statements().size());
+  }
+
+  @Test
+  @Tag("Benchmark")
+  @DisplayName("Should allocate less than copying when folding a large then-block")
+  void should_AllocateLessThanCopying_when_FoldingLargeThenBlock() {
+    com.sun.management.ThreadMXBean threadBean = getThreadBean();
+    assumeTrue(threadBean != null);
+
+    String source = newSource(THEN_STATEMENTS);
+    long copyBytes = Long.MAX_VALUE;
+    long moveBytes = Long.MAX_VALUE;
+    for (int i = 0; i < 5; ++i) {
+      IfStatement copyTarget = getIfStatement(parse(source));
+      long before = threadBean.getCurrentThreadAllocatedBytes();
+      ASTNode copy = ASTNode.copySubtree(copyTarget.getAST(), copyTarget.getThenStatement());
+      TreeModificationUtils.replaceChildInParent(copyTarget, copy);
+      copyBytes = Math.min(copyBytes, threadBean.getCurrentThreadAllocatedBytes() - before);
+
+      IfStatement moveTarget = getIfStatement(parse(source));
+      before = threadBean.getCurrentThreadAllocatedBytes();
+      NodeRelocation.replaceWithDescendant(moveTarget, moveTarget.getThenStatement());
+      moveBytes = Math.min(moveBytes, threadBean.getCurrentThreadAllocatedBytes() - before);
+    }
+
+    log.info("Bytes allocated per fold of if (true) with " + THEN_STATEMENTS
+        + " statements: copy=" + copyBytes + " move=" + moveBytes);
+    assertTrue(moveBytes * 100 < copyBytes);
+  }
+
+  private static com.sun.management.ThreadMXBean getThreadBean() {
+    Object bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+    if (!threadBean.isThreadAllocatedMemorySupported()) {
+      return null;
+    }
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+    return threadBean;
+  }
+
+  private static String newSource(int thenStatements) {
+    return new ProgramGenerator().seed(SEED).statements(thenStatements + 1).maxDepth(0)
+        .loopNesting(0).generate();
+  }
+
+  private static CompilationUnit parse(String source) {
+    ASTParser parser = ASTParser.newParser(AST.JLS3);
+    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+    parser.setSource(source.toCharArray());
+    return (CompilationUnit) parser.createAST(null);
+  }
+
+  /**
+   * Moves the assignments of a straight-line method into an if (true).
+   *
+   * @param compilationUnit a program from {@link #newSource(int)}.
+   * @return the if statement, between the declarations and the return.
+   */
+  @SuppressWarnings("unchecked")
+  private static IfStatement getIfStatement(CompilationUnit compilationUnit) {
+    TypeDeclaration type = (TypeDeclaration) compilationUnit.types().get(0);
+    MethodDeclaration method = type.getMethods()[0];
+    List<Statement> statements = method.getBody().statements();
+    int first = 0;
+    while (statements.get(first) instanceof VariableDeclarationStatement) {
+      ++first;
+    }
+    List<Statement> assignments = statements.subList(first, statements.size() - 1);
+    List<Statement> moved = new ArrayList<Statement>(assignments);
+    assignments.clear();
+    AST ast = compilationUnit.getAST();
+    Block thenBlock = ast.newBlock();
+    thenBlock.statements().addAll(moved);
+    IfStatement ifStatement = ast.newIfStatement();
+    ifStatement.setExpression(ast.newBooleanLiteral(true));
+    ifStatement.setThenStatement(thenBlock);
+    statements.add(first, ifStatement);
+    return ifStatement;
+  }
+}
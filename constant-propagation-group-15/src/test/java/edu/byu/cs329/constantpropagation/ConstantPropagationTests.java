@@ -1,8 +1,117 @@
 package edu.byu.cs329.constantpropagation;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.batch.SourceFile;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.DominatorTree;
+import edu.byu.cs329.cfg.IndexedControlFlowGraph;
+import edu.byu.cs329.generator.ProgramGenerator;
+import edu.byu.cs329.ssa.SsaForm;
+import java.nio.charset.StandardCharsets;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTMatcher;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 
 @DisplayName("Tests for ConstantPropagation")
 public class ConstantPropagationTests {
+  static final int STATEMENTS = 2000;
+  static final int METHODS = 1000;
+
+  @Test
+  @DisplayName("Should replace reads with literals when definitions are constant")
+  void should_ReplaceReads_when_DefinitionsAreConstant() {
+    assertDidPropagate("should_ReplaceReads_when_DefinitionsAreConstant");
+  }
+
+  @Test
+  @DisplayName("Should fold the branch when the condition is constant")
+  void should_FoldBranch_when_ConditionIsConstant() {
+    assertDidPropagate("should_FoldBranch_when_ConditionIsConstant");
+  }
+
+  @Test
+  @DisplayName("Should not replace reads when a loop redefines the variable")
+  void should_NotReplaceReads_when_LoopRedefinesVariable() {
+    assertDidPropagate("should_NotReplaceReads_when_LoopRedefinesVariable");
+  }
+
+  @Test
+  @DisplayName("Should not replace a field read when a block local has the same name")
+  void should_NotReplaceFieldRead_when_BlockLocalHasSameName() {
+    assertDidPropagate("should_NotReplaceFieldRead_when_BlockLocalHasSameName");
+  }
+
+  @Test
+  @DisplayName("Should retire each method when a round changes nothing")
+  void should_RetireMethods_when_RoundChangesNothing() {
+    String fileName = "propagationInputs/should_RetireMethods_when_RoundChangesNothing-root.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, fileName);
+    ConstantPropagation.Statistics statistics = ConstantPropagation.propagate(root);
+    MethodDeclaration[] methods =
+        ((TypeDeclaration) ((CompilationUnit) root).types().get(0)).getMethods();
+    assertAll("Rounds per method",
+        () -> assertEquals(2, statistics.getMethodCount()),
+        () -> assertEquals(2, statistics.getRounds(methods[0])),
+        () -> assertEquals(1, statistics.getRounds(methods[1])),
+        () -> assertEquals(2, statistics.getPasses()),
+        () -> assertEquals("return 3;\n", methods[0].getBody().statements().get(2).toString())
+    );
+  }
+
+  @Test
+  @DisplayName("Should evaluate in proportion to def-use edges when given a long loop body")
+  void should_EvaluateInProportionToDefUseEdges_when_GivenLongLoopBody() {
+    StringBuilder builder = new StringBuilder("class Name {\n  int name(int n) {\n");
+    builder.append("    int x0 = 0;\n    int i = 0;\n    while (i < n) {\n");
+    for (int i = 1; i < STATEMENTS; ++i) {
+      builder.append("      int x").append(i).append(" = x").append(i - 1).append(" + 1;\n");
+    }
+    builder.append("      i = i + 1;\n    }\n    return i;\n  }\n}\n");
+    ASTParser parser = ASTParser.newParser(AST.JLS3);
+    parser.setSource(builder.toString().toCharArray());
+    ASTNode node = parser.createAST(null);
+
+    IndexedControlFlowGraph cfg =
+        IndexedControlFlowGraph.of(new ControlFlowGraphBuilder().build(node).get(0));
+    SsaForm ssa = new SsaForm(new DominatorTree(cfg));
+    SparseConditionalConstantPropagation sccp = new SparseConditionalConstantPropagation(ssa);
+    int bound = cfg.size() + ssa.valueCount() + 2 * ssa.defUseEdgeCount();
+    assertTrue(sccp.getEvaluations() <= bound, sccp.getEvaluations() + " > " + bound);
+  }
+
+  @Test
+  @DisplayName("Should reach a fixpoint when given a class of a thousand generated methods")
+  void should_ReachFixpoint_when_GivenThousandGeneratedMethods() {
+    String source = new ProgramGenerator().seed(329).methods(METHODS).statements(30).generate();
+    SourceFile file = SourceFile.parse(source.getBytes(StandardCharsets.UTF_8));
+    ConstantPropagation.Statistics first = ConstantPropagation.propagate(file.getRoot());
+
+    SourceFile output = SourceFile.parse(file.getOutput());
+    ConstantPropagation.Statistics second = ConstantPropagation.propagate(output.getRoot());
+
+    assertAll("Generated class",
+        () -> assertEquals(METHODS, first.getMethodCount()),
+        () -> assertTrue(first.getRewrites() > 0),
+        () -> assertEquals(0, ((CompilationUnit) output.getRoot()).getProblems().length),
+        () -> assertEquals(1, second.getPasses()),
+        () -> assertEquals(0, second.getRewrites())
+    );
+  }
 
+  private void assertDidPropagate(String name) {
+    ASTNode root = TestUtils.getASTNodeFor(this, "propagationInputs/" + name + "-root.java");
+    ConstantPropagation.propagate(root);
+    ASTNode expected = TestUtils.getASTNodeFor(this, "propagationInputs/" + name + ".java");
+    assertTrue(expected.subtreeMatch(new ASTMatcher(), root), root.toString());
+  }
 }
@@ -0,0 +1,100 @@
+package edu.byu.cs329.constantpropagation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.cfg.IndexedControlFlowGraph;
+import edu.byu.cs329.generator.ProgramGenerator;
+import edu.byu.cs329.ssa.SsaForm;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for ParallelMethodAnalysis")
+public class ParallelMethodAnalysisTests {
+  static final int METHODS = 500;
+  static final long SEED = 329;
+
+  @Test
+  @DisplayName("Should apply rewrites after every method is analyzed when given many methods")
+  void should_ApplyRewritesAfterAnalysis_when_GivenManyMethods() {
+    CompilationUnit root = parse(newSource(METHODS));
+    AST ast = root.getAST();
+    long modificationCount = ast.modificationCount();
+    AtomicBoolean modifiedDuringAnalysis = new AtomicBoolean(false);
+
+    int rewrites = new ParallelMethodAnalysis().run(root, cfg -> {
+      if (ast.modificationCount() != modificationCount) {
+        modifiedDuringAnalysis.set(true);
+      }
+      ReturnStatement returnStatement = getReturnStatement(cfg.getMethodDeclaration());
+      String name = cfg.getMethodDeclaration().getName().getIdentifier();
+      return List.of(() -> {
+        returnStatement.setExpression(ast.newNumberLiteral(name.substring("method".length())));
+      });
+    });
+
+    assertEquals(METHODS, rewrites);
+    assertFalse(modifiedDuringAnalysis.get());
+    MethodDeclaration[] methods = ((TypeDeclaration) root.types().get(0)).getMethods();
+    for (int i = 0; i < METHODS; ++i) {
+      ReturnStatement returnStatement = getReturnStatement(methods[i]);
+      assertEquals(Integer.toString(i), returnStatement.getExpression().toString());
+    }
+  }
+
+  @Test
+  @DisplayName("Should leave the tree untouched when propagation analyzes many methods")
+  void should_LeaveTreeUntouched_when_PropagationAnalyzesManyMethods() {
+    CompilationUnit root = parse(newSource(METHODS));
+    long modificationCount = root.getAST().modificationCount();
+    AtomicInteger rewrites = new AtomicInteger();
+
+    new ParallelMethodAnalysis().run(root, cfg -> {
+      SsaForm ssa = new SsaForm(IndexedControlFlowGraph.of(cfg).getInfo().getDominatorTree());
+      rewrites.addAndGet(new SparseConditionalConstantPropagation(ssa).getRewrites().size());
+      return List.of();
+    });
+
+    AtomicBoolean hasProperties = new AtomicBoolean(false);
+    root.accept(new ASTVisitor() {
+      @Override
+      public void preVisit(ASTNode node) {
+        if (!node.properties().isEmpty()) {
+          hasProperties.set(true);
+        }
+      }
+    });
+    assertTrue(rewrites.get() > 0);
+    assertEquals(modificationCount, root.getAST().modificationCount());
+    assertFalse(hasProperties.get());
+  }
+
+  private static String newSource(int methods) {
+    return new ProgramGenerator().seed(SEED).methods(methods).statements(20).generate();
+  }
+
+  private static ReturnStatement getReturnStatement(MethodDeclaration method) {
+    List<?> statements = method.getBody().statements();
+    return (ReturnStatement) statements.get(statements.size() - 1);
+  }
+
+  private static CompilationUnit parse(String source) {
+    ASTParser parser = ASTParser.newParser(AST.JLS3);
+    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+    parser.setSource(source.toCharArray());
+    return (CompilationUnit) parser.createAST(null);
+  }
+}
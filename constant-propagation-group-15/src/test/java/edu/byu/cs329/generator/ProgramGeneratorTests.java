@@ -0,0 +1,79 @@
+package edu.byu.cs329.generator;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.batch.SourceFile;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for ProgramGenerator")
+public class ProgramGeneratorTests {
+  static final int LARGE_METHOD = 100000;
+
+  @Test
+  @DisplayName("Should generate the same source when the seed is the same")
+  void should_GenerateSameSource_when_SeedIsSame() {
+    ProgramGenerator generator = new ProgramGenerator().methods(3).statements(200);
+    String first = generator.seed(7).generate();
+    assertEquals(first, generator.seed(7).generate());
+    assertNotEquals(first, generator.seed(8).generate());
+  }
+
+  @Test
+  @DisplayName("Should emit the requested statements without shadowing when given a large method")
+  void should_EmitRequestedStatements_when_GivenLargeMethod() {
+    String source = new ProgramGenerator().seed(1).statements(LARGE_METHOD).maxDepth(6)
+        .loopNesting(3).generate();
+    CompilationUnit root = parse(source);
+    MethodDeclaration method = ((TypeDeclaration) root.types().get(0)).getMethods()[0];
+    int[] statements = {0};
+    Set<String> names = new HashSet<String>();
+    boolean[] isShadowed = {false};
+    method.accept(new ASTVisitor() {
+      @Override
+      public void preVisit(ASTNode node) {
+        if (node instanceof Statement && !(node instanceof Block)
+            && !(node instanceof VariableDeclarationStatement)) {
+          ++statements[0];
+        }
+      }
+
+      @Override
+      public boolean visit(SingleVariableDeclaration node) {
+        isShadowed[0] |= !names.add(node.getName().getIdentifier());
+        return true;
+      }
+
+      @Override
+      public boolean visit(VariableDeclarationFragment node) {
+        isShadowed[0] |= !names.add(node.getName().getIdentifier());
+        return true;
+      }
+    });
+    assertAll("Large method",
+        () -> assertEquals(0, root.getProblems().length),
+        () -> assertEquals(LARGE_METHOD, statements[0]),
+        () -> assertTrue(!isShadowed[0])
+    );
+  }
+
+  static CompilationUnit parse(String source) {
+    return (CompilationUnit) SourceFile.parse(source.getBytes(StandardCharsets.UTF_8)).getRoot();
+  }
+}
@@ -0,0 +1,66 @@
+package edu.byu.cs329.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.batch.SourceFile;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.constantfolding.ConstantFolding;
+import edu.byu.cs329.constantpropagation.ConstantPropagation;
+import edu.byu.cs329.rd.ReachingDefinitionsBuilder;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Tests for the JFR events")
+public class EventsTests {
+  static final String INPUT =
+      "propagationInputs/should_FoldBranch_when_ConditionIsConstant-root.java";
+
+  @TempDir
+  Path temp;
+
+  @Test
+  @DisplayName("Should record an event for every phase when a recording is on")
+  void should_RecordEveryPhase_when_RecordingIsOn() throws Exception {
+    Path input = Path.of(JavaSourceUtils.getUri(this, INPUT));
+    Path dump = temp.resolve("phases.jfr");
+    try (Recording recording = new Recording()) {
+      recording.start();
+      SourceFile file = SourceFile.read(input);
+      ControlFlowGraph cfg = new ControlFlowGraphBuilder().build(file.getRoot()).get(0);
+      new ReachingDefinitionsBuilder().build(cfg);
+      ConstantFolding.fold(file.getRoot());
+      ConstantPropagation.propagate(file.getRoot());
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    Map<String, RecordedEvent> firstByName = new HashMap<String, RecordedEvent>();
+    List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+    for (RecordedEvent event : events) {
+      firstByName.putIfAbsent(event.getEventType().getName(), event);
+    }
+
+    RecordedEvent parse = firstByName.get("edu.byu.cs329.Parse");
+    assertEquals(input.toString(), parse.getString("file"));
+    assertEquals(0, parse.getInt("problems"));
+    RecordedEvent graph = firstByName.get("edu.byu.cs329.ControlFlowGraph");
+    assertEquals("Name.name", graph.getString("method"));
+    assertTrue(graph.getInt("edges") > 0);
+    assertTrue(firstByName.get("edu.byu.cs329.ReachingDefinitions").getBoolean("byBlock"));
+    assertTrue(firstByName.get("edu.byu.cs329.Fold").getInt("nodesVisited") > 0);
+    RecordedEvent round = firstByName.get("edu.byu.cs329.PropagationRound");
+    assertEquals(input.toString(), round.getString("file"));
+    assertTrue(round.getInt("replacements") > 0);
+  }
+}
@@ -0,0 +1,93 @@
+package edu.byu.cs329.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.constantpropagation.ConstantPropagation;
+import edu.byu.cs329.rd.ReachingDefinitionsBuilder;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("Tests for Metrics")
+public class MetricsTests {
+  static final String INPUT =
+      "propagationInputs/should_FoldBranch_when_ConditionIsConstant-root.java";
+
+  @TempDir
+  Path temp;
+
+  @BeforeEach
+  void resetMetrics() {
+    Metrics.reset();
+  }
+
+  @AfterEach
+  void disableMetrics() {
+    Metrics.setEnabled(false);
+    Metrics.reset();
+  }
+
+  @Test
+  @DisplayName("Should record every phase when metrics are enabled")
+  void should_RecordEveryPhase_when_Enabled() throws Exception {
+    Metrics.setEnabled(true);
+    runPhases();
+
+    Map<String, Long> counters = Metrics.getCounters();
+    assertTrue(counters.get("fold.rule.IfStatementFolding.nodes") > 0);
+    assertTrue(counters.get("fold.rule.IfStatementFolding.folds") > 0);
+    assertTrue(counters.get("fold.fixpoint.rounds") > 0);
+    assertTrue(counters.get("cfg.nodes") > 0);
+    assertTrue(counters.get("cfg.edges") > 0);
+    assertTrue(counters.get("rd.iterations") > 0);
+    assertTrue(counters.get("propagation.replacements") > 0);
+    assertEquals(1, Metrics.timer("propagation").getCount());
+
+    Metrics.registerMBean();
+    TabularData published = (TabularData) ManagementFactory.getPlatformMBeanServer()
+        .getAttribute(new ObjectName(Metrics.OBJECT_NAME), "Counters");
+    CompositeData row = published.get(new Object[] {"cfg.nodes"});
+    assertEquals(counters.get("cfg.nodes"), row.get("value"));
+
+    Path report = temp.resolve("metrics.json");
+    Metrics.writeReport(report);
+    String json = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"cfg.nodes\": " + counters.get("cfg.nodes")), json);
+    assertTrue(json.contains("\"rd.solve\": {\"count\": 1,"), json);
+  }
+
+  @Test
+  @DisplayName("Should record nothing when metrics are disabled")
+  void should_RecordNothing_when_Disabled() throws Exception {
+    runPhases();
+
+    for (Map.Entry<String, Long> entry : Metrics.getCounters().entrySet()) {
+      assertEquals(0L, entry.getValue(), entry.getKey());
+    }
+    assertEquals(0, Metrics.timer("propagation").getCount());
+  }
+
+  private void runPhases() throws Exception {
+    URI uri = JavaSourceUtils.getUri(this, INPUT);
+    ASTNode root = JavaSourceUtils.getCompilationUnit(uri);
+    ControlFlowGraph cfg = new ControlFlowGraphBuilder().build(root).get(0);
+    new ReachingDefinitionsBuilder().build(cfg);
+    ConstantPropagation.propagate(root);
+  }
+}
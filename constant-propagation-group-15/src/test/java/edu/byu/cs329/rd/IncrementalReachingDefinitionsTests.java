@@ -0,0 +1,52 @@
+package edu.byu.cs329.rd;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.IndexedControlFlowGraph;
+import edu.byu.cs329.cfg.StatementTracker;
+import edu.byu.cs329.constantfolding.IfStatementFolding;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for IncrementalReachingDefinitions")
+public class IncrementalReachingDefinitionsTests {
+
+  @Test
+  @DisplayName("Should match a full solve and re-solve only the region after the fold when an if is folded")
+  void should_MatchFullSolve_when_IfIsFolded() {
+    String fileName = "rdInputs/should_MatchFullSolve_when_IfIsFolded.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    ReachingDefinitionsBuilder builder = new ReachingDefinitionsBuilder();
+    IncrementalReachingDefinitions incremental =
+        builder.buildIncremental(new ControlFlowGraphBuilder().build(node).get(0));
+    Statement returnStatement = new StatementTracker(node).getReturnStatement(0);
+    int definitionsBefore = incremental.getReachingDefinitions(returnStatement).size();
+
+    ChangedStatements changed = new ChangedStatements();
+    assertTrue(new IfStatementFolding().fold(node, changed));
+    ControlFlowGraph cfg = new ControlFlowGraphBuilder().build(node).get(0);
+    incremental.update(cfg, changed.getStatements());
+
+    ReachingDefinitions expected = builder.build(cfg);
+    IndexedControlFlowGraph graph = IndexedControlFlowGraph.of(cfg);
+    for (int s = 0; s < graph.size(); ++s) {
+      Statement statement = graph.statement(s);
+      assertEquals(expected.getReachingDefinitions(statement),
+          incremental.getReachingDefinitions(statement), statement.toString());
+    }
+    assertAll("Region re-solved",
+        () -> assertEquals(definitionsBefore - 2,
+            incremental.getReachingDefinitions(returnStatement).size()),
+        () -> assertEquals(graph.size(), incremental.getStatementCount()),
+        () -> assertTrue(incremental.getStatementsSolved() > 0),
+        () -> assertTrue(incremental.getStatementsSolved() < graph.size())
+    );
+  }
+}
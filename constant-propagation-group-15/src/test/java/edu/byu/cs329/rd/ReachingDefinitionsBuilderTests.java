@@ -2,23 +2,36 @@ package edu.byu.cs329.rd;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.Statement;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import edu.byu.cs329.TestUtils;
 import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.StatementTracker;
 import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @DisplayName("Tests for ReachingDefinitionsBuilder")
 public class ReachingDefinitionsBuilderTests {
+  static Logger log = LoggerFactory.getLogger(ReachingDefinitionsBuilderTests.class);
+
+  static final int DEFINITIONS = 10000;
+  static final long TIME_BUDGET_MILLIS = 1000;
 
   ReachingDefinitionsBuilder unitUnderTest = null;
 
@@ -42,6 +55,148 @@ public class ReachingDefinitionsBuilderTests {
     );
   }
 
+  @Test
+  @Tag("Statements")
+  @DisplayName("Should kill earlier definition when variable is reassigned")
+  void should_KillEarlierDefinition_when_VariableIsReassigned() {
+    String fileName = "rdInputs/should_KillEarlierDefinition_when_VariableIsReassigned.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    ReachingDefinitions reachingDefinitions = getReachingDefinitions(node);
+    StatementTracker statementTracker = new StatementTracker(node);
+    Statement assignment = statementTracker.getExpressionStatement(0);
+    Set<Definition> definitions = 
+        reachingDefinitions.getReachingDefinitions(statementTracker.getReturnStatement(0));
+    assertAll("Definitions at return",
+        () -> assertEquals(2, definitions.size()),
+        () -> assertTrue(doesDefine("a", definitions)),
+        () -> assertTrue(doesDefine("b", assignment, definitions))
+    );
+  }
+
+  @Test
+  @Tag("Statements")
+  @DisplayName("Should merge definitions when branches join")
+  void should_MergeDefinitions_when_BranchesJoin() {
+    String fileName = "rdInputs/should_MergeDefinitions_when_BranchesJoin.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    ReachingDefinitions reachingDefinitions = getReachingDefinitions(node);
+    StatementTracker statementTracker = new StatementTracker(node);
+    Statement thenAssignment = statementTracker.getExpressionStatement(0);
+    Statement elseAssignment = statementTracker.getExpressionStatement(1);
+    Set<Definition> definitions = 
+        reachingDefinitions.getReachingDefinitions(statementTracker.getReturnStatement(0));
+    assertAll("Definitions at return",
+        () -> assertEquals(3, definitions.size()),
+        () -> assertTrue(doesDefine("c", definitions)),
+        () -> assertTrue(doesDefine("x", thenAssignment, definitions)),
+        () -> assertTrue(doesDefine("x", elseAssignment, definitions))
+    );
+  }
+
+  @Test
+  @Tag("Statements")
+  @DisplayName("Should reach loop head when defined in loop body")
+  void should_ReachLoopHead_when_DefinedInLoopBody() {
+    String fileName = "rdInputs/should_ReachLoopHead_when_DefinedInLoopBody.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    ReachingDefinitions reachingDefinitions = getReachingDefinitions(node);
+    StatementTracker statementTracker = new StatementTracker(node);
+    Statement declaration = statementTracker.getVariableDeclarationStatement(0);
+    Statement increment = statementTracker.getExpressionStatement(0);
+    Set<Definition> definitions = 
+        reachingDefinitions.getReachingDefinitions(statementTracker.getWhileStatement(0));
+    assertAll("Definitions at loop head",
+        () -> assertEquals(3, definitions.size()),
+        () -> assertTrue(doesDefine("n", definitions)),
+        () -> assertTrue(doesDefine("i", declaration, definitions)),
+        () -> assertTrue(doesDefine("i", increment, definitions))
+    );
+  }
+
+  @Test
+  @Tag("Statements")
+  @DisplayName("Should share entry sets when statements define nothing")
+  void should_ShareEntrySets_when_StatementsDefineNothing() {
+    String fileName = "rdInputs/should_ShareEntrySets_when_StatementsDefineNothing.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    ReachingDefinitions reachingDefinitions = getReachingDefinitions(node);
+    StatementTracker statementTracker = new StatementTracker(node);
+    Set<Definition> first = reachingDefinitions.getReachingDefinitions(
+        statementTracker.getExpressionStatement(0));
+    Set<Definition> second = reachingDefinitions.getReachingDefinitions(
+        statementTracker.getExpressionStatement(1));
+    Set<Definition> atReturn = reachingDefinitions.getReachingDefinitions(
+        statementTracker.getReturnStatement(0));
+    DefinitionTable table = reachingDefinitions.getDefinitionTable();
+    Definition a = table.get(statementTracker.getVariableDeclarationStatement(0), "a");
+    assertAll("Shared entry sets",
+        () -> assertSame(first, second),
+        () -> assertSame(first, atReturn),
+        () -> assertEquals(2, table.size()),
+        () -> assertSame(a, table.get(a.id)),
+        () -> assertEquals(0, table.get(null, "c").id),
+        () -> assertTrue(atReturn.contains(a))
+    );
+  }
+
+  @Test
+  @Tag("Benchmark")
+  @DisplayName("Should solve within budget when method has 10k definitions")
+  void should_SolveWithinBudget_when_MethodHas10kDefinitions() {
+    StringBuilder builder = new StringBuilder("public class Name {\n  int name(int x0) {\n");
+    for (int i = 0; i < DEFINITIONS; ++i) {
+      String name = "x" + (i % 100);
+      if (i < 100) {
+        builder.append("    int ").append(name).append(i == 0 ? "0" : "").append(" = 0;\n");
+      } else if (i % 10 == 0) {
+        builder.append("    if (x0 < ").append(i).append(") {\n      ").append(name)
+            .append(" = ").append(i).append(";\n    }\n");
+      } else {
+        builder.append("    ").append(name).append(" = ").append(name).append(" + 1;\n");
+      }
+    }
+    builder.append("    return x0;\n  }\n}\n");
+    ASTParser parser = ASTParser.newParser(AST.JLS3);
+    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+    parser.setSource(builder.toString().toCharArray());
+    ASTNode node = parser.createAST(null);
+    ControlFlowGraph controlFlowGraph = new ControlFlowGraphBuilder().build(node).get(0);
+
+    long startNanos = System.nanoTime();
+    ReachingDefinitions reachingDefinitions = unitUnderTest.build(controlFlowGraph);
+    long elapsedMillis = (System.nanoTime() - startNanos) / 1000000;
+
+    log.info("Solved reaching definitions for " + DEFINITIONS + " definitions in "
+        + elapsedMillis + " ms");
+    Set<Definition> definitions = 
+        reachingDefinitions.getReachingDefinitions(controlFlowGraph.getEnd());
+    assertAll("Large method",
+        () -> assertEquals(100 + 1, countIdentifiers(definitions)),
+        () -> assertTrue(elapsedMillis < TIME_BUDGET_MILLIS)
+    );
+  }
+
+  private long countIdentifiers(final Set<Definition> definitions) {
+    return definitions.stream().map(definition -> definition.name.getIdentifier())
+        .distinct().count();
+  }
+
+  private boolean doesDefine(String name, Statement statement, 
+      final Set<Definition> definitions) {
+    for (Definition definition : definitions) {
+      if (definition.name.getIdentifier().equals(name) && definition.statement == statement) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private ReachingDefinitions getReachingDefinitions(ASTNode node) {
+    List<ControlFlowGraph> cfgList = new ControlFlowGraphBuilder().build(node);
+    assertEquals(1, cfgList.size());
+    return getReachingDefinitions(cfgList.get(0));
+  }
+
   private boolean doesDefine(String name, final Set<Definition> definitions) {
     for (Definition definition : definitions) {
       if (definition.name.getIdentifier().equals(name) && definition.statement == null) {
@@ -0,0 +1,74 @@
+package edu.byu.cs329.rd;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.StatementTracker;
+import java.util.List;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for UseDefIndex")
+public class UseDefIndexTests {
+  static final String FILE_NAME = "rdInputs/should_IndexUses_when_DefinitionsReachReads.java";
+
+  @Test
+  @DisplayName("Should find the literal when the unique definition assigns a literal")
+  void should_FindLiteral_when_UniqueDefinitionIsLiteral() {
+    ASTNode node = TestUtils.getASTNodeFor(this, FILE_NAME);
+    UseDefIndex index = newUseDefIndex(node);
+    StatementTracker statementTracker = new StatementTracker(node);
+    Statement returnStatement = statementTracker.getReturnStatement(0);
+    InfixExpression sum =
+        (InfixExpression) ((ReturnStatement) returnStatement).getExpression();
+    SimpleName a = (SimpleName) sum.getLeftOperand();
+    SimpleName b = (SimpleName) sum.getRightOperand();
+    assertAll("Literals at return",
+        () -> assertEquals("5", index.getLiteral(a).toString()),
+        () -> assertEquals("5", index.getLiteral(returnStatement, "a").toString()),
+        () -> assertEquals(2, index.getDefinitions(b).size()),
+        () -> assertNull(index.getUniqueDefinition(b)),
+        () -> assertNull(index.getLiteral(b)),
+        () -> assertEquals(1, index.getDefinitions(returnStatement, "c").size()),
+        () -> assertNull(index.getLiteral(returnStatement, "c")),
+        () -> assertEquals(0, index.getDefinitions(returnStatement, "z").size())
+    );
+  }
+
+  @Test
+  @DisplayName("Should link a read to the earlier definition when its statement defines the variable")
+  void should_LinkToEarlierDefinition_when_StatementDefinesVariable() {
+    ASTNode node = TestUtils.getASTNodeFor(this, FILE_NAME);
+    UseDefIndex index = newUseDefIndex(node);
+    StatementTracker statementTracker = new StatementTracker(node);
+    VariableDeclarationStatement declaration =
+        (VariableDeclarationStatement) statementTracker.getVariableDeclarationStatement(2);
+    List<?> fragments = declaration.fragments();
+    SimpleName x = ((VariableDeclarationFragment) fragments.get(0)).getName();
+    SimpleName use =
+        (SimpleName) ((VariableDeclarationFragment) fragments.get(1)).getInitializer();
+    assertAll("Read after definition in the same statement",
+        () -> assertSame(x, index.getUniqueDefinition(use).name),
+        () -> assertSame(declaration, index.getUniqueDefinition(use).statement),
+        () -> assertNull(index.getLiteral(use)),
+        () -> assertEquals(0, index.getDefinitions(declaration, "x").size())
+    );
+  }
+
+  private static UseDefIndex newUseDefIndex(ASTNode node) {
+    ControlFlowGraph cfg = new ControlFlowGraphBuilder().build(node).get(0);
+    return new UseDefIndex(cfg, new ReachingDefinitionsBuilder().build(cfg));
+  }
+}
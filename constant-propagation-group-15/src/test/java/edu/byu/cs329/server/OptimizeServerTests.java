@@ -0,0 +1,184 @@
+package edu.byu.cs329.server;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.batch.SourceFile;
+import edu.byu.cs329.constantpropagation.ConstantPropagation;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@DisplayName("Tests for OptimizeServer")
+public class OptimizeServerTests {
+  static final Logger log = LoggerFactory.getLogger(OptimizeServerTests.class);
+
+  static final String INPUT =
+      "propagationInputs/should_FoldBranch_when_ConditionIsConstant-root.java";
+  static final int COLD_RUNS = 3;
+  static final int WARM_RUNS = 50;
+
+  @TempDir
+  Path temp;
+
+  OptimizeServer server;
+  OptimizeClient client;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = new OptimizeServer(0, 2, 4);
+    server.start();
+    client = new OptimizeClient(server.getPort());
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.close();
+  }
+
+  @Test
+  @DisplayName("Should return the same output as a local run when given a propagate request")
+  void should_ReturnLocalOutput_when_GivenPropagateRequest() throws IOException {
+    Path input = resource(INPUT);
+    SourceFile local = SourceFile.read(input);
+    ConstantPropagation.propagate(local.getRoot());
+
+    OptimizeClient.Response response = client.propagate(Files.readAllBytes(input));
+
+    assertTrue(response.isOk());
+    assertArrayEquals(local.getOutput(), response.getOutput());
+    assertTrue(response.getMessage().contains("rounds="), response.getMessage());
+  }
+
+  @Test
+  @DisplayName("Should answer with an error when the command is unknown")
+  void should_AnswerError_when_CommandIsUnknown() throws IOException {
+    OptimizeClient.Response response = client.send("inline", new byte[0]);
+    assertFalse(response.isOk());
+    assertFalse(response.isBusy());
+  }
+
+  @Test
+  @DisplayName("Should stop accepting when sent the shutdown request")
+  void should_StopAccepting_when_SentShutdown() throws IOException {
+    assertTrue(client.shutdown().isOk());
+    server.awaitTermination();
+    assertThrows(IOException.class, () -> client.fold(new byte[0]));
+  }
+
+  @Test
+  @DisplayName("Should answer busy and still finish queued requests on close when saturated")
+  void should_AnswerBusyAndFinishQueued_when_Saturated() throws Exception {
+    byte[] source = Files.readAllBytes(resource(INPUT));
+    OptimizeServer saturated = new OptimizeServer(0, 1, 1);
+    saturated.start();
+    try (Socket running = sendCommand(saturated.getPort(), Protocol.FOLD);
+        Socket queued = sendCommand(saturated.getPort(), Protocol.FOLD)) {
+      OptimizeClient.Response busy = new OptimizeClient(saturated.getPort()).fold(source);
+
+      Thread closer = new Thread(saturated::close, "test-close");
+      closer.start();
+      while (closer.getState() != Thread.State.TIMED_WAITING && closer.isAlive()) {
+        Thread.sleep(10);
+      }
+      byte runningStatus = sendSource(running, source);
+      byte queuedStatus = sendSource(queued, source);
+      closer.join();
+
+      assertAll("Saturated server",
+          () -> assertTrue(busy.isBusy()),
+          () -> assertTrue(saturated.getRejected() > 0),
+          () -> assertEquals(Protocol.OK, runningStatus),
+          () -> assertEquals(Protocol.OK, queuedStatus),
+          () -> assertEquals(2, saturated.getServed())
+      );
+    } finally {
+      saturated.close();
+    }
+  }
+
+  @Test
+  @Tag("Benchmark")
+  @DisplayName("Should answer faster than the command line when the server is warm")
+  void should_AnswerFasterThanCommandLine_when_ServerIsWarm() throws Exception {
+    Path input = resource(INPUT);
+    String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    long[] cold = new long[COLD_RUNS];
+    for (int i = 0; i < COLD_RUNS; ++i) {
+      long start = System.nanoTime();
+      Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+          ConstantPropagation.class.getName(), input.toString(),
+          temp.resolve("cold.java").toString())
+          .redirectErrorStream(true)
+          .redirectOutput(temp.resolve("cold.log").toFile())
+          .start();
+      assertTrue(process.waitFor() == 0);
+      cold[i] = System.nanoTime() - start;
+    }
+
+    byte[] source = Files.readAllBytes(input);
+    long[] warm = new long[WARM_RUNS];
+    for (int i = 0; i < WARM_RUNS; ++i) {
+      long start = System.nanoTime();
+      assertTrue(client.propagate(source).isOk());
+      warm[i] = System.nanoTime() - start;
+    }
+
+    long coldMedian = median(cold);
+    long warmMedian = median(warm);
+    log.info("Median latency of one propagation: cold command line " + coldMedian / 1000
+        + " us, warm server " + warmMedian / 1000 + " us");
+    assertTrue(warmMedian < coldMedian);
+  }
+
+  /**
+   * Opens a request that holds a worker until its source is sent.
+   *
+   * @param port the port of the server.
+   * @param command the command of the request.
+   * @return the connection, with only the command written.
+   * @throws IOException if the connection fails.
+   */
+  private static Socket sendCommand(int port, String command) throws IOException {
+    Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+    out.writeUTF(command);
+    out.flush();
+    return socket;
+  }
+
+  private static byte sendSource(Socket socket, byte[] source) throws IOException {
+    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+    Protocol.writeBytes(out, source);
+    out.flush();
+    return new DataInputStream(socket.getInputStream()).readByte();
+  }
+
+  private static long median(long[] samples) {
+    long[] sorted = samples.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+
+  private Path resource(String name) {
+    return Path.of(JavaSourceUtils.getUri(this, name));
+  }
+}
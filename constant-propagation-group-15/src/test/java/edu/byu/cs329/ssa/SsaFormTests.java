@@ -0,0 +1,98 @@
+package edu.byu.cs329.ssa;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.DominatorTree;
+import edu.byu.cs329.cfg.IndexedControlFlowGraph;
+import edu.byu.cs329.cfg.StatementTracker;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.WhileStatement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for DominatorTree and SsaForm")
+public class SsaFormTests {
+
+  @Test
+  @DisplayName("Should place a phi at the join when branches define a variable")
+  void should_PlacePhi_when_BranchesJoin() {
+    String fileName = "ssaInputs/should_PlacePhi_when_BranchesJoin.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    SsaForm ssa = newSsaForm(node);
+    IndexedControlFlowGraph cfg = ssa.getGraph();
+    DominatorTree tree = ssa.getDominatorTree();
+    StatementTracker statementTracker = new StatementTracker(node);
+    int ifId = cfg.id(statementTracker.getIfStatement(0));
+    int thenId = cfg.id(statementTracker.getExpressionStatement(0));
+    int elseId = cfg.id(statementTracker.getExpressionStatement(1));
+    ReturnStatement returnStatement = (ReturnStatement) statementTracker.getReturnStatement(0);
+    int returnId = cfg.id(returnStatement);
+    int[] phis = ssa.getPhis(returnId);
+    assertAll("Diamond",
+        () -> assertEquals(ifId, tree.idom(thenId)),
+        () -> assertEquals(ifId, tree.idom(elseId)),
+        () -> assertEquals(ifId, tree.idom(returnId)),
+        () -> assertArrayEquals(new int[] {returnId}, tree.frontier(thenId)),
+        () -> assertTrue(tree.dominates(0, returnId)),
+        () -> assertEquals(1, phis.length),
+        () -> assertEquals(phis[0], ssa.getValue((SimpleName) returnStatement.getExpression()))
+    );
+  }
+
+  @Test
+  @DisplayName("Should place a phi at the loop head when the loop body redefines a variable")
+  void should_PlacePhi_when_LoopRedefinesVariable() {
+    String fileName = "ssaInputs/should_PlacePhi_when_LoopRedefinesVariable.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    SsaForm ssa = newSsaForm(node);
+    IndexedControlFlowGraph cfg = ssa.getGraph();
+    StatementTracker statementTracker = new StatementTracker(node);
+    WhileStatement whileStatement = (WhileStatement) statementTracker.getWhileStatement(0);
+    int whileId = cfg.id(whileStatement);
+    int bodyId = cfg.id(statementTracker.getExpressionStatement(0));
+    int[] phis = ssa.getPhis(whileId);
+    Expression condition = ((InfixExpression) whileStatement.getExpression()).getLeftOperand();
+    assertAll("Loop",
+        () -> assertEquals(1, phis.length),
+        () -> assertEquals("i", ssa.getVariable(phis[0])),
+        () -> assertEquals(phis[0], ssa.getValue((SimpleName) condition)),
+        () -> assertEquals(ssa.getDefinitions(bodyId)[0],
+            ssa.getPhiOperands(phis[0])[indexOfPred(cfg, whileId, bodyId)]),
+        () -> assertTrue(contains(ssa.getStatementUsers(phis[0]), whileId)),
+        () -> assertTrue(contains(ssa.getStatementUsers(phis[0]), bodyId))
+    );
+  }
+
+  private static boolean contains(int[] ids, int id) {
+    for (int i : ids) {
+      if (i == id) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int indexOfPred(IndexedControlFlowGraph cfg, int id, int pred) {
+    for (int k = 0; k < cfg.predCount(id); ++k) {
+      if (cfg.predId(id, k) == pred) {
+        return k;
+      }
+    }
+    return -1;
+  }
+
+  private static SsaForm newSsaForm(ASTNode node) {
+    IndexedControlFlowGraph cfg =
+        IndexedControlFlowGraph.of(new ControlFlowGraphBuilder().build(node).get(0));
+    return new SsaForm(new DominatorTree(cfg));
+  }
+}
@@ -0,0 +1,19 @@
+package batchInputs;
+
+/** Kept as written. */
+public class Name {
+  // Untouched by the folding.
+  int   untouched( int y )   { return y; }
+
+  int name(int y) {
+    int x = 1;   // one
+    if ((true)) {
+      // Taken.
+      x =  (1 + 2);
+      y = x;
+    } else {
+      x = 3;
+    }
+    return x + y;
+  }
+}
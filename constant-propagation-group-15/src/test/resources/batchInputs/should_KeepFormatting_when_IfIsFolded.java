@@ -0,0 +1,14 @@
+package batchInputs;
+
+/** Kept as written. */
+public class Name {
+  // Untouched by the folding.
+  int   untouched( int y )   { return y; }
+
+  int name(int y) {
+    int x = 1;   // one
+    x =  3;
+    y = x;
+    return x + y;
+  }
+}
@@ -0,0 +1,9 @@
+package batchInputs;
+
+public class Name {
+  int name() {
+    // café — naïve résumé
+    int a = 3;
+    return a;
+  }
+}
@@ -0,0 +1,8 @@
+package batchInputs;
+
+public class Name {
+  int name(int a) {
+    int x = 0 + -5;
+    return a-x;
+  }
+}
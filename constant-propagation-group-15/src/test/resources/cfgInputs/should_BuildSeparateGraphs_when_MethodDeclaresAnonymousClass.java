@@ -0,0 +1,12 @@
+package cfgInputs;
+
+public class should_BuildSeparateGraphs_when_MethodDeclaresAnonymousClass {
+  Runnable outer() {
+    Runnable r = new Runnable() {
+      public void run() {
+        return;
+      }
+    };
+    return r;
+  }
+}
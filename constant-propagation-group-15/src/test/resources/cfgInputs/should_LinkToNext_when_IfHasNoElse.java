@@ -0,0 +1,11 @@
+package cfgInputs;
+
+public class should_LinkToNext_when_IfHasNoElse {
+  int name(boolean c) {
+    int i = 1;
+    if (c) {
+      i = 2;
+    }
+    return i;
+  }
+}
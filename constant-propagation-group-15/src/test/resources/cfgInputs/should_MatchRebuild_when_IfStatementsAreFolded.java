@@ -0,0 +1,33 @@
+package cfgInputs;
+
+public class should_MatchRebuild_when_IfStatementsAreFolded {
+  int name(int a) {
+    if (true) {
+      a = 1;
+      if (false) {
+        a = 2;
+      }
+    } else {
+      a = 3;
+    }
+    while (a < 10) {
+      if (false) {
+        a = 4;
+      } else {
+        a = a + 1;
+      }
+    }
+    if (true) {
+      return a;
+    }
+    a = 5;
+    return a;
+  }
+
+  int other(int b) {
+    if (false) {
+      b = 1;
+    }
+    return b;
+  }
+}
@@ -0,0 +1,15 @@
+package cfgInputs;
+
+public class should_NestLoops_when_WhileContainsWhile {
+  int name(int a) {
+    int i = 0;
+    while (i < a) {
+      int j = 0;
+      while (j < a) {
+        j = j + 1;
+      }
+      i = i + 1;
+    }
+    return i;
+  }
+}
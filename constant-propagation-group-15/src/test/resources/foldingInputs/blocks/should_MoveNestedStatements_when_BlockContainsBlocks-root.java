@@ -0,0 +1,22 @@
+package foldingInputs.blocks;
+
+public class Name {
+  public int name(final int y) {
+    int a = y;
+    {
+      a = 1;
+      {
+        a = 2;
+      }
+      a = 3;
+    }
+    {
+    }
+    while (a < 10) {
+      {
+        a = a + 1;
+      }
+    }
+    return a;
+  }
+}
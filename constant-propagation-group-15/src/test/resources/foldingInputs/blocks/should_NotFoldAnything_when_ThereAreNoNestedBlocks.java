@@ -0,0 +1,14 @@
+package foldingInputs.blocks;
+
+public class Name {
+  public int name(final int y) {
+    int a = y;
+    if (a < y) {
+      a = 1;
+    }
+    while (a < 10) {
+      a = a + 1;
+    }
+    return a;
+  }
+}
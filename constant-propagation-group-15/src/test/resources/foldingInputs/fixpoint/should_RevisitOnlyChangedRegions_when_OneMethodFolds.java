@@ -0,0 +1,27 @@
+package foldingInputs.fixpoint;
+
+public class Name {
+  public int first(final int y) {
+    int a = y;
+    int b = a + y;
+    while (a < b) {
+      a = a + 1;
+    }
+    return a;
+  }
+
+  public int second(final int y) {
+    int a = y;
+    a = 5;
+    return a;
+  }
+
+  public int third(final int y) {
+    int a = y;
+    int b = a + y;
+    while (a < b) {
+      a = a + 1;
+    }
+    return a;
+  }
+}
@@ -0,0 +1,15 @@
+package foldingInputs.fused;
+
+public class Name {
+  public int name(final int y) {
+    final boolean b = !(1 < (2 + 3));
+    if (!(1 < (2 + 3))) {
+      final int q = 4;
+    } else {
+      if ((7 + 1) < 9) {
+        final int r = 5;
+      }
+    }
+    return y;
+  }
+}
@@ -0,0 +1,9 @@
+package foldingInputs.fused;
+
+public class Name {
+  public int name(final int y) {
+    final boolean b = false;
+    final int r = 5;
+    return y;
+  }
+}
@@ -0,0 +1,14 @@
+package propagationInputs;
+
+public class Name {
+  int name(int y) {
+    int x = 1;
+    boolean flag = x == 1;
+    if (flag) {
+      x = 2;
+    } else {
+      x = y;
+    }
+    return x;
+  }
+}
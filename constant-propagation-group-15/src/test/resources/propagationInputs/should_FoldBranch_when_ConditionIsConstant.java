@@ -0,0 +1,10 @@
+package propagationInputs;
+
+public class Name {
+  int name(int y) {
+    int x = 1;
+    boolean flag = true;
+    x = 2;
+    return 2;
+  }
+}
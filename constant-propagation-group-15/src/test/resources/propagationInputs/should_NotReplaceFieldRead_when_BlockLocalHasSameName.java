@@ -0,0 +1,12 @@
+package propagationInputs;
+
+public class Name {
+  int x;
+
+  int name(boolean c) {
+    if (c) {
+      int x = 5;
+    }
+    return x;
+  }
+}
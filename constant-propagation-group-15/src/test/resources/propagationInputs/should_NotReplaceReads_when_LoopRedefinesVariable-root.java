@@ -0,0 +1,12 @@
+package propagationInputs;
+
+public class Name {
+  int name(int n) {
+    int i = 0;
+    int k = 5;
+    while (i < n) {
+      i = i + k;
+    }
+    return i + k;
+  }
+}
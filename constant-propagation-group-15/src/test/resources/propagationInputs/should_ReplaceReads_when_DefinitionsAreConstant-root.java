@@ -0,0 +1,11 @@
+package propagationInputs;
+
+public class Name {
+  int name(int y) {
+    int a = 3;
+    int b = a + 4;
+    long c = b * 2L;
+    boolean d = b < 10;
+    return y + a + b;
+  }
+}
@@ -0,0 +1,11 @@
+package propagationInputs;
+
+public class Name {
+  int name(int y) {
+    int a = 3;
+    int b = 7;
+    long c = 14L;
+    boolean d = true;
+    return y + 3 + 7;
+  }
+}
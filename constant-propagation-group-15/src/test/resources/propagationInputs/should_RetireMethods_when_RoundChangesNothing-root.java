@@ -0,0 +1,15 @@
+package propagationInputs;
+
+public class Name {
+  int constant() {
+    int x = 1;
+    if (x < 2) {
+      x = 3;
+    }
+    return x;
+  }
+
+  int unknown(int y) {
+    return y;
+  }
+}
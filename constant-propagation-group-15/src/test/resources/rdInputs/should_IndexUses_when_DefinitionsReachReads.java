@@ -0,0 +1,13 @@
+package rdInputs;
+
+public class should_IndexUses_when_DefinitionsReachReads {
+  int name(boolean c) {
+    int a = 5;
+    int b = a + 1;
+    if (c) {
+      b = -2;
+    }
+    int x = a, y = x;
+    return a + b + y;
+  }
+}
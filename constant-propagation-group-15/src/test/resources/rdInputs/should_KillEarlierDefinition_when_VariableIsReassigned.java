@@ -0,0 +1,9 @@
+package rdInputs;
+
+public class should_KillEarlierDefinition_when_VariableIsReassigned {
+  int name(int a) {
+    int b = 1;
+    b = a;
+    return b;
+  }
+}
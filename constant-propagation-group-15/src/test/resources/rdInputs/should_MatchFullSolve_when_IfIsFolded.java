@@ -0,0 +1,18 @@
+package rdInputs;
+
+public class should_MatchFullSolve_when_IfIsFolded {
+  int name(int p) {
+    int a = 1;
+    int b = 2;
+    int c = a + b;
+    if (true) {
+      a = 3;
+    } else {
+      b = 4;
+    }
+    while (p < c) {
+      p = p + a;
+    }
+    return p + b;
+  }
+}
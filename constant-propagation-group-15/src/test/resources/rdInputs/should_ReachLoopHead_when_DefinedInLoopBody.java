@@ -0,0 +1,11 @@
+package rdInputs;
+
+public class should_ReachLoopHead_when_DefinedInLoopBody {
+  int name(int n) {
+    int i = 0;
+    while (i < n) {
+      i = i + 1;
+    }
+    return i;
+  }
+}
@@ -0,0 +1,10 @@
+package rdInputs;
+
+public class should_ShareEntrySets_when_StatementsDefineNothing {
+  int name(boolean c) {
+    int a = 1;
+    System.out.println(a);
+    System.out.println(c);
+    return a;
+  }
+}
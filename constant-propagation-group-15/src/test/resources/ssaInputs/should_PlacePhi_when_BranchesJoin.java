@@ -0,0 +1,13 @@
+package ssaInputs;
+
+public class should_PlacePhi_when_BranchesJoin {
+  int name(boolean c) {
+    int x = 1;
+    if (c) {
+      x = 2;
+    } else {
+      x = 3;
+    }
+    return x;
+  }
+}
@@ -0,0 +1,11 @@
+package ssaInputs;
+
+public class should_PlacePhi_when_LoopRedefinesVariable {
+  int name(int n) {
+    int i = 0;
+    while (i < n) {
+      i = i + 1;
+    }
+    return i;
+  }
+}